@@ -0,0 +1,52 @@
+package net.hamnaberg.json;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * Backing list of a {@link Json.JArray} of numbers that are all exactly represented by a double, stored unboxed.
+ * The {@link Json.JNumber}s are created when the elements are read.
+ */
+final class DoubleList extends AbstractList<Json.JValue> implements RandomAccess, Serializable {
+    private final double[] values;
+
+    DoubleList(double[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public Json.JValue get(int index) {
+        return Json.jNumber(values[index]);
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    double doubleAt(int index) {
+        return values[index];
+    }
+
+    double[] toDoubleArray() {
+        return values.clone();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof DoubleList other) {
+            if (values.length != other.values.length) {
+                return false;
+            }
+            for (int i = 0; i < values.length; i++) {
+                // == rather than Arrays.equals, so 0.0 and -0.0 are equal like the JNumbers are
+                if (values[i] != other.values[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return super.equals(o);
+    }
+}
@@ -0,0 +1,494 @@
+package net.hamnaberg.json;
+
+import java.io.Serializable;
+import java.util.*;
+
+/**
+ * Persistent, insertion ordered hash array mapped trie used as the backing map of {@link Json.JObject}.
+ * <p>
+ * Lookups go through a 32-way hash trie, iteration order is kept in a second 32-way trie indexed by
+ * an insertion sequence number. Both tries share the same entries, and {@link #with(String, Json.JValue)}
+ * and {@link #without(String)} only copy the nodes on the path to the changed entry.
+ * <p>
+ * Removals leave a hole in the order trie, which is compacted away once there are more holes than entries.
+ */
+final class HashTrieMap extends AbstractMap<String, Json.JValue> implements Serializable {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    static final HashTrieMap EMPTY = new HashTrieMap(BitmapNode.EMPTY, Order.EMPTY, 0);
+
+    private final Node root;
+    private final Order order;
+    private final int size;
+
+    private HashTrieMap(Node root, Order order, int size) {
+        this.root = root;
+        this.order = order;
+        this.size = size;
+    }
+
+    static HashTrieMap from(Map<String, Json.JValue> map) {
+        if (map instanceof HashTrieMap) {
+            return (HashTrieMap) map;
+        }
+        HashTrieMap result = EMPTY;
+        for (Map.Entry<String, Json.JValue> entry : map.entrySet()) {
+            result = result.with(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
+    HashTrieMap with(String key, Json.JValue value) {
+        int hash = hash(key);
+        Leaf existing = root.find(key, hash, 0);
+        if (existing != null) {
+            if (existing.value == value) {
+                return this;
+            }
+            Leaf leaf = new Leaf(key, value, hash, existing.seq);
+            return new HashTrieMap(root.with(leaf, 0), order.set(existing.seq, leaf), size);
+        }
+        Leaf leaf = new Leaf(key, value, hash, order.count);
+        return new HashTrieMap(root.with(leaf, 0), order.append(leaf), size + 1);
+    }
+
+    HashTrieMap without(String key) {
+        int hash = hash(key);
+        Leaf existing = root.find(key, hash, 0);
+        if (existing == null) {
+            return this;
+        }
+        if (size == 1) {
+            return EMPTY;
+        }
+        Node node = root.without(key, hash, 0);
+        HashTrieMap removed = new HashTrieMap(node == null ? BitmapNode.EMPTY : node, order.set(existing.seq, null), size - 1);
+        int holes = removed.order.count - removed.size;
+        return holes > WIDTH && holes > removed.size ? removed.compact() : removed;
+    }
+
+    private HashTrieMap compact() {
+        HashTrieMap result = EMPTY;
+        for (Leaf leaf : new LeafIterable(order)) {
+            result = result.with(leaf.key, leaf.value);
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public Json.JValue get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        Leaf leaf = root.find((String) key, hash(key), 0);
+        return leaf == null ? null : leaf.value;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && root.find((String) key, hash(key), 0) != null;
+    }
+
+    @Override
+    public Set<Entry<String, Json.JValue>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Json.JValue>> iterator() {
+                Iterator<Leaf> it = new LeafIterator(order);
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return it.hasNext();
+                    }
+
+                    @Override
+                    public Entry<String, Json.JValue> next() {
+                        return it.next();
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                if (!(o instanceof Map.Entry)) {
+                    return false;
+                }
+                Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+                Json.JValue value = get(e.getKey());
+                return value != null && value.equals(e.getValue());
+            }
+        };
+    }
+
+    private Object writeReplace() {
+        return new LinkedHashMap<>(this);
+    }
+
+    private static int hash(Object key) {
+        int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    private static final class Leaf implements Map.Entry<String, Json.JValue> {
+        private final String key;
+        private final Json.JValue value;
+        private final int hash;
+        private final int seq;
+
+        private Leaf(String key, Json.JValue value, int hash, int seq) {
+            this.key = key;
+            this.value = value;
+            this.hash = hash;
+            this.seq = seq;
+        }
+
+        @Override
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public Json.JValue getValue() {
+            return value;
+        }
+
+        @Override
+        public Json.JValue setValue(Json.JValue value) {
+            throw new UnsupportedOperationException("Immutable entry");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) return false;
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return key.equals(e.getKey()) && value.equals(e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    private static abstract class Node {
+        abstract Leaf find(String key, int hash, int shift);
+
+        abstract Node with(Leaf leaf, int shift);
+
+        /**
+         * @return the node without the key, or null if the node became empty
+         */
+        abstract Node without(String key, int hash, int shift);
+
+        /**
+         * @return the only leaf of this node, if it has no other leaves or sub nodes
+         */
+        abstract Leaf singleLeaf();
+    }
+
+    private static final class BitmapNode extends Node {
+        static final BitmapNode EMPTY = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+        // each slot holds either a Leaf or a Node
+        private final Object[] slots;
+
+        private BitmapNode(int bitmap, Object[] slots) {
+            this.bitmap = bitmap;
+            this.slots = slots;
+        }
+
+        @Override
+        Leaf find(String key, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            Object slot = slots[Integer.bitCount(bitmap & (bit - 1))];
+            if (slot instanceof Leaf) {
+                Leaf leaf = (Leaf) slot;
+                return leaf.hash == hash && leaf.key.equals(key) ? leaf : null;
+            }
+            return ((Node) slot).find(key, hash, shift + BITS);
+        }
+
+        @Override
+        Node with(Leaf leaf, int shift) {
+            int bit = 1 << ((leaf.hash >>> shift) & MASK);
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                Object[] copy = new Object[slots.length + 1];
+                System.arraycopy(slots, 0, copy, 0, index);
+                copy[index] = leaf;
+                System.arraycopy(slots, index, copy, index + 1, slots.length - index);
+                return new BitmapNode(bitmap | bit, copy);
+            }
+            Object slot = slots[index];
+            Object replacement;
+            if (slot instanceof Leaf) {
+                Leaf existing = (Leaf) slot;
+                if (existing.hash == leaf.hash && existing.key.equals(leaf.key)) {
+                    replacement = leaf;
+                } else {
+                    replacement = merge(existing, existing.hash, leaf, shift + BITS);
+                }
+            } else {
+                replacement = ((Node) slot).with(leaf, shift + BITS);
+            }
+            Object[] copy = slots.clone();
+            copy[index] = replacement;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        @Override
+        Node without(String key, int hash, int shift) {
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            Object slot = slots[index];
+            if (slot instanceof Leaf) {
+                Leaf leaf = (Leaf) slot;
+                if (leaf.hash != hash || !leaf.key.equals(key)) {
+                    return this;
+                }
+                if (slots.length == 1) {
+                    return null;
+                }
+                Object[] copy = new Object[slots.length - 1];
+                System.arraycopy(slots, 0, copy, 0, index);
+                System.arraycopy(slots, index + 1, copy, index, slots.length - index - 1);
+                return new BitmapNode(bitmap & ~bit, copy);
+            }
+            Node node = (Node) slot;
+            Node replacement = node.without(key, hash, shift + BITS);
+            if (replacement == node) {
+                return this;
+            }
+            if (replacement == null) {
+                if (slots.length == 1) {
+                    return null;
+                }
+                Object[] copy = new Object[slots.length - 1];
+                System.arraycopy(slots, 0, copy, 0, index);
+                System.arraycopy(slots, index + 1, copy, index, slots.length - index - 1);
+                return new BitmapNode(bitmap & ~bit, copy);
+            }
+            Object[] copy = slots.clone();
+            Leaf single = replacement.singleLeaf();
+            copy[index] = single != null ? single : replacement;
+            return new BitmapNode(bitmap, copy);
+        }
+
+        @Override
+        Leaf singleLeaf() {
+            return slots.length == 1 && slots[0] instanceof Leaf ? (Leaf) slots[0] : null;
+        }
+
+        /**
+         * A node holding first, a leaf or a collision node of hash firstHash, and second, split from shift on.
+         */
+        static Node merge(Object first, int firstHash, Leaf second, int shift) {
+            if (firstHash == second.hash) {
+                return new CollisionNode(firstHash, new Leaf[]{(Leaf) first, second});
+            }
+            int firstIndex = (firstHash >>> shift) & MASK;
+            int secondIndex = (second.hash >>> shift) & MASK;
+            if (firstIndex == secondIndex) {
+                return new BitmapNode(1 << firstIndex, new Object[]{merge(first, firstHash, second, shift + BITS)});
+            }
+            Object[] slots = firstIndex < secondIndex ? new Object[]{first, second} : new Object[]{second, first};
+            return new BitmapNode((1 << firstIndex) | (1 << secondIndex), slots);
+        }
+    }
+
+    private static final class CollisionNode extends Node {
+        private final int hash;
+        private final Leaf[] leaves;
+
+        private CollisionNode(int hash, Leaf[] leaves) {
+            this.hash = hash;
+            this.leaves = leaves;
+        }
+
+        @Override
+        Leaf find(String key, int hash, int shift) {
+            if (this.hash != hash) {
+                return null;
+            }
+            for (Leaf leaf : leaves) {
+                if (leaf.key.equals(key)) {
+                    return leaf;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        Node with(Leaf leaf, int shift) {
+            if (leaf.hash != hash) {
+                // shares only the bits up to shift with this node
+                return BitmapNode.merge(this, hash, leaf, shift);
+            }
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key.equals(leaf.key)) {
+                    Leaf[] copy = leaves.clone();
+                    copy[i] = leaf;
+                    return new CollisionNode(hash, copy);
+                }
+            }
+            Leaf[] copy = Arrays.copyOf(leaves, leaves.length + 1);
+            copy[leaves.length] = leaf;
+            return new CollisionNode(hash, copy);
+        }
+
+        @Override
+        Node without(String key, int hash, int shift) {
+            if (this.hash != hash) {
+                return this;
+            }
+            for (int i = 0; i < leaves.length; i++) {
+                if (leaves[i].key.equals(key)) {
+                    Leaf[] copy = new Leaf[leaves.length - 1];
+                    System.arraycopy(leaves, 0, copy, 0, i);
+                    System.arraycopy(leaves, i + 1, copy, i, leaves.length - i - 1);
+                    return new CollisionNode(hash, copy);
+                }
+            }
+            return this;
+        }
+
+        @Override
+        Leaf singleLeaf() {
+            return leaves.length == 1 ? leaves[0] : null;
+        }
+    }
+
+    /**
+     * Persistent array mapped trie from insertion sequence number to leaf.
+     * Removed entries are represented by null.
+     */
+    private static final class Order {
+        static final Order EMPTY = new Order(new Object[0], 0, 0);
+
+        private final Object[] root;
+        private final int shift;
+        private final int count;
+
+        private Order(Object[] root, int shift, int count) {
+            this.root = root;
+            this.shift = shift;
+            this.count = count;
+        }
+
+        Order append(Leaf leaf) {
+            if (count == 1 << (shift + BITS)) {
+                Object[] newRoot = new Object[]{root};
+                return new Order(setIn(newRoot, shift + BITS, count, leaf), shift + BITS, count + 1);
+            }
+            return new Order(setIn(root, shift, count, leaf), shift, count + 1);
+        }
+
+        Order set(int index, Leaf leaf) {
+            return new Order(setIn(root, shift, index, leaf), shift, count);
+        }
+
+        private static Object[] setIn(Object[] node, int shift, int index, Leaf leaf) {
+            int slot = (index >>> shift) & MASK;
+            Object[] copy = node.length > slot ? node.clone() : Arrays.copyOf(node, slot + 1);
+            if (shift == 0) {
+                copy[slot] = leaf;
+            } else {
+                Object[] child = (Object[]) copy[slot];
+                copy[slot] = setIn(child == null ? new Object[0] : child, shift - BITS, index, leaf);
+            }
+            return copy;
+        }
+
+        Object[] leafArray(int index) {
+            Object[] node = root;
+            for (int s = shift; s > 0; s -= BITS) {
+                node = (Object[]) node[(index >>> s) & MASK];
+            }
+            return node;
+        }
+    }
+
+    private static final class LeafIterable implements Iterable<Leaf> {
+        private final Order order;
+
+        private LeafIterable(Order order) {
+            this.order = order;
+        }
+
+        @Override
+        public Iterator<Leaf> iterator() {
+            return new LeafIterator(order);
+        }
+    }
+
+    private static final class LeafIterator implements Iterator<Leaf> {
+        private final Order order;
+        private Object[] current;
+        private int index;
+        private Leaf next;
+
+        private LeafIterator(Order order) {
+            this.order = order;
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (index < order.count) {
+                if ((index & MASK) == 0 || current == null) {
+                    current = order.leafArray(index);
+                }
+                int slot = index & MASK;
+                index++;
+                if (slot < current.length && current[slot] != null) {
+                    next = (Leaf) current[slot];
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Leaf next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Leaf result = next;
+            advance();
+            return result;
+        }
+    }
+}
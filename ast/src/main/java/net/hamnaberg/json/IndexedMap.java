@@ -0,0 +1,10 @@
+package net.hamnaberg.json;
+
+/**
+ * A backing map of {@link Json.JObject} whose entries can be read by position, in iteration order.
+ */
+interface IndexedMap {
+    String keyAt(int index);
+
+    Json.JValue valueAt(int index);
+}
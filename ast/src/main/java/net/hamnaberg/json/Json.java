@@ -11,6 +11,9 @@ import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
 public abstract class Json {
+    private static final JArray EMPTY_ARRAY = new JArray(List.of());
+    private static final JObject EMPTY_OBJECT = new JObject(Map.of());
+
     private Json() {
     }
 
@@ -27,18 +30,24 @@ public abstract class Json {
     }
 
     public static JNumber jNumber(int n) {
-        return new JNumber(new BigDecimal(n));
+        return new JNumber((long) n);
     }
 
     public static JNumber jNumber(double n) {
-        return new JNumber(new BigDecimal(n));
+        return new JNumber(n);
     }
 
     public static JNumber jNumber(long n) {
-        return new JNumber(new BigDecimal(n));
+        return new JNumber(n);
     }
 
     public static JNumber jNumber(Number n) {
+        if (n instanceof Integer || n instanceof Long || n instanceof Short || n instanceof Byte) {
+            return new JNumber(n.longValue());
+        }
+        if (n instanceof BigDecimal) {
+            return new JNumber((BigDecimal) n);
+        }
         return new JNumber(new BigDecimal(n.toString()));
     }
 
@@ -47,7 +56,7 @@ public abstract class Json {
     }
 
     public static JArray jEmptyArray() {
-        return new JArray(List.of());
+        return EMPTY_ARRAY;
     }
 
     public static JArray jArray(Iterable<JValue> iterable) {
@@ -61,7 +70,7 @@ public abstract class Json {
     }
 
     public static JObject jEmptyObject() {
-        return new JObject(Map.of());
+        return EMPTY_OBJECT;
     }
 
     public static JObject jObject(String name, JValue value) {
@@ -220,6 +229,15 @@ public abstract class Json {
         return map;
     }
 
+    /**
+     * Deep merges values from left to right, for instance layers of configuration with the most specific last.
+     *
+     * @see JsonTraversal#deepmerge(List)
+     */
+    public static JValue deepmerge(JValue... values) {
+        return JsonTraversal.deepmerge(Arrays.asList(values));
+    }
+
     public sealed interface JValue extends Serializable permits JScalarValue, JObject, JArray {
 
         /**
@@ -235,102 +253,72 @@ public abstract class Json {
         void foldUnit(VoidFolder folder);
 
         default Optional<JArray> asJsonArray() {
-            return fold(new OptionalFolder<>() {
-                @Override
-                public Optional<JArray> onArray(JArray a) {
-                    return Optional.of(a);
-                }
-            });
+            return this instanceof JArray a ? Optional.of(a) : Optional.empty();
         }
 
         default JArray asJsonArrayOrEmpty() {
-            return asJsonArray().orElse(jEmptyArray());
+            return this instanceof JArray a ? a : jEmptyArray();
         }
 
         default Optional<JObject> asJsonObject() {
-            return fold(new OptionalFolder<>() {
-                @Override
-                public Optional<JObject> onObject(JObject o) {
-                    return Optional.of(o);
-                }
-            });
+            return this instanceof JObject o ? Optional.of(o) : Optional.empty();
         }
 
         default JObject asJsonObjectOrEmpty() {
-            return asJsonObject().orElse(jEmptyObject());
+            return this instanceof JObject o ? o : jEmptyObject();
         }
 
         default Optional<JBoolean> asJsonBoolean() {
-            return fold(new OptionalFolder<>() {
-                @Override
-                public Optional<JBoolean> onBoolean(JBoolean b) {
-                    return Optional.of(b);
-                }
-            });
+            return this instanceof JBoolean b ? Optional.of(b) : Optional.empty();
         }
 
         default Optional<Boolean> asBoolean() {
-            return asJsonBoolean().map(j -> j.value);
+            return this instanceof JBoolean b ? Optional.of(b.value) : Optional.empty();
         }
 
         default Optional<JNull> asJsonNull() {
-            return fold(new OptionalFolder<>() {
-                @Override
-                public Optional<JNull> onNull() {
-                    return Optional.of(JNull.INSTANCE);
-                }
-            });
+            return this instanceof JNull ? Optional.of(JNull.INSTANCE) : Optional.empty();
         }
 
         default Optional<JString> asJsonString() {
-            return fold(new OptionalFolder<>() {
-                @Override
-                public Optional<JString> onString(JString s) {
-                    return Optional.of(s);
-                }
-            });
+            return this instanceof JString s ? Optional.of(s) : Optional.empty();
         }
 
         default Optional<String> asString() {
-            return asJsonString().map(j -> j.value);
+            return this instanceof JString s ? Optional.of(s.value) : Optional.empty();
         }
 
         default Optional<JNumber> asJsonNumber() {
-            return fold(new OptionalFolder<>() {
-                @Override
-                public Optional<JNumber> onNumber(JNumber n) {
-                    return Optional.of(n);
-                }
-            });
+            return this instanceof JNumber n ? Optional.of(n) : Optional.empty();
         }
 
         default Optional<BigDecimal> asBigDecimal() {
-            return asJsonNumber().map(j -> j.value);
+            return this instanceof JNumber n ? Optional.of(n.value()) : Optional.empty();
         }
 
 
         default boolean isObject() {
-            return asJsonObject().isPresent();
+            return this instanceof JObject;
         }
 
         default boolean isArray() {
-            return asJsonArray().isPresent();
+            return this instanceof JArray;
         }
 
         default boolean isString() {
-            return asJsonString().isPresent();
+            return this instanceof JString;
         }
 
         default boolean isNull() {
-            return asJsonNull().isPresent();
+            return this instanceof JNull;
         }
 
         default boolean isBoolean() {
-            return asJsonBoolean().isPresent();
+            return this instanceof JBoolean;
         }
 
         default boolean isNumber() {
-            return asJsonNumber().isPresent();
+            return this instanceof JNumber;
         }
 
         default boolean isScalar() {
@@ -341,6 +329,15 @@ public abstract class Json {
             return f.apply(this);
         }
 
+        /**
+         * Rewrites this value bottom up, sharing every part of it that f leaves unchanged.
+         *
+         * @see JsonTraversal#transform(JValue, UnaryOperator)
+         */
+        default JValue transform(UnaryOperator<JValue> f) {
+            return JsonTraversal.transform(this, f);
+        }
+
 
         /**
          * Perform a deep merge of this JSON value with another JSON value.
@@ -354,17 +351,16 @@ public abstract class Json {
          * from this JSON.
          */
         default JValue deepmerge(JValue value) {
-            Optional<JObject> first = asJsonObject();
-            Optional<JObject> second = value.asJsonObject();
-
-            if (first.isPresent() && second.isPresent()) {
-                return second.get().stream().reduce(first.get(), (obj, kv) -> {
-                    Optional<JValue> v1 = obj.get(kv.getKey());
-                    return v1.map(jValue -> obj.put(kv.getKey(), jValue.deepmerge(kv.getValue()))).orElseGet(() -> obj.put(kv.getKey(), kv.getValue()));
-                }, JObject::concat);
-            } else {
-                return value;
-            }
+            return JsonTraversal.deepmerge(List.of(this, value));
+        }
+
+        /**
+         * Reports this value to the visitor as a sequence of events, without recursion.
+         *
+         * @see JsonTraversal#walk(JValue, JsonVisitor)
+         */
+        default void walk(JsonVisitor visitor) {
+            JsonTraversal.walk(this, visitor);
         }
 
         default JValue asJValue() {
@@ -411,7 +407,7 @@ public abstract class Json {
             } else if (this instanceof JBoolean b) {
                 return String.valueOf(b.value);
             } else if (this instanceof JNumber n) {
-                return n.value.toString();
+                return n.format();
             } else if (this instanceof JString s) {
                 return s.value;
             } else {
@@ -444,6 +440,10 @@ public abstract class Json {
         public String getValue() {
             return value;
         }
+
+        private Object writeReplace() {
+            return new SerializationProxy(this);
+        }
     }
 
     public record JBoolean(boolean value) implements JScalarValue {
@@ -465,6 +465,10 @@ public abstract class Json {
         public boolean isValue() {
             return value;
         }
+
+        private Object writeReplace() {
+            return new SerializationProxy(this);
+        }
     }
 
     public enum JNull implements JScalarValue {
@@ -486,15 +490,83 @@ public abstract class Json {
         }
     }
 
-    public record JNumber(BigDecimal value) implements JScalarValue {
+    /**
+     * A JSON number.
+     * <p>
+     * Numbers created from {@code int}, {@code long} and {@code double} keep the primitive value, and only create
+     * the {@link BigDecimal} the first time {@link #value()} is called. Integral doubles are treated as the integer
+     * they represent, other doubles as the shortest decimal that rounds to them, so {@code jNumber(0.1)} is equal to
+     * {@code jNumber(new BigDecimal("0.1"))}.
+     * Equality is {@link BigDecimal#equals(Object)} of that decimal, regardless of how the number was created.
+     */
+    public static final class JNumber implements JScalarValue {
+        private static final byte LONG = 0;
+        private static final byte DOUBLE = 1;
+        private static final byte DECIMAL = 2;
+        private static final double TWO_POW_63 = 0x1p63;
+
+        private final byte kind;
+        private final long longValue;
+        private final double doubleValue;
+        private BigDecimal value;
 
         public JNumber(BigDecimal value) {
+            this.kind = DECIMAL;
+            this.longValue = 0;
+            this.doubleValue = 0;
             this.value = Objects.requireNonNull(value, "Number may not be null");
         }
 
+        private JNumber(long value) {
+            this.kind = LONG;
+            this.longValue = value;
+            this.doubleValue = 0;
+        }
+
+        private JNumber(double value) {
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                throw new NumberFormatException("Infinite or NaN");
+            }
+            this.kind = DOUBLE;
+            this.longValue = 0;
+            this.doubleValue = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof JNumber)) return false;
+            JNumber other = (JNumber) o;
+            if (kind == LONG && other.kind == LONG) {
+                return longValue == other.longValue;
+            }
+            if (kind == DOUBLE && other.kind == DOUBLE) {
+                return doubleValue == other.doubleValue;
+            }
+            if (kind == LONG && other.kind == DOUBLE) {
+                return other.isLongValued() && (long) other.doubleValue == longValue;
+            }
+            if (kind == DOUBLE && other.kind == LONG) {
+                return isLongValued() && (long) doubleValue == other.longValue;
+            }
+            return value().equals(other.value());
+        }
+
+        @Override
+        public int hashCode() {
+            switch (kind) {
+                case LONG:
+                    return Long.hashCode(longValue);
+                case DOUBLE:
+                    return isLongValued() ? Long.hashCode((long) doubleValue) : value().hashCode();
+                default:
+                    return value.scale() == 0 && value.unscaledValue().bitLength() < 64 ? Long.hashCode(value.longValue()) : value.hashCode();
+            }
+        }
+
         @Override
         public String toString() {
-            return "JNumber{value=" + value + "}";
+            return "JNumber{value=" + value() + "}";
         }
 
         @Override
@@ -508,31 +580,204 @@ public abstract class Json {
         }
 
         public long asLong() {
-            return value.longValue();
+            switch (kind) {
+                case LONG:
+                    return longValue;
+                case DOUBLE:
+                    return Math.abs(doubleValue) < TWO_POW_63 ? (long) doubleValue : value().longValue();
+                default:
+                    return value.longValue();
+            }
         }
 
         public int asInt() {
-            return value.intValue();
+            switch (kind) {
+                case LONG:
+                    return (int) longValue;
+                case DOUBLE:
+                    return (int) asLong();
+                default:
+                    return value.intValue();
+            }
         }
 
         public double asDouble() {
-            return value.doubleValue();
+            switch (kind) {
+                case LONG:
+                    return longValue;
+                case DOUBLE:
+                    return doubleValue;
+                default:
+                    return value.doubleValue();
+            }
+        }
+
+        /**
+         * @return this number as a long
+         * @throws ArithmeticException if the number has a fractional part or does not fit in a long
+         */
+        public long asLongExact() {
+            switch (kind) {
+                case LONG:
+                    return longValue;
+                case DOUBLE:
+                    return isLongValued() ? (long) doubleValue : value().longValueExact();
+                default:
+                    return value.longValueExact();
+            }
+        }
+
+        /**
+         * @return this number as an int
+         * @throws ArithmeticException if the number has a fractional part or does not fit in an int
+         */
+        public int asIntExact() {
+            return Math.toIntExact(asLongExact());
+        }
+
+        public BigDecimal value() {
+            BigDecimal decimal = value;
+            if (decimal == null) {
+                decimal = kind == LONG ? BigDecimal.valueOf(longValue) : NumberWriter.decimal(doubleValue);
+                value = decimal;
+            }
+            return decimal;
         }
 
         public BigDecimal getValue() {
+            return value();
+        }
+
+        /**
+         * The JSON representation of this number.
+         */
+        String format() {
+            if (kind == LONG) {
+                return Long.toString(longValue);
+            }
+            if (kind == DOUBLE) {
+                return NumberWriter.toString(doubleValue);
+            }
+            return value.toString();
+        }
+
+        /**
+         * The decimal form, if it has been created.
+         */
+        BigDecimal decimalOrNull() {
             return value;
         }
+
+        void writeTo(JsonTape.Builder builder) {
+            switch (kind) {
+                case LONG:
+                    builder.number(longValue);
+                    break;
+                case DOUBLE:
+                    builder.number(doubleValue);
+                    break;
+                default:
+                    builder.number(value);
+            }
+        }
+
+        void writeTo(PrettyPrinter.PrinterState state) {
+            switch (kind) {
+                case LONG:
+                    state.number(longValue);
+                    break;
+                case DOUBLE:
+                    state.number(doubleValue);
+                    break;
+                default:
+                    state.append(value.toString());
+            }
+        }
+
+        void writeTo(SerializationProxy.Writer writer) {
+            switch (kind) {
+                case LONG:
+                    writer.number(longValue);
+                    break;
+                case DOUBLE:
+                    writer.number(doubleValue);
+                    break;
+                default:
+                    writer.number(value);
+            }
+        }
+
+        private Object writeReplace() {
+            return new SerializationProxy(this);
+        }
+
+        private boolean isLongValued() {
+            return isIntegral(doubleValue) && Math.abs(doubleValue) < TWO_POW_63;
+        }
+
+        private static boolean isIntegral(double d) {
+            return d == Math.rint(d);
+        }
     }
 
-    public record JArray(List<JValue> value) implements JValue, Iterable<JValue> {
+    public static final class JArray implements JValue, Iterable<JValue> {
+        private final List<JValue> value;
+        // structural hash, computed on first use
+        private transient int hash;
+        private transient boolean hashIsZero;
 
         public JArray(List<JValue> value) {
             this.value = Objects.requireNonNull(value, "You may not supply a null List in JArray");
         }
 
+        public List<JValue> value() {
+            return value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof JArray other)) return false;
+            return value == other.value || mayEqual(other) && JsonTraversal.equal(this, other);
+        }
+
+        /**
+         * False if the two certainly differ, judged without looking inside.
+         */
+        boolean mayEqual(JArray other) {
+            if (value.size() != other.value.size()) return false;
+            return hash == 0 || other.hash == 0 || hash == other.hash;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = hash;
+            if (h == 0 && !hashIsZero) {
+                h = isPacked() ? cacheHash(value.hashCode()) : JsonTraversal.hash(this);
+            }
+            return h;
+        }
+
+        boolean isHashed() {
+            return hash != 0 || hashIsZero;
+        }
+
+        int cacheHash(int h) {
+            if (h == 0) {
+                hashIsZero = true;
+            } else {
+                hash = h;
+            }
+            return h;
+        }
+
         @Override
         public String toString() {
-            return "JArray{value=" + value + "}";
+            return JsonTraversal.toString(this);
+        }
+
+        private Object writeReplace() {
+            return new SerializationProxy(this);
         }
 
         @Override
@@ -554,10 +799,22 @@ public abstract class Json {
             return value.iterator();
         }
 
+        @Override
+        public Spliterator<JValue> spliterator() {
+            return value.spliterator();
+        }
+
         public Stream<JValue> stream() {
             return value.stream();
         }
 
+        /**
+         * @see JsonForkJoin for folds and transforms that keep the order of the result
+         */
+        public Stream<JValue> parallelStream() {
+            return value.parallelStream();
+        }
+
         public Optional<JValue> get(int index) {
             return index < value.size() ? Optional.of(value.get(index)) : Optional.empty();
         }
@@ -603,9 +860,62 @@ public abstract class Json {
             return value.size();
         }
 
+        /**
+         * The elements as longs, without boxing when the array is stored as a {@code long[]}.
+         *
+         * @throws IllegalStateException if an element is not a number
+         * @throws ArithmeticException   if a number is not an integer that fits in a long
+         */
+        public long[] toLongArray() {
+            if (value instanceof LongList longs) {
+                return longs.toLongArray();
+            }
+            long[] result = new long[value.size()];
+            int i = 0;
+            for (JValue element : value) {
+                result[i] = number(element, i).asLongExact();
+                i++;
+            }
+            return result;
+        }
+
+        /**
+         * The elements as doubles, without boxing when the array is stored as a {@code long[]} or {@code double[]}.
+         *
+         * @throws IllegalStateException if an element is not a number
+         */
+        public double[] toDoubleArray() {
+            if (value instanceof DoubleList doubles) {
+                return doubles.toDoubleArray();
+            }
+            if (value instanceof LongList longs) {
+                return longs.toDoubleArray();
+            }
+            double[] result = new double[value.size()];
+            int i = 0;
+            for (JValue element : value) {
+                result[i] = number(element, i).asDouble();
+                i++;
+            }
+            return result;
+        }
+
+        /**
+         * Whether the elements are stored unboxed.
+         */
+        boolean isPacked() {
+            return value instanceof LongList || value instanceof DoubleList;
+        }
+
+        private static JNumber number(JValue element, int index) {
+            if (element instanceof JNumber number) {
+                return number;
+            }
+            throw new IllegalStateException("Element " + index + " is not a number");
+        }
+
         public JArray append(JValue toAdd) {
-            List<JValue> list = Stream.concat(value.stream(), Stream.of(toAdd)).toList();
-            return new JArray(list);
+            return new JArray(vector().append(toAdd));
         }
 
         public JArray append(String toAdd) {
@@ -638,8 +948,7 @@ public abstract class Json {
 
 
         public JArray prepend(JValue toAdd) {
-            List<JValue> list = Stream.concat(Stream.of(toAdd), value.stream()).toList();
-            return new JArray(list);
+            return new JArray(vector().prepend(toAdd));
         }
 
         public JArray prepend(String toAdd) {
@@ -678,59 +987,315 @@ public abstract class Json {
 
         public JArray insert(int index, JValue toAdd) {
             if (index <= this.value.size()) {
-                List<JValue> value = new ArrayList<>(this.value);
-                value.add(index, toAdd);
-                return new JArray(Collections.unmodifiableList(value));
+                return new JArray(vector().insert(index, toAdd));
             }
             return this;
         }
 
         public JArray replace(int index, JValue toAdd) {
             if (index < this.value.size()) {
-                List<JValue> value = new ArrayList<>(this.value);
-                value.set(index, toAdd);
-                return new JArray(Collections.unmodifiableList(value));
+                if (this.value.get(index) == toAdd) {
+                    return this;
+                }
+                return new JArray(vector().updated(index, toAdd));
             }
             return this;
         }
 
         public JArray remove(int index) {
             if (index < this.value.size()) {
-                List<JValue> value = new ArrayList<>(this.value);
-                value.remove(index);
-                return new JArray(Collections.unmodifiableList(value));
+                return new JArray(vector().removeAt(index));
             }
             return this;
         }
 
         public JArray concat(JArray other) {
-            return new JArray(Stream.concat(this.value.stream(), other.stream()).toList());
+            if (other.value.isEmpty()) return this;
+            if (this.value.isEmpty()) return other;
+            return new JArray(vector().concat(other.vector()));
+        }
+
+        /**
+         * Elements from {@code fromIndex} (inclusive) to {@code toIndex} (exclusive).
+         * The result shares its structure with this array, no elements are copied.
+         */
+        public JArray slice(int fromIndex, int toIndex) {
+            if (fromIndex == 0 && toIndex == this.value.size()) {
+                return this;
+            }
+            return new JArray(this.value.subList(fromIndex, toIndex));
+        }
+
+        private PersistentVector<JValue> vector() {
+            return PersistentVector.from(this.value);
+        }
+
+        public static Builder builder() {
+            return new Builder(10);
+        }
+
+        /**
+         * An array of the given numbers, stored unboxed. The values are copied.
+         */
+        public static JArray ofLongs(long... values) {
+            return values.length == 0 ? jEmptyArray() : new JArray(new LongList(values.clone()));
+        }
+
+        /**
+         * An array of the given numbers, stored unboxed. The values are copied.
+         *
+         * @throws NumberFormatException if a value is NaN or infinite
+         */
+        public static JArray ofDoubles(double... values) {
+            Builder builder = new Builder(values.length);
+            for (double value : values) {
+                builder.add(value);
+            }
+            return builder.freeze();
+        }
+
+        /**
+         * @param expectedSize number of values the builder will hold, used to size its storage up front
+         */
+        public static Builder builder(int expectedSize) {
+            return new Builder(expectedSize);
+        }
+
+        /**
+         * Mutable, single use builder for {@link JArray}.
+         * <p>
+         * {@link #freeze()} hands the builder's storage to the new JArray without copying,
+         * after which the builder can no longer be used.
+         * <p>
+         * As long as every value added is a number that fits, the values are kept unboxed in a {@code long[]}
+         * or {@code double[]}, and the JArray reads its {@link JNumber}s from that. Integers go in the {@code long[]},
+         * other numbers in the {@code double[]} if a double represents them exactly, and formats the same.
+         * The first value that does not fit moves everything over to a list of JValues.
+         */
+        public static final class Builder {
+            private static final double TWO_POW_53 = 0x1p53;
+
+            private final int expectedSize;
+            // all null until the first value is added, then exactly one of them is in use
+            private long[] longs;
+            private double[] doubles;
+            private ArrayList<JValue> values;
+            private int size;
+            private boolean frozen;
+
+            private Builder(int expectedSize) {
+                this.expectedSize = Math.max(expectedSize, 0);
+            }
+
+            public Builder add(JValue value) {
+                Objects.requireNonNull(value, "You may not add a null value to JArray");
+                checkNotFrozen();
+                if (values == null && value instanceof JNumber number) {
+                    if (number.kind == JNumber.LONG ? addPacked(number.longValue) : addPacked(packedDouble(number))) {
+                        return this;
+                    }
+                }
+                values().add(value);
+                return this;
+            }
+
+            public Builder add(long value) {
+                checkNotFrozen();
+                if (values == null && addPacked(value)) {
+                    return this;
+                }
+                values().add(jNumber(value));
+                return this;
+            }
+
+            /**
+             * @throws NumberFormatException if value is NaN or infinite
+             */
+            public Builder add(double value) {
+                if (Double.isNaN(value) || Double.isInfinite(value)) {
+                    throw new NumberFormatException("Infinite or NaN");
+                }
+                checkNotFrozen();
+                if (values == null && addPacked(value)) {
+                    return this;
+                }
+                values().add(jNumber(value));
+                return this;
+            }
+
+            public Builder addAll(Iterable<JValue> values) {
+                for (JValue value : values) {
+                    add(value);
+                }
+                return this;
+            }
+
+            public int size() {
+                checkNotFrozen();
+                return values != null ? values.size() : size;
+            }
+
+            public JArray freeze() {
+                checkNotFrozen();
+                frozen = true;
+                JArray array;
+                if (values != null) {
+                    array = values.isEmpty() ? jEmptyArray() : new JArray(Collections.unmodifiableList(values));
+                } else if (longs != null) {
+                    array = new JArray(new LongList(size == longs.length ? longs : Arrays.copyOf(longs, size)));
+                } else if (doubles != null) {
+                    array = new JArray(new DoubleList(size == doubles.length ? doubles : Arrays.copyOf(doubles, size)));
+                } else {
+                    array = jEmptyArray();
+                }
+                longs = null;
+                doubles = null;
+                values = null;
+                return array;
+            }
+
+            private boolean addPacked(long value) {
+                if (doubles == null) {
+                    if (longs == null) {
+                        longs = new long[Math.max(expectedSize, 4)];
+                    } else if (size == longs.length) {
+                        longs = Arrays.copyOf(longs, grow(size));
+                    }
+                    longs[size++] = value;
+                    return true;
+                }
+                return Math.abs(value) <= TWO_POW_53 && addPacked((double) value);
+            }
+
+            /**
+             * @param value a finite double, or NaN for a number that can not be packed
+             */
+            private boolean addPacked(double value) {
+                if (Double.isNaN(value)) {
+                    return false;
+                }
+                if (doubles == null) {
+                    int capacity = longs == null ? Math.max(expectedSize, 4) : longs.length;
+                    doubles = new double[size == capacity ? grow(size) : capacity];
+                    for (int i = 0; i < size; i++) {
+                        if (Math.abs(longs[i]) > TWO_POW_53) {
+                            doubles = null;
+                            return false;
+                        }
+                        doubles[i] = longs[i];
+                    }
+                    longs = null;
+                } else if (size == doubles.length) {
+                    doubles = Arrays.copyOf(doubles, grow(size));
+                }
+                doubles[size++] = value;
+                return true;
+            }
+
+            /**
+             * The double that stands for number in a packed array, or NaN if there is none.
+             */
+            private static double packedDouble(JNumber number) {
+                switch (number.kind) {
+                    case JNumber.LONG:
+                        return Math.abs(number.longValue) <= TWO_POW_53 ? number.longValue : Double.NaN;
+                    case JNumber.DOUBLE:
+                        return number.doubleValue;
+                    default:
+                        // a decimal like 0.25 is the same number as the double 0.25 only if it has the same digits
+                        BigDecimal decimal = number.value;
+                        if (decimal.scale() <= 0 || decimal.precision() > 17) {
+                            return Double.NaN;
+                        }
+                        double d = decimal.doubleValue();
+                        return NumberWriter.decimal(d).equals(decimal) ? d : Double.NaN;
+                }
+            }
+
+            private static int grow(int size) {
+                return size + (size >> 1) + 1;
+            }
+
+            private ArrayList<JValue> values() {
+                if (values == null) {
+                    values = new ArrayList<>(Math.max(expectedSize, size + 1));
+                    for (int i = 0; i < size; i++) {
+                        values.add(longs != null ? jNumber(longs[i]) : jNumber(doubles[i]));
+                    }
+                    longs = null;
+                    doubles = null;
+                }
+                return values;
+            }
+
+            private void checkNotFrozen() {
+                if (frozen) {
+                    throw new IllegalStateException("Builder has already been frozen");
+                }
+            }
         }
     }
 
-    public record JObject(Map<String, JValue> value) implements JValue, Iterable<Map.Entry<String, JValue>> {
+    public static final class JObject implements JValue, Iterable<Map.Entry<String, JValue>> {
         public static final Collector<Map.Entry<String, JValue>, ?, Map<String, JValue>> MapCollector = Collectors.toUnmodifiableMap(Map.Entry::getKey, Map.Entry::getValue);
 
+        private final Map<String, JValue> value;
+        // structural hash, computed on first use
+        private transient int hash;
+        private transient boolean hashIsZero;
+
         public JObject(Map<String, JValue> value) {
             this.value = Objects.requireNonNull(value, "You may not supply a null Map to JObject");
         }
 
+        public Map<String, JValue> value() {
+            return value;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            JObject tuple2s = (JObject) o;
-            return Objects.equals(value, tuple2s.value);
+            if (!(o instanceof JObject other)) return false;
+            return value == other.value || mayEqual(other) && JsonTraversal.equal(this, other);
+        }
+
+        /**
+         * False if the two certainly differ, judged without looking inside.
+         */
+        boolean mayEqual(JObject other) {
+            if (value.size() != other.value.size()) return false;
+            return hash == 0 || other.hash == 0 || hash == other.hash;
         }
 
         @Override
         public int hashCode() {
-            return Objects.hash(value);
+            int h = hash;
+            if (h == 0 && !hashIsZero) {
+                h = JsonTraversal.hash(this);
+            }
+            return h;
+        }
+
+        boolean isHashed() {
+            return hash != 0 || hashIsZero;
+        }
+
+        int cacheHash(int h) {
+            if (h == 0) {
+                hashIsZero = true;
+            } else {
+                hash = h;
+            }
+            return h;
         }
 
         @Override
         public String toString() {
-            return "JObject{value=" + value + "}";
+            return JsonTraversal.toString(this);
+        }
+
+        private Object writeReplace() {
+            return new SerializationProxy(this);
         }
 
         @Override
@@ -787,6 +1352,49 @@ public abstract class Json {
             return getAs(name, JValue::asBoolean);
         }
 
+        /**
+         * Non-boxing lookup of a number field.
+         *
+         * @return the field as a long, or defaultValue if it is missing or not a number
+         */
+        public long getAsLongOr(String name, long defaultValue) {
+            return value.get(name) instanceof JNumber n ? n.asLong() : defaultValue;
+        }
+
+        /**
+         * Non-boxing lookup of a number field.
+         *
+         * @return the field as an int, or defaultValue if it is missing or not a number
+         */
+        public int getAsIntOr(String name, int defaultValue) {
+            return value.get(name) instanceof JNumber n ? n.asInt() : defaultValue;
+        }
+
+        /**
+         * Non-boxing lookup of a number field.
+         *
+         * @return the field as a double, or defaultValue if it is missing or not a number
+         */
+        public double getAsDoubleOr(String name, double defaultValue) {
+            return value.get(name) instanceof JNumber n ? n.asDouble() : defaultValue;
+        }
+
+        /**
+         * Non-boxing lookup of a boolean field.
+         *
+         * @return the field value, or defaultValue if it is missing or not a boolean
+         */
+        public boolean getAsBooleanOr(String name, boolean defaultValue) {
+            return value.get(name) instanceof JBoolean b ? b.value : defaultValue;
+        }
+
+        /**
+         * @return the field value, or defaultValue if it is missing or not a string
+         */
+        public String getAsStringOr(String name, String defaultValue) {
+            return value.get(name) instanceof JString s ? s.value : defaultValue;
+        }
+
         public Optional<Json.JArray> getAsArray(String name) {
             return getAs(name, JValue::asJsonArray);
         }
@@ -803,14 +1411,90 @@ public abstract class Json {
             return getAsObject(name).orElse(Json.jEmptyObject());
         }
 
+        /**
+         * The fields that match predicate, in the order of this object. Returns this object if they all match.
+         */
         public Json.JObject filter(BiPredicate<String, JValue> predicate) {
-            Map<String, JValue> collect = value.entrySet().stream().filter(e -> predicate.test(e.getKey(), e.getValue())).collect(MapCollector);
-            return new Json.JObject(collect);
+            int size = value.size();
+            if (!(value instanceof IndexedMap indexed)) {
+                Builder builder = new Builder(size);
+                for (Map.Entry<String, JValue> entry : value.entrySet()) {
+                    if (predicate.test(entry.getKey(), entry.getValue())) {
+                        builder.put(entry.getKey(), entry.getValue());
+                    }
+                }
+                return builder.size() == size ? this : builder.freeze();
+            }
+            // mark the fields to keep first, so the result is built at its exact size
+            long[] kept = new long[(size + 63) >>> 6];
+            int count = 0;
+            for (int i = 0; i < size; i++) {
+                if (predicate.test(indexed.keyAt(i), indexed.valueAt(i))) {
+                    kept[i >>> 6] |= 1L << i;
+                    count++;
+                }
+            }
+            if (count == size) {
+                return this;
+            }
+            Builder builder = new Builder(count);
+            for (int i = 0; i < size; i++) {
+                if ((kept[i >>> 6] & 1L << i) != 0) {
+                    builder.put(indexed.keyAt(i), indexed.valueAt(i));
+                }
+            }
+            return builder.freeze();
         }
 
+        /**
+         * The fields whose names match predicate, in the order of this object. Returns this object if they all match.
+         */
         public Json.JObject filterKeys(Predicate<String> predicate) {
-            Map<String, JValue> collect = value.entrySet().stream().filter(e -> predicate.test(e.getKey())).collect(MapCollector);
-            return new Json.JObject(collect);
+            return filter((key, field) -> predicate.test(key));
+        }
+
+        /**
+         * The fields with the given names, in the order the names are given. Names that are missing are skipped.
+         */
+        public Json.JObject select(String... names) {
+            Builder builder = new Builder(names.length);
+            for (String name : names) {
+                JValue field = value.get(name);
+                if (field != null) {
+                    builder.put(name, field);
+                }
+            }
+            return builder.freeze();
+        }
+
+        /**
+         * Name of the field at index, in iteration order. Constant time for objects from {@link Builder}
+         * and the parsers, other objects are scanned.
+         *
+         * @throws IndexOutOfBoundsException if index is negative or not less than {@link #size()}
+         */
+        public String keyAt(int index) {
+            Objects.checkIndex(index, value.size());
+            return value instanceof IndexedMap indexed ? indexed.keyAt(index) : entryAt(index).getKey();
+        }
+
+        /**
+         * Value of the field at index, in iteration order. Constant time for objects from {@link Builder}
+         * and the parsers, other objects are scanned.
+         *
+         * @throws IndexOutOfBoundsException if index is negative or not less than {@link #size()}
+         */
+        public JValue valueAt(int index) {
+            Objects.checkIndex(index, value.size());
+            return value instanceof IndexedMap indexed ? indexed.valueAt(index) : entryAt(index).getValue();
+        }
+
+        private Map.Entry<String, JValue> entryAt(int index) {
+            Iterator<Map.Entry<String, JValue>> entries = value.entrySet().iterator();
+            for (int i = 0; i < index; i++) {
+                entries.next();
+            }
+            return entries.next();
         }
 
         public Json.JObject filterNot(BiPredicate<String, JValue> predicate) {
@@ -866,14 +1550,26 @@ public abstract class Json {
             return value.entrySet().stream();
         }
 
+        /**
+         * Splits evenly by position, the entries are copied to an array when the spliterator is created.
+         */
+        @Override
+        public Spliterator<Map.Entry<String, JValue>> spliterator() {
+            return Spliterators.spliterator(value.entrySet().toArray(), Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.IMMUTABLE);
+        }
+
+        public Stream<Map.Entry<String, JValue>> parallelStream() {
+            return StreamSupport.stream(spliterator(), true);
+        }
+
         public JObject put(String name, JValue value) {
             Objects.requireNonNull(name, "Name in JObject.put may not be null");
             Objects.requireNonNull(value, String.format("Value for name %s JObject.put may not be null", name));
+            if (this.value.get(name) == value) {
+                return this;
+            }
 
-            Map<String, JValue> map = new LinkedHashMap<>(this.value);
-            map.put(name, value);
-
-            return jObject(map);
+            return new JObject(HashTrieMap.from(this.value).with(name, value));
         }
 
         public JObject put(String name, String value) {
@@ -907,19 +1603,157 @@ public abstract class Json {
         public JObject concat(JObject other) {
             if (other.isEmpty()) return this;
             if (this == other) return this;
+            if (this.isEmpty()) return other;
 
-            Map<String, JValue> copy = new LinkedHashMap<>(this.value);
-            copy.putAll(other.value);
-            return jObject(copy);
+            HashTrieMap map = HashTrieMap.from(this.value);
+            for (Map.Entry<String, JValue> entry : other.value.entrySet()) {
+                map = map.with(entry.getKey(), entry.getValue());
+            }
+            return new JObject(map);
         }
 
         public JObject remove(String name) {
             if (containsKey(name)) {
-                Map<String, JValue> copy = new LinkedHashMap<>(this.value);
-                copy.remove(name);
-                return jObject(copy);
+                return new JObject(HashTrieMap.from(this.value).without(name));
             }
             return this;
         }
+
+        public static Builder builder() {
+            return new Builder(8);
+        }
+
+        /**
+         * @param expectedSize number of fields the builder will hold, used to size its storage up front
+         */
+        public static Builder builder(int expectedSize) {
+            return new Builder(expectedSize);
+        }
+
+        /**
+         * Mutable, single use builder for {@link JObject}.
+         * Putting an existing name replaces the value but keeps the original position.
+         * <p>
+         * Objects built with the same names in the same order share one key layout, and only keep
+         * their values in a flat array. Objects with more names than a layout holds keep the names in a second
+         * array, with a hash index over them. {@link #freeze()} hands the arrays to the new JObject,
+         * after which the builder can no longer be used.
+         */
+        public static final class Builder {
+            private Shape shape = Shape.EMPTY;
+            private JValue[] values;
+            private int size;
+            // take over once the key layout limits are exceeded
+            private String[] keys;
+            private int[] table;
+            private boolean frozen;
+
+            private Builder(int expectedSize) {
+                this.values = new JValue[Math.max(expectedSize, 0)];
+                if (expectedSize > Shape.MAX_KEYS) {
+                    shape = null;
+                    keys = new String[expectedSize];
+                    table = WideMap.newTable(expectedSize);
+                }
+            }
+
+            public Builder put(String name, JValue value) {
+                Objects.requireNonNull(name, "Name for entry may not be null");
+                Objects.requireNonNull(value, () -> String.format("Value for named entry '%s' may not be null", name));
+                if (frozen) {
+                    throw new IllegalStateException("Builder has already been frozen");
+                }
+                if (shape != null) {
+                    int index = shape.indexOf(name);
+                    if (index >= 0) {
+                        values[index] = value;
+                        return this;
+                    }
+                    Shape next = shape.with(name);
+                    if (next != null) {
+                        if (size == values.length) {
+                            values = Arrays.copyOf(values, Math.max(4, size * 2));
+                        }
+                        values[size++] = value;
+                        shape = next;
+                        return this;
+                    }
+                    keys = new String[values.length];
+                    for (int i = 0; i < size; i++) {
+                        keys[i] = shape.key(i);
+                    }
+                    table = WideMap.index(keys, size);
+                    shape = null;
+                } else {
+                    int index = WideMap.indexOf(keys, table, name);
+                    if (index >= 0) {
+                        values[index] = value;
+                        return this;
+                    }
+                }
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, Math.max(4, size * 2));
+                    keys = Arrays.copyOf(keys, values.length);
+                }
+                keys[size] = name;
+                values[size++] = value;
+                if (size * 2 > table.length) {
+                    table = WideMap.index(keys, size);
+                } else {
+                    WideMap.add(table, name, size - 1);
+                }
+                return this;
+            }
+
+            public Builder put(String name, String value) {
+                return put(name, jString(value));
+            }
+
+            public Builder put(String name, long value) {
+                return put(name, jNumber(value));
+            }
+
+            public Builder put(String name, double value) {
+                return put(name, jNumber(value));
+            }
+
+            public Builder put(String name, boolean value) {
+                return put(name, jBoolean(value));
+            }
+
+            public Builder putAll(Iterable<Map.Entry<String, JValue>> entries) {
+                for (Map.Entry<String, JValue> entry : entries) {
+                    put(entry.getKey(), entry.getValue());
+                }
+                return this;
+            }
+
+            public int size() {
+                if (frozen) {
+                    throw new IllegalStateException("Builder has already been frozen");
+                }
+                return size;
+            }
+
+            public JObject freeze() {
+                int count = size();
+                frozen = true;
+                JObject object;
+                if (count == 0) {
+                    object = jEmptyObject();
+                } else if (shape != null) {
+                    object = new JObject(new ShapedMap(shape, count == values.length ? values : Arrays.copyOf(values, count)));
+                } else if (count == values.length) {
+                    object = new JObject(new WideMap(keys, values, table));
+                } else {
+                    String[] trimmed = Arrays.copyOf(keys, count);
+                    object = new JObject(new WideMap(trimmed, Arrays.copyOf(values, count), WideMap.needsResize(table, count) ? WideMap.index(trimmed, count) : table));
+                }
+                values = null;
+                keys = null;
+                table = null;
+                return object;
+            }
+        }
     }
 }
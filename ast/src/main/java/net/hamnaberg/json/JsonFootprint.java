@@ -0,0 +1,249 @@
+package net.hamnaberg.json;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+/**
+ * Node counts and estimated heap use of a {@link Json.JValue} tree.
+ * <p>
+ * Sizes are estimated from the shapes of the classes involved, for the layout of the running JVM:
+ * 4 or 8 byte references depending on whether compressed references are likely, 12 byte object headers
+ * and 8 byte alignment. Values that are shared within the tree, such as interned strings or subtrees from a
+ * {@link JsonPool}, are counted every time they occur, so the estimate is an upper bound of what the tree retains.
+ * Key layouts shared between objects built with the same names are not counted.
+ * <p>
+ * {@link #of(Json.JValue)} walks the tree with an explicit stack. Arrays and objects built by a builder or parser
+ * are read by index without allocating, while objects changed with {@code put} or {@code remove}, or wrapping another
+ * map, allocate an iterator for their values and another for their keys. That is cheap enough to weigh cache entries with.
+ *
+ * @param objects       number of objects
+ * @param arrays        number of arrays
+ * @param strings       number of string values
+ * @param numbers       number of numbers, including the elements of arrays stored as {@code long[]} or {@code double[]}
+ * @param booleans      number of booleans
+ * @param nulls         number of nulls
+ * @param stringBytes   estimated heap used by string values and field names
+ * @param numberBytes   estimated heap used by numbers
+ * @param retainedBytes estimated heap used by the whole tree, including the above
+ */
+public record JsonFootprint(long objects, long arrays, long strings, long numbers, long booleans, long nulls,
+                            long stringBytes, long numberBytes, long retainedBytes) {
+
+    private static final Layout CURRENT = Layout.current();
+
+    public static JsonFootprint of(Json.JValue value) {
+        return new Counter(CURRENT).count(value);
+    }
+
+    static JsonFootprint of(Json.JValue value, boolean compressedReferences) {
+        return new Counter(new Layout(compressedReferences ? 4 : 8)).count(value);
+    }
+
+    /**
+     * Estimated heap used by value itself, not counting the members of objects and arrays.
+     */
+    static long shallowSize(Json.JValue value) {
+        return new Counter(CURRENT).shallow(value);
+    }
+
+    private record Layout(int reference) {
+        private static final int HEADER = 12;
+
+        static Layout current() {
+            // compressed references are on by default for heaps below 32 GB
+            boolean is64Bit = !"32".equals(System.getProperty("sun.arch.data.model"));
+            return new Layout(is64Bit && Runtime.getRuntime().maxMemory() >= 32L << 30 ? 8 : 4);
+        }
+
+        long object(long fields) {
+            return align(HEADER + fields);
+        }
+
+        long array(long length, int elementSize) {
+            return align(HEADER + 4 + length * elementSize);
+        }
+
+        long references(long length) {
+            return array(length, reference);
+        }
+
+        private static long align(long size) {
+            return (size + 7) & ~7;
+        }
+    }
+
+    private static final class Counter {
+        private final Layout layout;
+        private long objects;
+        private long arrays;
+        private long strings;
+        private long numbers;
+        private long booleans;
+        private long nulls;
+        private long stringBytes;
+        private long numberBytes;
+        private long retainedBytes;
+
+        Counter(Layout layout) {
+            this.layout = layout;
+        }
+
+        JsonFootprint count(Json.JValue value) {
+            // each open container is an IndexedMap, a List or an Iterator over its members
+            Object[] stack = new Object[16];
+            int[] indexes = new int[16];
+            int depth = 0;
+            Json.JValue current = value;
+            while (true) {
+                retainedBytes += shallow(current);
+                Object members = null;
+                if (current instanceof Json.JObject object && !object.isEmpty()) {
+                    Map<String, Json.JValue> map = object.value();
+                    members = map instanceof IndexedMap ? map : map.values().iterator();
+                } else if (current instanceof Json.JArray array && array.size() > 0 && !array.isPacked()) {
+                    List<Json.JValue> list = array.value();
+                    members = list instanceof RandomAccess ? list : list.iterator();
+                }
+                if (members != null) {
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                        indexes = Arrays.copyOf(indexes, depth * 2);
+                    }
+                    stack[depth] = members;
+                    indexes[depth++] = 0;
+                }
+                current = null;
+                while (depth > 0 && current == null) {
+                    Object top = stack[depth - 1];
+                    int index = indexes[depth - 1];
+                    if (top instanceof IndexedMap indexed) {
+                        if (index < ((Map<?, ?>) top).size()) {
+                            current = indexed.valueAt(index);
+                        }
+                    } else if (top instanceof List<?> list) {
+                        if (index < list.size()) {
+                            current = (Json.JValue) list.get(index);
+                        }
+                    } else {
+                        Iterator<?> iterator = (Iterator<?>) top;
+                        if (iterator.hasNext()) {
+                            current = (Json.JValue) iterator.next();
+                        }
+                    }
+                    if (current == null) {
+                        stack[--depth] = null;
+                    } else {
+                        indexes[depth - 1] = index + 1;
+                    }
+                }
+                if (current == null) {
+                    return new JsonFootprint(objects, arrays, strings, numbers, booleans, nulls, stringBytes, numberBytes, retainedBytes);
+                }
+            }
+        }
+
+        long shallow(Json.JValue value) {
+            if (value instanceof Json.JString s) {
+                strings++;
+                return layout.object(layout.reference()) + string(s.value());
+            }
+            if (value instanceof Json.JNumber n) {
+                numbers++;
+                long size = layout.object(1 + 8 + 8 + layout.reference()) + decimal(n.decimalOrNull());
+                numberBytes += size;
+                return size;
+            }
+            if (value instanceof Json.JBoolean) {
+                booleans++;
+                return layout.object(1);
+            }
+            if (value instanceof Json.JObject object) {
+                objects++;
+                return layout.object(layout.reference() + 4 + 1) + map(object.value());
+            }
+            if (value instanceof Json.JArray array) {
+                arrays++;
+                return layout.object(layout.reference() + 4 + 1) + list(array.value());
+            }
+            nulls++;
+            return 0;
+        }
+
+        private long string(String value) {
+            int length = value.length();
+            int width = 1;
+            for (int i = 0; i < length; i++) {
+                if (value.charAt(i) > 0xFF) {
+                    width = 2;
+                    break;
+                }
+            }
+            long size = layout.object(4 + 1 + 1 + layout.reference()) + layout.array(length, width);
+            stringBytes += size;
+            return size;
+        }
+
+        private long decimal(BigDecimal value) {
+            if (value == null) {
+                return 0;
+            }
+            long size = layout.object(2L * layout.reference() + 4 + 4 + 8);
+            BigInteger unscaled = value.unscaledValue();
+            if (unscaled.bitLength() >= 64) {
+                size += layout.object(5 * 4 + layout.reference()) + layout.array((unscaled.bitLength() + 31) / 32, 4);
+            }
+            return size;
+        }
+
+        private long map(Map<String, Json.JValue> map) {
+            int size = map.size();
+            int reference = layout.reference();
+            if (map instanceof ShapedMap) {
+                // the keys belong to the shared Shape
+                return layout.object(4L * reference) + layout.references(size);
+            }
+            if (map instanceof WideMap wide) {
+                long keys = 0;
+                for (int i = 0; i < size; i++) {
+                    keys += string(wide.keyAt(i));
+                }
+                return layout.object(5L * reference) + 2 * layout.references(size) + layout.array(wide.indexLength(), 4) + keys;
+            }
+            long keys = 0;
+            for (Map.Entry<String, Json.JValue> entry : map.entrySet()) {
+                keys += string(entry.getKey());
+            }
+            if (map instanceof HashTrieMap) {
+                // a leaf per entry, and about three trie slots pointing to it
+                return layout.object(5L * reference + 4) + size * (layout.object(2L * reference + 8) + 3L * reference) + keys;
+            }
+            // a LinkedHashMap, possibly wrapped
+            int table = Integer.highestOneBit(Math.max((int) (size / 0.75f), 1) * 2 - 1);
+            return layout.object(reference) + layout.object(8L * reference + 4 * 4) + size * layout.object(4 + 5L * reference)
+                    + layout.references(table) + keys;
+        }
+
+        private long list(List<Json.JValue> list) {
+            int size = list.size();
+            int reference = layout.reference();
+            if (list instanceof LongList || list instanceof DoubleList) {
+                long elements = layout.array(size, 8);
+                numbers += size;
+                numberBytes += elements;
+                return layout.object(reference + 4) + elements;
+            }
+            if (list instanceof PersistentVector) {
+                // one 32 wide leaf per 32 elements, and the branches above them
+                long leaves = (size + 31) / 32;
+                return layout.object(3L * reference + 4 * 4) + layout.references(size) + leaves * layout.array(0, 0) + (leaves / 32 + 1) * layout.references(32);
+            }
+            // an ArrayList, possibly wrapped
+            return layout.object(2L * reference) + layout.object(4 + 4 + reference) + layout.references(size);
+        }
+    }
+}
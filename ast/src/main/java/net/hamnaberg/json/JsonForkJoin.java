@@ -0,0 +1,216 @@
+package net.hamnaberg.json;
+
+import java.io.OutputStream;
+import java.nio.channels.WritableByteChannel;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+
+/**
+ * Folds and transforms large arrays and wide objects in parallel.
+ * <p>
+ * The members of a container are split in halves into fork/join tasks until each part has at most
+ * {@code threshold} members. Containers at or below the threshold are processed sequentially in the calling thread.
+ * Results always keep the element and key order of the input, and folds combine partial results in order,
+ * so the combiner only needs to be associative.
+ * <p>
+ * The functions are called concurrently from several threads and must be safe to do so.
+ */
+public final class JsonForkJoin {
+    public static final int DEFAULT_THRESHOLD = 1024;
+
+    private static final JsonForkJoin COMMON = new JsonForkJoin(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+
+    private final ForkJoinPool pool;
+    private final int threshold;
+
+    public JsonForkJoin(ForkJoinPool pool, int threshold) {
+        if (threshold < 1) {
+            throw new IllegalArgumentException("threshold must be positive, was " + threshold);
+        }
+        this.pool = Objects.requireNonNull(pool, "pool");
+        this.threshold = threshold;
+    }
+
+    /**
+     * Runs in the common pool with the {@link #DEFAULT_THRESHOLD}.
+     */
+    public static JsonForkJoin common() {
+        return COMMON;
+    }
+
+    public <A> List<A> mapToList(Json.JArray array, Function<Json.JValue, A> f) {
+        List<Json.JValue> values = members(array);
+        Object[] result = new Object[values.size()];
+        invoke(new MapTask<>(values, result, f, 0, result.length));
+        @SuppressWarnings("unchecked")
+        List<A> list = (List<A>) Collections.unmodifiableList(Arrays.asList(result));
+        return list;
+    }
+
+    public Json.JArray map(Json.JArray array, Function<Json.JValue, Json.JValue> f) {
+        List<Json.JValue> values = members(array);
+        Json.JValue[] result = new Json.JValue[values.size()];
+        invoke(new MapTask<>(values, result, v -> Objects.requireNonNull(f.apply(v), "You may not add a null value to JArray"), 0, result.length));
+        return result.length == 0 ? Json.jEmptyArray() : new Json.JArray(Collections.unmodifiableList(Arrays.asList(result)));
+    }
+
+    /**
+     * Replaces every value of the object, keeping the keys and their order.
+     */
+    public Json.JObject map(Json.JObject object, BiFunction<String, Json.JValue, Json.JValue> f) {
+        List<Map.Entry<String, Json.JValue>> entries = entries(object);
+        Json.JValue[] result = new Json.JValue[entries.size()];
+        invoke(new MapTask<>(entries, result, e -> f.apply(e.getKey(), e.getValue()), 0, result.length));
+        Json.JObject.Builder builder = Json.JObject.builder(result.length);
+        for (int i = 0; i < result.length; i++) {
+            builder.put(entries.get(i).getKey(), result[i]);
+        }
+        return builder.freeze();
+    }
+
+    /**
+     * Folds every element with folder and combines the results in order, starting from identity.
+     */
+    public <A> A fold(Json.JArray array, Folder<A> folder, A identity, BinaryOperator<A> combiner) {
+        List<Json.JValue> values = members(array);
+        return invoke(new FoldTask<>(values, v -> v.fold(folder), identity, combiner, 0, values.size()));
+    }
+
+    /**
+     * Applies f to every field and combines the results in key order, starting from identity.
+     */
+    public <A> A fold(Json.JObject object, BiFunction<String, Json.JValue, A> f, A identity, BinaryOperator<A> combiner) {
+        List<Map.Entry<String, Json.JValue>> entries = entries(object);
+        return invoke(new FoldTask<>(entries, e -> f.apply(e.getKey(), e.getValue()), identity, combiner, 0, entries.size()));
+    }
+
+    public void forEach(Json.JArray array, VoidFolder folder) {
+        List<Json.JValue> values = members(array);
+        invoke(new MapTask<>(values, null, v -> {
+            v.foldUnit(folder);
+            return null;
+        }, 0, values.size()));
+    }
+
+    /**
+     * Writes value as UTF-8, exactly as {@code printer.writeTo(value, stream)} would. The members of arrays and objects with more
+     * than {@code threshold} members are printed in chunks of that many, each into its own buffer, and the buffers are written
+     * to the stream in order from the calling thread. The stream is neither flushed nor closed.
+     */
+    public void writeTo(Json.JValue value, PrettyPrinter printer, OutputStream stream) {
+        printer.writeTo(value, stream, pool, threshold);
+    }
+
+    /**
+     * Writes value as UTF-8 like {@link #writeTo(Json.JValue, PrettyPrinter, OutputStream)}. The channel is not closed.
+     */
+    public void writeTo(Json.JValue value, PrettyPrinter printer, WritableByteChannel channel) {
+        printer.writeTo(value, channel, pool, threshold);
+    }
+
+    private <T> T invoke(ForkJoinTask<T> task) {
+        // small tasks never fork, and tasks forked from our own workers stay in the pool
+        if (ForkJoinTask.getPool() == pool || !((Range) task).isLarge()) {
+            return task.invoke();
+        }
+        return pool.invoke(task);
+    }
+
+    private static List<Map.Entry<String, Json.JValue>> entries(Json.JObject object) {
+        @SuppressWarnings("unchecked")
+        Map.Entry<String, Json.JValue>[] entries = object.value().entrySet().toArray(new Map.Entry[0]);
+        return Arrays.asList(entries);
+    }
+
+    private static List<Json.JValue> members(Json.JArray array) {
+        List<Json.JValue> values = array.value();
+        return values instanceof RandomAccess ? values : Arrays.asList(values.toArray(new Json.JValue[0]));
+    }
+
+    private interface Range {
+        boolean isLarge();
+    }
+
+    private final class MapTask<T, R> extends RecursiveAction implements Range {
+        private final List<T> in;
+        // null when the results are not kept
+        private final Object[] out;
+        private final Function<T, R> f;
+        private final int from;
+        private final int to;
+
+        MapTask(List<T> in, Object[] out, Function<T, R> f, int from, int to) {
+            this.in = in;
+            this.out = out;
+            this.f = f;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean isLarge() {
+            return to - from > threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (isLarge()) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new MapTask<>(in, out, f, from, middle), new MapTask<>(in, out, f, middle, to));
+            } else if (out == null) {
+                for (int i = from; i < to; i++) {
+                    f.apply(in.get(i));
+                }
+            } else {
+                for (int i = from; i < to; i++) {
+                    out[i] = f.apply(in.get(i));
+                }
+            }
+        }
+    }
+
+    private final class FoldTask<T, A> extends RecursiveTask<A> implements Range {
+        private final List<T> in;
+        private final Function<T, A> f;
+        private final A identity;
+        private final BinaryOperator<A> combiner;
+        private final int from;
+        private final int to;
+
+        FoldTask(List<T> in, Function<T, A> f, A identity, BinaryOperator<A> combiner, int from, int to) {
+            this.in = in;
+            this.f = f;
+            this.identity = identity;
+            this.combiner = combiner;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public boolean isLarge() {
+            return to - from > threshold;
+        }
+
+        @Override
+        protected A compute() {
+            if (isLarge()) {
+                int middle = (from + to) >>> 1;
+                FoldTask<T, A> left = new FoldTask<>(in, f, identity, combiner, from, middle);
+                left.fork();
+                A right = new FoldTask<>(in, f, identity, combiner, middle, to).compute();
+                return combiner.apply(left.join(), right);
+            }
+            A result = identity;
+            for (int i = from; i < to; i++) {
+                result = combiner.apply(result, f.apply(in.get(i)));
+            }
+            return result;
+        }
+    }
+}
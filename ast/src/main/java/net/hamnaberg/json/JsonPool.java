@@ -0,0 +1,168 @@
+package net.hamnaberg.json;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Canonicalizing pool for {@link Json.JValue}s.
+ * <p>
+ * Interning replaces a value with a structurally equal instance seen before, so equal strings, numbers,
+ * booleans and small objects and arrays that occur in many documents are stored only once.
+ * Objects and arrays with more than {@code maxMembers} members are never pooled themselves, but their members are.
+ * <p>
+ * Arrays of numbers stored unboxed keep their storage, their elements are not interned one by one.
+ * <p>
+ * Objects that are equal but have their keys in another order print differently, so each order has its own canonical instance.
+ * <p>
+ * The pool only holds weak references, an entry goes away once nothing else uses the canonical value.
+ * It is split into independently locked stripes, and is safe to share between threads.
+ */
+public final class JsonPool {
+    public static final int DEFAULT_MAX_MEMBERS = 16;
+
+    private static final Json.JBoolean TRUE = new Json.JBoolean(true);
+    private static final Json.JBoolean FALSE = new Json.JBoolean(false);
+
+    // canonical values by equality, one for each key order
+    private final Map<Json.JValue, WeakReference<Json.JValue>[]>[] stripes;
+    private final int maxMembers;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    public JsonPool() {
+        this(DEFAULT_MAX_MEMBERS, Runtime.getRuntime().availableProcessors() * 4);
+    }
+
+    /**
+     * @param maxMembers largest object or array that is pooled
+     * @param stripes    number of independently locked parts, rounded up to a power of two
+     */
+    @SuppressWarnings("unchecked")
+    public JsonPool(int maxMembers, int stripes) {
+        if (maxMembers < 0 || stripes < 1) {
+            throw new IllegalArgumentException("maxMembers " + maxMembers + ", stripes " + stripes);
+        }
+        this.maxMembers = maxMembers;
+        this.stripes = new Map[stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1];
+        for (int i = 0; i < this.stripes.length; i++) {
+            this.stripes[i] = new WeakHashMap<>();
+        }
+    }
+
+    /**
+     * Interns value and everything in it, bottom up. Parts that are already canonical are kept as they are.
+     */
+    public Json.JValue intern(Json.JValue value) {
+        return value instanceof Json.JScalarValue ? canonical(value) : JsonTraversal.transform(value, this::canonical, true);
+    }
+
+    public Stats stats() {
+        int size = 0;
+        for (Map<Json.JValue, WeakReference<Json.JValue>[]> stripe : stripes) {
+            synchronized (stripe) {
+                for (WeakReference<Json.JValue>[] variants : stripe.values()) {
+                    for (WeakReference<Json.JValue> reference : variants) {
+                        size += reference.get() == null ? 0 : 1;
+                    }
+                }
+            }
+        }
+        return new Stats(size, lookups.sum(), hits.sum(), bytesSaved.sum());
+    }
+
+    /**
+     * Interns value alone, assuming that its members have been interned already.
+     */
+    Json.JValue canonical(Json.JValue value) {
+        if (value instanceof Json.JNull) {
+            return value;
+        }
+        if (value instanceof Json.JBoolean b) {
+            Json.JBoolean canonical = b.value() ? TRUE : FALSE;
+            if (canonical != b) {
+                bytesSaved.add(JsonFootprint.shallowSize(b));
+            }
+            return canonical;
+        }
+        if ((value instanceof Json.JObject o && o.size() > maxMembers) || (value instanceof Json.JArray a && a.size() > maxMembers)) {
+            return value;
+        }
+        lookups.increment();
+        int hash = value.hashCode();
+        Map<Json.JValue, WeakReference<Json.JValue>[]> stripe = stripes[(hash ^ hash >>> 16) & (stripes.length - 1)];
+        synchronized (stripe) {
+            WeakReference<Json.JValue>[] variants = stripe.get(value);
+            if (variants == null) {
+                @SuppressWarnings("unchecked")
+                WeakReference<Json.JValue>[] added = new WeakReference[]{new WeakReference<>(value)};
+                stripe.put(value, added);
+                return value;
+            }
+            int live = 0;
+            for (WeakReference<Json.JValue> reference : variants) {
+                Json.JValue existing = reference.get();
+                if (existing != null && sameOrder(existing, value)) {
+                    if (existing != value) {
+                        hits.increment();
+                        bytesSaved.add(JsonFootprint.shallowSize(value));
+                    }
+                    return existing;
+                }
+                live += existing == null ? 0 : 1;
+            }
+            // another key order, kept next to the live ones
+            WeakReference<Json.JValue>[] added = Arrays.copyOf(variants, live + 1);
+            live = 0;
+            for (WeakReference<Json.JValue> reference : variants) {
+                if (reference.get() != null) {
+                    added[live++] = reference;
+                }
+            }
+            added[live] = new WeakReference<>(value);
+            stripe.put(value, added);
+            return value;
+        }
+    }
+
+    /**
+     * Whether two equal values have their keys in the same order, all the way down.
+     * Members are usually canonical already, and then compared by identity.
+     */
+    private static boolean sameOrder(Json.JValue a, Json.JValue b) {
+        if (a instanceof Json.JObject x && b instanceof Json.JObject y) {
+            Iterator<Map.Entry<String, Json.JValue>> others = y.value().entrySet().iterator();
+            for (Map.Entry<String, Json.JValue> entry : x.value().entrySet()) {
+                Map.Entry<String, Json.JValue> other = others.next();
+                if (!entry.getKey().equals(other.getKey()) || !sameMember(entry.getValue(), other.getValue())) {
+                    return false;
+                }
+            }
+        } else if (a instanceof Json.JArray x && b instanceof Json.JArray y && !(x.value() instanceof LongList) && !(x.value() instanceof DoubleList)) {
+            Iterator<Json.JValue> others = y.value().iterator();
+            for (Json.JValue element : x.value()) {
+                if (!sameMember(element, others.next())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean sameMember(Json.JValue a, Json.JValue b) {
+        return a == b || a instanceof Json.JScalarValue || sameOrder(a, b);
+    }
+
+    /**
+     * @param size       number of canonical values currently in the pool
+     * @param lookups    number of values that were looked up
+     * @param hits       number of values that were replaced by a canonical instance
+     * @param bytesSaved estimated heap used by the replaced values
+     */
+    public record Stats(int size, long lookups, long hits, long bytesSaved) {
+    }
+}
@@ -0,0 +1,525 @@
+package net.hamnaberg.json;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Compact, read-only representation of a whole JSON document.
+ * <p>
+ * The document is laid out in document order as one {@code long[]} of tagged entries and one byte buffer
+ * holding the UTF-8 strings and decimal numbers. The top byte of an entry is its tag, the rest is its payload:
+ * <ul>
+ *     <li>{@code {} and {@code [} hold the index of their closing entry and the number of members,
+ *     the closing {@code }} and {@code ]} hold the index of their opening entry</li>
+ *     <li>{@code "} holds the buffer offset of a string, which is used for both field names and values</li>
+ *     <li>{@code l} and {@code d} are followed by one entry holding the raw long or double bits</li>
+ *     <li>{@code D} holds the buffer offset of a decimal number in its string form</li>
+ *     <li>{@code n}, {@code t} and {@code f} have no payload</li>
+ * </ul>
+ * Values are addressed by the index of their first entry, the root is at index 0. Navigating
+ * the tape does not allocate, and {@link #get(int)} converts any part of it to a {@link Json.JValue} on demand.
+ * Every entry is 8 bytes, so strings, decimals, booleans and nulls take 8 bytes, longs and doubles take 16,
+ * and objects and arrays 16 plus their members. Strings and decimals also use their UTF-8 bytes and a length
+ * of one or more bytes in the buffer. The equivalent JValue graph holds a JString or JNumber of 16 bytes or more
+ * for every string and number, next to the String or BigDecimal itself and the entries of its maps and lists.
+ */
+public final class JsonTape {
+    private static final int TAG_SHIFT = 56;
+    private static final long PAYLOAD_MASK = (1L << TAG_SHIFT) - 1;
+    private static final long INDEX_MASK = 0xFFFFFFFFL;
+    private static final int MAX_COUNT = 0xFFFFFF;
+
+    private static final byte OBJECT = '{';
+    private static final byte OBJECT_END = '}';
+    private static final byte ARRAY = '[';
+    private static final byte ARRAY_END = ']';
+    private static final byte STRING = '"';
+    private static final byte LONG = 'l';
+    private static final byte DOUBLE = 'd';
+    private static final byte DECIMAL = 'D';
+    private static final byte NULL = 'n';
+    private static final byte TRUE = 't';
+    private static final byte FALSE = 'f';
+
+    private final long[] tape;
+    private final byte[] buffer;
+
+    private JsonTape(long[] tape, byte[] buffer) {
+        this.tape = tape;
+        this.buffer = buffer;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static JsonTape of(Json.JValue value) {
+        Builder builder = new Builder();
+        value.walk(new JsonVisitor() {
+            @Override
+            public void startObject() {
+                builder.startObject();
+            }
+
+            @Override
+            public void endObject() {
+                builder.end();
+            }
+
+            @Override
+            public void startArray() {
+                builder.startArray();
+            }
+
+            @Override
+            public void endArray() {
+                builder.end();
+            }
+
+            @Override
+            public void name(String name) {
+                builder.name(name);
+            }
+
+            @Override
+            public void value(Json.JValue value) {
+                if (value instanceof Json.JString s) {
+                    builder.string(s.value());
+                } else if (value instanceof Json.JBoolean b) {
+                    builder.bool(b.value());
+                } else if (value instanceof Json.JNumber n) {
+                    n.writeTo(builder);
+                } else {
+                    builder.nullValue();
+                }
+            }
+        });
+        return builder.build();
+    }
+
+    /**
+     * @return the number of tape entries, each taking 8 bytes
+     */
+    public int length() {
+        return tape.length;
+    }
+
+    /**
+     * @return the size of the string and number buffer in bytes
+     */
+    public int bufferLength() {
+        return buffer.length;
+    }
+
+    public Json.JValue toJValue() {
+        return get(0);
+    }
+
+    public boolean isObject(int index) {
+        return tag(index) == OBJECT;
+    }
+
+    public boolean isArray(int index) {
+        return tag(index) == ARRAY;
+    }
+
+    /**
+     * @return the number of fields or elements of the object or array at index, 0 for scalars
+     */
+    public int size(int index) {
+        byte tag = tag(index);
+        if (tag != OBJECT && tag != ARRAY) {
+            return 0;
+        }
+        int count = (int) (payload(index) >>> 32);
+        if (count < MAX_COUNT) {
+            return count;
+        }
+        int size = 0;
+        int end = end(index);
+        for (int i = index + 1; i < end; i = skip(i)) {
+            size++;
+        }
+        return tag == OBJECT ? size / 2 : size;
+    }
+
+    /**
+     * @return the index just past the value at index
+     */
+    public int skip(int index) {
+        switch (tag(index)) {
+            case OBJECT:
+            case ARRAY:
+                return end(index) + 1;
+            case LONG:
+            case DOUBLE:
+                return index + 2;
+            default:
+                return index + 1;
+        }
+    }
+
+    /**
+     * @return index of the value of the named field in the object at index, or -1 if there is none
+     */
+    public int field(int index, String name) {
+        if (tag(index) != OBJECT) {
+            return -1;
+        }
+        int end = end(index);
+        int found = -1;
+        for (int i = index + 1; i < end; ) {
+            int value = i + 1;
+            if (stringEquals(i, name)) {
+                // the last duplicate wins, as when parsing into a JObject
+                found = value;
+            }
+            i = skip(value);
+        }
+        return found;
+    }
+
+    /**
+     * @return index of the element at position in the array at index, or -1 if there is none
+     */
+    public int element(int index, int position) {
+        if (tag(index) != ARRAY || position < 0) {
+            return -1;
+        }
+        int end = end(index);
+        int i = index + 1;
+        for (int n = 0; n < position && i < end; n++) {
+            i = skip(i);
+        }
+        return i < end ? i : -1;
+    }
+
+    /**
+     * Converts the value at index to a {@link Json.JValue}.
+     */
+    public Json.JValue get(int index) {
+        Objects.checkIndex(index, tape.length);
+        Deque<Frame> frames = new ArrayDeque<>();
+        int i = index;
+        while (true) {
+            Json.JValue value;
+            switch (tag(i)) {
+                case OBJECT:
+                    frames.push(new Frame(Json.JObject.builder(Math.min(size(i), 1024)), null));
+                    i++;
+                    continue;
+                case ARRAY:
+                    frames.push(new Frame(null, Json.JArray.builder(Math.min(size(i), 1024))));
+                    i++;
+                    continue;
+                case OBJECT_END:
+                    value = frames.pop().object.freeze();
+                    i++;
+                    break;
+                case ARRAY_END:
+                    value = frames.pop().array.freeze();
+                    i++;
+                    break;
+                case STRING: {
+                    String string = string(i);
+                    i++;
+                    Frame frame = frames.peek();
+                    if (frame != null && frame.object != null && frame.name == null) {
+                        frame.name = string;
+                        continue;
+                    }
+                    value = Json.jString(string);
+                    break;
+                }
+                case LONG:
+                    value = Json.jNumber(tape[i + 1]);
+                    i += 2;
+                    break;
+                case DOUBLE:
+                    value = Json.jNumber(Double.longBitsToDouble(tape[i + 1]));
+                    i += 2;
+                    break;
+                case DECIMAL:
+                    value = Json.jNumber(new BigDecimal(string(i)));
+                    i++;
+                    break;
+                case TRUE:
+                    value = Json.jBoolean(true);
+                    i++;
+                    break;
+                case FALSE:
+                    value = Json.jBoolean(false);
+                    i++;
+                    break;
+                default:
+                    value = Json.jNull();
+                    i++;
+            }
+            Frame parent = frames.peek();
+            if (parent == null) {
+                return value;
+            }
+            if (parent.object != null) {
+                parent.object.put(parent.name, value);
+                parent.name = null;
+            } else {
+                parent.array.add(value);
+            }
+        }
+    }
+
+    private byte tag(int index) {
+        return (byte) (tape[index] >>> TAG_SHIFT);
+    }
+
+    private long payload(int index) {
+        return tape[index] & PAYLOAD_MASK;
+    }
+
+    private int end(int index) {
+        return (int) (payload(index) & INDEX_MASK);
+    }
+
+    private String string(int index) {
+        int offset = (int) payload(index);
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer[offset++];
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return new String(buffer, offset, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares the string at index with s encoded as UTF-8, as the builder does, without encoding it.
+     */
+    private boolean stringEquals(int index, String s) {
+        int offset = (int) payload(index);
+        int length = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer[offset++];
+            length |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        int end = offset + length;
+        int chars = s.length();
+        // at least one byte per char, and at most three
+        if (length < chars || length > chars * 3L) {
+            return false;
+        }
+        for (int i = 0; i < chars; i++) {
+            int c = s.charAt(i);
+            if (c < 0x80) {
+                if (offset == end || buffer[offset++] != c) {
+                    return false;
+                }
+                continue;
+            }
+            int lead;
+            int tail;
+            if (c < 0x800) {
+                lead = 0xC0;
+                tail = 1;
+            } else if (!Character.isSurrogate((char) c)) {
+                lead = 0xE0;
+                tail = 2;
+            } else if (Character.isHighSurrogate((char) c) && i + 1 < chars && Character.isLowSurrogate(s.charAt(i + 1))) {
+                c = Character.toCodePoint((char) c, s.charAt(++i));
+                lead = 0xF0;
+                tail = 3;
+            } else {
+                // a lone surrogate is encoded as '?'
+                if (offset == end || buffer[offset++] != '?') {
+                    return false;
+                }
+                continue;
+            }
+            if (end - offset <= tail || buffer[offset++] != (byte) (lead | c >> tail * 6)) {
+                return false;
+            }
+            for (int bits = (tail - 1) * 6; bits >= 0; bits -= 6) {
+                if (buffer[offset++] != (byte) (0x80 | c >> bits & 0x3F)) {
+                    return false;
+                }
+            }
+        }
+        return offset == end;
+    }
+
+    private static final class Frame {
+        final Json.JObject.Builder object;
+        final Json.JArray.Builder array;
+        String name;
+
+        Frame(Json.JObject.Builder object, Json.JArray.Builder array) {
+            this.object = object;
+            this.array = array;
+        }
+    }
+
+    /**
+     * Writes a tape in document order. Field names and values inside objects are written
+     * alternately, {@link #name(String)} followed by the value.
+     */
+    public static final class Builder {
+        private long[] tape = new long[64];
+        private int length;
+        private byte[] buffer = new byte[256];
+        private int bufferLength;
+        private int[] open = new int[16];
+        private int[] counts = new int[16];
+        private int depth;
+
+        private Builder() {
+        }
+
+        public Builder startObject() {
+            return start(OBJECT);
+        }
+
+        public Builder startArray() {
+            return start(ARRAY);
+        }
+
+        /**
+         * Closes the innermost object or array.
+         */
+        public Builder end() {
+            if (depth == 0) {
+                throw new IllegalStateException("Nothing to end");
+            }
+            int start = open[--depth];
+            byte tag = (byte) (tape[start] >>> TAG_SHIFT);
+            int count = tag == OBJECT ? counts[depth] / 2 : counts[depth];
+            int end = length;
+            append(tag == OBJECT ? OBJECT_END : ARRAY_END, start);
+            tape[start] = entry(tag, (long) Math.min(count, MAX_COUNT) << 32 | end);
+            return this;
+        }
+
+        public Builder name(String name) {
+            return string(name);
+        }
+
+        public Builder string(String value) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            return utf8String(utf8, 0, utf8.length);
+        }
+
+        /**
+         * Appends a string from already valid UTF-8 bytes, without decoding them.
+         */
+        public Builder utf8String(byte[] utf8, int offset, int length) {
+            member();
+            append(STRING, bufferString(utf8, offset, length));
+            return this;
+        }
+
+        public Builder number(long value) {
+            member();
+            append(LONG, 0);
+            append(value);
+            return this;
+        }
+
+        public Builder number(double value) {
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                throw new NumberFormatException("Infinite or NaN");
+            }
+            member();
+            append(DOUBLE, 0);
+            append(Double.doubleToRawLongBits(value));
+            return this;
+        }
+
+        public Builder number(BigDecimal value) {
+            byte[] ascii = value.toString().getBytes(StandardCharsets.ISO_8859_1);
+            member();
+            append(DECIMAL, bufferString(ascii, 0, ascii.length));
+            return this;
+        }
+
+        public Builder bool(boolean value) {
+            member();
+            append(value ? TRUE : FALSE, 0);
+            return this;
+        }
+
+        public Builder nullValue() {
+            member();
+            append(NULL, 0);
+            return this;
+        }
+
+        public JsonTape build() {
+            if (depth != 0) {
+                throw new IllegalStateException(depth + " objects or arrays have not been ended");
+            }
+            if (length == 0) {
+                throw new IllegalStateException("Empty tape");
+            }
+            return new JsonTape(Arrays.copyOf(tape, length), Arrays.copyOf(buffer, bufferLength));
+        }
+
+        private Builder start(byte tag) {
+            member();
+            if (depth == open.length) {
+                open = Arrays.copyOf(open, depth * 2);
+                counts = Arrays.copyOf(counts, depth * 2);
+            }
+            open[depth] = length;
+            counts[depth++] = 0;
+            append(tag, 0);
+            return this;
+        }
+
+        private void member() {
+            if (depth > 0) {
+                counts[depth - 1]++;
+            } else if (length > 0) {
+                throw new IllegalStateException("A tape holds a single document");
+            }
+        }
+
+        private void append(byte tag, long payload) {
+            append(entry(tag, payload));
+        }
+
+        private void append(long raw) {
+            if (length == tape.length) {
+                tape = Arrays.copyOf(tape, length * 2);
+            }
+            tape[length++] = raw;
+        }
+
+        private int bufferString(byte[] bytes, int offset, int length) {
+            int position = bufferLength;
+            ensureBuffer(length + 5);
+            int remaining = length;
+            while (remaining >= 0x80) {
+                buffer[bufferLength++] = (byte) (remaining | 0x80);
+                remaining >>>= 7;
+            }
+            buffer[bufferLength++] = (byte) remaining;
+            System.arraycopy(bytes, offset, buffer, bufferLength, length);
+            bufferLength += length;
+            return position;
+        }
+
+        private void ensureBuffer(int extra) {
+            if (bufferLength + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, bufferLength + extra));
+            }
+        }
+
+        private static long entry(byte tag, long payload) {
+            return (long) tag << TAG_SHIFT | payload;
+        }
+    }
+}
@@ -0,0 +1,516 @@
+package net.hamnaberg.json;
+
+import java.util.*;
+import java.util.function.UnaryOperator;
+
+/**
+ * Stack safe traversal of {@link Json.JValue}s.
+ * <p>
+ * Nested objects and arrays are tracked on an explicit, growable stack instead of the call stack,
+ * so documents of any depth can be walked, printed, transformed and merged.
+ */
+public final class JsonTraversal {
+    private JsonTraversal() {
+    }
+
+    /**
+     * Reports value to the visitor as a sequence of events, depth first in document order.
+     * Only scalars are passed to {@link JsonVisitor#value(Json.JValue)}.
+     */
+    public static void walk(Json.JValue value, JsonVisitor visitor) {
+        // an Iterator over the entries of each open object, or the List of each open array
+        Object[] stack = new Object[16];
+        // the next element index of each open array
+        int[] indexes = new int[16];
+        int depth = 0;
+        Json.JValue current = value;
+        while (true) {
+            if (current instanceof Json.JObject object) {
+                visitor.startObject();
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                    indexes = Arrays.copyOf(indexes, depth * 2);
+                }
+                stack[depth++] = object.value().entrySet().iterator();
+            } else if (current instanceof Json.JArray array) {
+                visitor.startArray();
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                    indexes = Arrays.copyOf(indexes, depth * 2);
+                }
+                indexes[depth] = 0;
+                stack[depth++] = array.value();
+            } else {
+                visitor.value(current);
+            }
+            current = null;
+            while (depth > 0) {
+                Object top = stack[depth - 1];
+                if (top instanceof Iterator<?> iterator) {
+                    if (iterator.hasNext()) {
+                        Map.Entry<?, ?> entry = (Map.Entry<?, ?>) iterator.next();
+                        visitor.name((String) entry.getKey());
+                        current = (Json.JValue) entry.getValue();
+                        break;
+                    }
+                    stack[--depth] = null;
+                    visitor.endObject();
+                } else {
+                    List<?> list = (List<?>) top;
+                    int index = indexes[depth - 1];
+                    if (index < list.size()) {
+                        indexes[depth - 1] = index + 1;
+                        current = (Json.JValue) list.get(index);
+                        break;
+                    }
+                    stack[--depth] = null;
+                    visitor.endArray();
+                }
+            }
+            if (current == null) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Rewrites value bottom up: f is applied to every member of an object or array before the container itself.
+     * A container whose members all came back as the same instances is passed to f as is, otherwise a copy
+     * with the new members is. Unchanged parts of the tree are therefore shared with the input, and when f
+     * changes nothing, value itself is returned.
+     */
+    public static Json.JValue transform(Json.JValue value, UnaryOperator<Json.JValue> f) {
+        return transform(value, f, false);
+    }
+
+    /**
+     * @param skipPacked whether to pass arrays stored as {@code long[]} or {@code double[]} to f without visiting their members
+     */
+    static Json.JValue transform(Json.JValue value, UnaryOperator<Json.JValue> f, boolean skipPacked) {
+        ArrayDeque<TransformFrame> stack = new ArrayDeque<>();
+        Json.JValue current = value;
+        while (true) {
+            Json.JValue result = null;
+            if (current instanceof Json.JObject object && !object.isEmpty()) {
+                stack.push(new TransformFrame(object));
+            } else if (current instanceof Json.JArray array && array.size() > 0 && !(skipPacked && array.isPacked())) {
+                stack.push(new TransformFrame(array));
+            } else {
+                result = apply(f, current);
+            }
+            current = null;
+            while (!stack.isEmpty()) {
+                TransformFrame frame = stack.peek();
+                if (result != null) {
+                    frame.set(result);
+                }
+                current = frame.next();
+                if (current != null) {
+                    break;
+                }
+                stack.pop();
+                result = apply(f, frame.result());
+            }
+            if (current == null) {
+                return result;
+            }
+        }
+    }
+
+    private static Json.JValue apply(UnaryOperator<Json.JValue> f, Json.JValue value) {
+        return Objects.requireNonNull(f.apply(value), "transform may not return null");
+    }
+
+    /**
+     * Deep merges values from left to right, giving the same result as
+     * {@code values[0].deepmerge(values[1]).deepmerge(values[2])...} in a single pass.
+     * <p>
+     * Each merged object is built once, with the keys in the order they first appear. Values that only one
+     * of the documents contributes are reused by reference, only objects that appear in several documents are merged.
+     *
+     * @throws IllegalArgumentException if values is empty
+     */
+    public static Json.JValue deepmerge(List<? extends Json.JValue> values) {
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("Nothing to merge");
+        }
+        // everything before the last value that is not an object is replaced
+        int last = values.size() - 1;
+        int from = last;
+        while (from >= 0 && values.get(from) instanceof Json.JObject) {
+            from--;
+        }
+        if (from >= last - 1) {
+            return values.get(last);
+        }
+        return mergeObjects(values.subList(from + 1, values.size()).toArray(new Json.JObject[0]));
+    }
+
+    private static Json.JObject mergeObjects(Json.JObject[] layers) {
+        MergeFrame frame = new MergeFrame(null, null, layers);
+        ArrayList<Json.JObject> objects = new ArrayList<>();
+        while (true) {
+            Map.Entry<String, Json.JValue> field = frame.next();
+            if (field == null) {
+                Json.JObject merged = frame.merged.freeze();
+                if (frame.parent == null) {
+                    return merged;
+                }
+                frame.parent.merged.put(frame.name, merged);
+                frame = frame.parent;
+                continue;
+            }
+            // scan the later layers from the end, until a value that is not an object replaces everything before it
+            String key = field.getKey();
+            Json.JValue replacement = null;
+            boolean replaced = false;
+            objects.clear();
+            for (int i = frame.layers.length - 1; i > frame.layer && !replaced; i--) {
+                Json.JValue value = frame.layers[i].value().get(key);
+                if (value instanceof Json.JObject object) {
+                    objects.add(object);
+                } else if (value != null) {
+                    replacement = objects.isEmpty() ? value : null;
+                    replaced = true;
+                }
+            }
+            if (!replaced) {
+                if (field.getValue() instanceof Json.JObject object) {
+                    objects.add(object);
+                } else if (objects.isEmpty()) {
+                    replacement = field.getValue();
+                }
+            }
+            if (replacement != null) {
+                frame.merged.put(key, replacement);
+            } else if (objects.size() == 1) {
+                frame.merged.put(key, objects.get(0));
+            } else {
+                Collections.reverse(objects);
+                frame = new MergeFrame(frame, key, objects.toArray(new Json.JObject[0]));
+            }
+        }
+    }
+
+    /**
+     * The structural hash of an object or array, the same as {@link Map#hashCode()} and {@link List#hashCode()} give,
+     * plus 31 for objects. The hashes of the containers inside are cached on the way.
+     */
+    static int hash(Json.JValue value) {
+        ArrayDeque<HashFrame> stack = new ArrayDeque<>();
+        stack.push(new HashFrame(value));
+        int result = 0;
+        while (true) {
+            HashFrame frame = stack.peek();
+            Json.JValue member = frame.next();
+            if (member == null) {
+                stack.pop();
+                result = frame.container instanceof Json.JObject object ? object.cacheHash(31 + frame.hash) : ((Json.JArray) frame.container).cacheHash(frame.hash);
+                if (stack.isEmpty()) {
+                    return result;
+                }
+                stack.peek().add(result);
+            } else if (isHashed(member)) {
+                frame.add(member.hashCode());
+            } else {
+                stack.push(new HashFrame(member));
+            }
+        }
+    }
+
+    private static boolean isHashed(Json.JValue value) {
+        if (value instanceof Json.JObject object) {
+            return object.isHashed() || object.isEmpty();
+        }
+        if (value instanceof Json.JArray array) {
+            return array.isHashed() || array.isPacked() || array.size() == 0;
+        }
+        return true;
+    }
+
+    /**
+     * Structural equality of two objects or arrays, comparing the values inside pair by pair.
+     */
+    static boolean equal(Json.JValue value, Json.JValue other) {
+        ArrayDeque<Json.JValue> pairs = new ArrayDeque<>();
+        pairs.push(other);
+        pairs.push(value);
+        while (!pairs.isEmpty()) {
+            Json.JValue a = pairs.pop();
+            Json.JValue b = pairs.pop();
+            if (a == b || a instanceof Json.JObject x && b instanceof Json.JObject y && x.value() == y.value()
+                    || a instanceof Json.JArray x && b instanceof Json.JArray y && x.value() == y.value()) {
+                continue;
+            }
+            if (a instanceof Json.JObject x) {
+                if (!(b instanceof Json.JObject y) || !x.mayEqual(y)) {
+                    return false;
+                }
+                for (Map.Entry<String, Json.JValue> field : x.value().entrySet()) {
+                    Json.JValue match = y.value().get(field.getKey());
+                    if (match == null) {
+                        return false;
+                    }
+                    pairs.push(match);
+                    pairs.push(field.getValue());
+                }
+            } else if (a instanceof Json.JArray x) {
+                if (!(b instanceof Json.JArray y) || !x.mayEqual(y)) {
+                    return false;
+                }
+                if (x.isPacked() || y.isPacked()) {
+                    // only numbers in there
+                    if (!x.value().equals(y.value())) {
+                        return false;
+                    }
+                    continue;
+                }
+                Iterator<Json.JValue> elements = y.value().iterator();
+                for (Json.JValue element : x.value()) {
+                    pairs.push(elements.next());
+                    pairs.push(element);
+                }
+            } else if (!a.equals(b)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The {@code toString()} of an object or array, as {@link AbstractMap#toString()} and {@link AbstractCollection#toString()}
+     * would give it with the members in it.
+     */
+    static String toString(Json.JValue value) {
+        StringBuilder sb = new StringBuilder();
+        walk(value, new JsonVisitor() {
+            // whether the open object or array at each depth has had a member
+            private boolean[] started = new boolean[16];
+            private int depth;
+            private String name;
+
+            @Override
+            public void startObject() {
+                member();
+                sb.append("JObject{value={");
+                open();
+            }
+
+            @Override
+            public void endObject() {
+                depth--;
+                sb.append("}}");
+            }
+
+            @Override
+            public void startArray() {
+                member();
+                sb.append("JArray{value=[");
+                open();
+            }
+
+            @Override
+            public void endArray() {
+                depth--;
+                sb.append("]}");
+            }
+
+            @Override
+            public void name(String name) {
+                this.name = name;
+            }
+
+            @Override
+            public void value(Json.JValue value) {
+                member();
+                sb.append(value);
+            }
+
+            private void open() {
+                if (depth == started.length) {
+                    started = Arrays.copyOf(started, depth * 2);
+                }
+                started[depth++] = false;
+            }
+
+            private void member() {
+                if (depth > 0) {
+                    if (started[depth - 1]) {
+                        sb.append(", ");
+                    }
+                    started[depth - 1] = true;
+                }
+                if (name != null) {
+                    sb.append(name).append('=');
+                    name = null;
+                }
+            }
+        });
+        return sb.toString();
+    }
+
+    private static final class HashFrame {
+        private final Json.JValue container;
+        private final Iterator<Map.Entry<String, Json.JValue>> fields;
+        private final Iterator<Json.JValue> elements;
+        // the key of the field being hashed
+        private String name;
+        private int hash;
+
+        HashFrame(Json.JValue container) {
+            this.container = container;
+            if (container instanceof Json.JObject object) {
+                fields = object.value().entrySet().iterator();
+                elements = null;
+            } else {
+                fields = null;
+                elements = ((Json.JArray) container).value().iterator();
+                hash = 1;
+            }
+        }
+
+        /**
+         * @return the next member, or null after the last
+         */
+        Json.JValue next() {
+            if (fields != null) {
+                if (fields.hasNext()) {
+                    Map.Entry<String, Json.JValue> field = fields.next();
+                    name = field.getKey();
+                    return field.getValue();
+                }
+                return null;
+            }
+            return elements.hasNext() ? elements.next() : null;
+        }
+
+        void add(int memberHash) {
+            if (fields != null) {
+                hash += name.hashCode() ^ memberHash;
+            } else {
+                hash = 31 * hash + memberHash;
+            }
+        }
+    }
+
+    private static final class TransformFrame {
+        private final Json.JObject object;
+        private final Iterator<Map.Entry<String, Json.JValue>> fields;
+        private final Json.JArray array;
+        private int index = -1;
+        private String name;
+        private Json.JValue member;
+        // created on the first changed member
+        private Json.JObject.Builder changedObject;
+        private Json.JValue[] changedArray;
+
+        TransformFrame(Json.JObject object) {
+            this.object = object;
+            this.fields = object.value().entrySet().iterator();
+            this.array = null;
+        }
+
+        TransformFrame(Json.JArray array) {
+            this.object = null;
+            this.fields = null;
+            this.array = array;
+        }
+
+        Json.JValue next() {
+            index++;
+            if (fields != null) {
+                if (!fields.hasNext()) {
+                    return null;
+                }
+                Map.Entry<String, Json.JValue> field = fields.next();
+                name = field.getKey();
+                return member = field.getValue();
+            }
+            return index < array.size() ? member = array.value().get(index) : null;
+        }
+
+        void set(Json.JValue value) {
+            if (fields != null) {
+                if (changedObject == null && value != member) {
+                    changedObject = Json.JObject.builder(object.size());
+                    Iterator<Map.Entry<String, Json.JValue>> previous = object.value().entrySet().iterator();
+                    for (int i = 0; i < index; i++) {
+                        Map.Entry<String, Json.JValue> field = previous.next();
+                        changedObject.put(field.getKey(), field.getValue());
+                    }
+                }
+                if (changedObject != null) {
+                    changedObject.put(name, value);
+                }
+            } else {
+                if (changedArray == null && value != member) {
+                    changedArray = array.value().toArray(new Json.JValue[0]);
+                }
+                if (changedArray != null) {
+                    changedArray[index] = value;
+                }
+            }
+        }
+
+        Json.JValue result() {
+            if (changedObject != null) {
+                return changedObject.freeze();
+            }
+            if (changedArray != null) {
+                // through the builder, so an array of numbers is packed again
+                Json.JArray.Builder builder = Json.JArray.builder(changedArray.length);
+                for (Json.JValue value : changedArray) {
+                    builder.add(value);
+                }
+                return builder.freeze();
+            }
+            return fields != null ? object : array;
+        }
+    }
+
+    private static final class MergeFrame {
+        final MergeFrame parent;
+        final String name;
+        final Json.JObject[] layers;
+        final Json.JObject.Builder merged;
+        // the layer whose fields are being read, fields already seen in an earlier layer are skipped
+        int layer;
+        Iterator<Map.Entry<String, Json.JValue>> fields;
+
+        MergeFrame(MergeFrame parent, String name, Json.JObject[] layers) {
+            this.parent = parent;
+            this.name = name;
+            this.layers = layers;
+            int size = 0;
+            for (Json.JObject layer : layers) {
+                size = Math.max(size, layer.size());
+            }
+            this.merged = Json.JObject.builder(size);
+            this.fields = layers[0].value().entrySet().iterator();
+        }
+
+        Map.Entry<String, Json.JValue> next() {
+            while (true) {
+                while (fields.hasNext()) {
+                    Map.Entry<String, Json.JValue> field = fields.next();
+                    if (!seen(field.getKey())) {
+                        return field;
+                    }
+                }
+                if (++layer == layers.length) {
+                    return null;
+                }
+                fields = layers[layer].value().entrySet().iterator();
+            }
+        }
+
+        private boolean seen(String key) {
+            for (int i = 0; i < layer; i++) {
+                if (layers[i].value().containsKey(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
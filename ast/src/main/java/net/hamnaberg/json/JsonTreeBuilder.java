@@ -0,0 +1,129 @@
+package net.hamnaberg.json;
+
+import java.util.Arrays;
+
+/**
+ * Builds a {@link Json.JValue} from {@link JsonVisitor} events, keeping the open objects and arrays
+ * on an explicit stack.
+ * <p>
+ * The builder is complete once the root value has been closed, after which {@link #result()} returns it.
+ * Any further events are rejected.
+ * <p>
+ * When given a {@link JsonPool}, every value is interned as soon as it is complete.
+ */
+public final class JsonTreeBuilder implements JsonVisitor {
+    private final JsonPool pool;
+    // Json.JObject.Builder or Json.JArray.Builder for each open container
+    private Object[] stack = new Object[16];
+    // the pending field name of each open object
+    private String[] names = new String[16];
+    private int depth;
+    private Json.JValue result;
+
+    public JsonTreeBuilder() {
+        this(null);
+    }
+
+    /**
+     * @param pool pool to intern values in, or null
+     */
+    public JsonTreeBuilder(JsonPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public void startObject() {
+        push(Json.JObject.builder());
+    }
+
+    @Override
+    public void endObject() {
+        if (depth == 0 || !(stack[depth - 1] instanceof Json.JObject.Builder builder) || names[depth - 1] != null) {
+            throw new IllegalStateException("No object to end");
+        }
+        stack[--depth] = null;
+        add(pool == null ? builder.freeze() : pool.canonical(builder.freeze()));
+    }
+
+    @Override
+    public void startArray() {
+        push(Json.JArray.builder());
+    }
+
+    @Override
+    public void endArray() {
+        if (depth == 0 || !(stack[depth - 1] instanceof Json.JArray.Builder builder)) {
+            throw new IllegalStateException("No array to end");
+        }
+        stack[--depth] = null;
+        add(pool == null ? builder.freeze() : pool.canonical(builder.freeze()));
+    }
+
+    @Override
+    public void name(String name) {
+        if (depth == 0 || !(stack[depth - 1] instanceof Json.JObject.Builder) || names[depth - 1] != null) {
+            throw new IllegalStateException("Field name '" + name + "' outside of object");
+        }
+        names[depth - 1] = name;
+    }
+
+    @Override
+    public void value(Json.JValue value) {
+        add(pool == null ? value : pool.intern(value));
+    }
+
+    public boolean isComplete() {
+        return result != null;
+    }
+
+    /**
+     * @throws IllegalStateException if the root value has not been completed
+     */
+    public Json.JValue result() {
+        if (result == null) {
+            throw new IllegalStateException(depth + " objects or arrays have not been ended");
+        }
+        return result;
+    }
+
+    private void push(Object builder) {
+        if (result != null) {
+            throw new IllegalStateException("Already complete");
+        }
+        if (depth > 0) {
+            expectValue();
+        }
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+            names = Arrays.copyOf(names, depth * 2);
+        }
+        stack[depth++] = builder;
+    }
+
+    private void expectValue() {
+        if (stack[depth - 1] instanceof Json.JObject.Builder && names[depth - 1] == null) {
+            throw new IllegalStateException("Expected a field name");
+        }
+    }
+
+    private void add(Json.JValue value) {
+        if (depth == 0) {
+            if (result != null) {
+                throw new IllegalStateException("Already complete");
+            }
+            result = value;
+            return;
+        }
+        Object top = stack[depth - 1];
+        if (top instanceof Json.JObject.Builder object) {
+            String name = names[depth - 1];
+            if (name == null) {
+                throw new IllegalStateException("Expected a field name");
+            }
+            names[depth - 1] = null;
+            object.put(name, value);
+        } else {
+            ((Json.JArray.Builder) top).add(value);
+        }
+    }
+}
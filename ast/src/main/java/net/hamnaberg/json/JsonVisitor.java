@@ -0,0 +1,28 @@
+package net.hamnaberg.json;
+
+/**
+ * Receives a JSON document as a flat sequence of events, in document order.
+ * <p>
+ * Inside an object every member is reported as {@link #name(String)} followed by its value.
+ * Since nesting is expressed by start and end events rather than by calls returning,
+ * producers and consumers of events can handle any depth without using the call stack.
+ *
+ * @see JsonTraversal#walk(Json.JValue, JsonVisitor)
+ * @see JsonTreeBuilder
+ */
+public interface JsonVisitor {
+    void startObject();
+
+    void endObject();
+
+    void startArray();
+
+    void endArray();
+
+    void name(String name);
+
+    /**
+     * A scalar value. Consumers that build values may also accept complete objects and arrays.
+     */
+    void value(Json.JValue value);
+}
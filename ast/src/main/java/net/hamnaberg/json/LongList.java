@@ -0,0 +1,62 @@
+package net.hamnaberg.json;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Backing list of a {@link Json.JArray} of integers, stored unboxed.
+ * The {@link Json.JNumber}s are created when the elements are read.
+ */
+final class LongList extends AbstractList<Json.JValue> implements RandomAccess, Serializable {
+    private final long[] values;
+
+    LongList(long[] values) {
+        this.values = values;
+    }
+
+    @Override
+    public Json.JValue get(int index) {
+        return Json.jNumber(values[index]);
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    long longAt(int index) {
+        return values[index];
+    }
+
+    long[] toLongArray() {
+        return values.clone();
+    }
+
+    double[] toDoubleArray() {
+        double[] doubles = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            doubles[i] = values[i];
+        }
+        return doubles;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof LongList other) {
+            return Arrays.equals(values, other.values);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        // same as AbstractList.hashCode() over the JNumbers
+        int h = 1;
+        for (long value : values) {
+            h = 31 * h + Long.hashCode(value);
+        }
+        return h;
+    }
+}
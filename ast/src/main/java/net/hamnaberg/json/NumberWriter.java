@@ -0,0 +1,308 @@
+package net.hamnaberg.json;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes numbers as ASCII into a byte array.
+ * <p>
+ * A double is written as the decimal {@link #decimal(double)} gives for it, in the notation of {@link BigDecimal#toString()}.
+ * Integral doubles below 10<sup>21</sup> are written with all their digits, any other double with the fewest digits that
+ * read back as the same double. Those are found with Raffaello Giulietti's Schubfach algorithm, as in the JDK from 19 on.
+ * <p>
+ * An instance keeps the digits of the last double it split, and must not be shared between threads.
+ */
+final class NumberWriter {
+    /**
+     * The most bytes written for one number, as in {@code -0.0000012345678901234567}.
+     */
+    static final int MAX_LENGTH = 25;
+
+    private static final byte[] DIGITS = new byte[200];
+    private static final byte[] MIN_LONG = Long.toString(Long.MIN_VALUE).getBytes(StandardCharsets.US_ASCII);
+    private static final long[] POWERS_OF_TEN = new long[19];
+    private static final double PLAIN_LIMIT = 1e21;
+    private static final double TWO_POW_63 = 0x1p63;
+
+    // the double format, in the terms of the Schubfach paper
+    private static final int P = 53;
+    private static final int Q_MIN = -1074;
+    private static final long C_MIN = 1L << P - 1;
+    private static final long C_TINY = 3;
+    private static final int K_MIN = -324;
+    private static final int K_MAX = 292;
+    // g1 and g0 for each k, the upper and lower 63 bits of the 126 bit approximation of 10^-k
+    private static final long[] G = new long[(K_MAX - K_MIN + 1) * 2];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+        for (int i = 0; i < 100; i++) {
+            DIGITS[i * 2] = (byte) ('0' + i / 10);
+            DIGITS[i * 2 + 1] = (byte) ('0' + i % 10);
+        }
+        // 10^-k = beta * 2^r with 2^125 <= beta < 2^126, and g = floor(beta) + 1
+        BigInteger mask = BigInteger.ONE.shiftLeft(63).subtract(BigInteger.ONE);
+        for (int k = K_MIN; k <= K_MAX; k++) {
+            int r = flog2pow10(-k) - 125;
+            BigInteger g;
+            if (k <= 0) {
+                BigInteger pow = BigInteger.TEN.pow(-k);
+                g = r >= 0 ? pow.shiftRight(r) : pow.shiftLeft(-r);
+            } else {
+                g = BigInteger.ONE.shiftLeft(-r).divide(BigInteger.TEN.pow(k));
+            }
+            g = g.add(BigInteger.ONE);
+            G[(k - K_MIN) * 2] = g.shiftRight(63).longValueExact();
+            G[(k - K_MIN) * 2 + 1] = g.and(mask).longValueExact();
+        }
+    }
+
+    // the last double split is digits * 10^exponent, without trailing zeros in digits
+    private long digits;
+    private int exponent;
+
+    /**
+     * @return the position after the number
+     */
+    static int write(long value, byte[] buffer, int position) {
+        if (value < 0) {
+            if (value == Long.MIN_VALUE) {
+                System.arraycopy(MIN_LONG, 0, buffer, position, MIN_LONG.length);
+                return position + MIN_LONG.length;
+            }
+            buffer[position++] = '-';
+            value = -value;
+        }
+        int end = position + length(value);
+        writeDigits(value, buffer, end);
+        return end;
+    }
+
+    /**
+     * @param value a finite double
+     * @return the position after the number
+     */
+    int write(double value, byte[] buffer, int position) {
+        double abs = Math.abs(value);
+        if (abs < TWO_POW_63 && abs == Math.rint(abs)) {
+            return write((long) value, buffer, position);
+        }
+        if (abs < PLAIN_LIMIT && abs == Math.rint(abs)) {
+            byte[] plain = new BigDecimal(value).toString().getBytes(StandardCharsets.US_ASCII);
+            System.arraycopy(plain, 0, buffer, position, plain.length);
+            return position + plain.length;
+        }
+        split(abs);
+        if (value < 0) {
+            buffer[position++] = '-';
+        }
+        int length = length(digits);
+        int adjusted = exponent + length - 1;
+        if (exponent < 0 && adjusted >= -6) {
+            if (adjusted >= 0) {
+                // ddd.ddd
+                int end = position + length + 1;
+                int point = position + adjusted + 1;
+                writeDigits(digits, buffer, end);
+                System.arraycopy(buffer, position + 1, buffer, position, point - position);
+                buffer[point] = '.';
+                return end;
+            }
+            // 0.000ddd
+            buffer[position++] = '0';
+            buffer[position++] = '.';
+            for (int i = -1; i > adjusted; i--) {
+                buffer[position++] = '0';
+            }
+            int end = position + length;
+            writeDigits(digits, buffer, end);
+            return end;
+        }
+        // d.dddE+x, or dE+x for a single digit
+        int end = position + length + (length > 1 ? 1 : 0);
+        writeDigits(digits, buffer, end);
+        if (length > 1) {
+            buffer[position] = buffer[position + 1];
+            buffer[position + 1] = '.';
+        }
+        buffer[end++] = 'E';
+        buffer[end++] = (byte) (adjusted < 0 ? '-' : '+');
+        return write(Math.abs(adjusted), buffer, end);
+    }
+
+    /**
+     * The decimal a double stands for: integral doubles below 10<sup>21</sup> exactly,
+     * any other with the fewest digits that read back as the same double.
+     *
+     * @param value a finite double
+     */
+    static BigDecimal decimal(double value) {
+        double abs = Math.abs(value);
+        if (abs < TWO_POW_63 && abs == Math.rint(abs)) {
+            return BigDecimal.valueOf((long) value);
+        }
+        if (abs < PLAIN_LIMIT && abs == Math.rint(abs)) {
+            return new BigDecimal(value);
+        }
+        NumberWriter writer = new NumberWriter();
+        writer.split(abs);
+        return BigDecimal.valueOf(value < 0 ? -writer.digits : writer.digits, -writer.exponent);
+    }
+
+    static String toString(double value) {
+        byte[] buffer = new byte[MAX_LENGTH];
+        return new String(buffer, 0, new NumberWriter().write(value, buffer, 0), StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Writes the digits of value, which is not negative, backwards from end.
+     */
+    private static void writeDigits(long value, byte[] buffer, int end) {
+        int i = end;
+        // eight digits at a time in int arithmetic
+        while (value > Integer.MAX_VALUE) {
+            long quotient = value / 100_000_000;
+            int rest = (int) (value - quotient * 100_000_000);
+            for (int pairs = 0; pairs < 4; pairs++) {
+                int next = rest / 100;
+                int pair = (rest - next * 100) * 2;
+                buffer[--i] = DIGITS[pair + 1];
+                buffer[--i] = DIGITS[pair];
+                rest = next;
+            }
+            value = quotient;
+        }
+        int rest = (int) value;
+        while (rest >= 100) {
+            int next = rest / 100;
+            int pair = (rest - next * 100) * 2;
+            buffer[--i] = DIGITS[pair + 1];
+            buffer[--i] = DIGITS[pair];
+            rest = next;
+        }
+        if (rest >= 10) {
+            buffer[--i] = DIGITS[rest * 2 + 1];
+            buffer[--i] = DIGITS[rest * 2];
+        } else {
+            buffer[--i] = (byte) ('0' + rest);
+        }
+    }
+
+    private static int length(long value) {
+        // log10 estimated from the bit length, off by at most one
+        int length = (64 - Long.numberOfLeadingZeros(value)) * 1233 >>> 12;
+        return length < POWERS_OF_TEN.length && value >= POWERS_OF_TEN[length] ? length + 1 : Math.max(length, 1);
+    }
+
+    /**
+     * Finds the shortest decimal for a positive, finite double.
+     */
+    private void split(double value) {
+        long bits = Double.doubleToRawLongBits(value);
+        long t = bits & C_MIN - 1;
+        int bq = (int) (bits >>> P - 1);
+        if (bq != 0) {
+            int mq = -Q_MIN + 1 - bq;
+            long c = C_MIN | t;
+            // an integer value
+            if (0 < mq && mq < P) {
+                long f = c >> mq;
+                if (f << mq == c) {
+                    set(f, 0);
+                    return;
+                }
+            }
+            toDecimal(-mq, c, 0);
+        } else if (t != 0) {
+            // subnormal
+            if (t < C_TINY) {
+                toDecimal(Q_MIN, 10 * t, -1);
+            } else {
+                toDecimal(Q_MIN, t, 0);
+            }
+        } else {
+            set(0, 0);
+        }
+    }
+
+    private void toDecimal(int q, long c, int dk) {
+        int out = (int) c & 1;
+        long cb = c << 2;
+        long cbr = cb + 2;
+        long cbl;
+        int k;
+        if (c != C_MIN || q == Q_MIN) {
+            cbl = cb - 2;
+            k = flog10pow2(q);
+        } else {
+            cbl = cb - 1;
+            k = flog10threeQuartersPow2(q);
+        }
+        int h = q + flog2pow10(-k) + 2;
+        long g1 = G[(k - K_MIN) * 2];
+        long g0 = G[(k - K_MIN) * 2 + 1];
+        long vb = rop(g1, g0, cb << h);
+        long vbl = rop(g1, g0, cbl << h);
+        long vbr = rop(g1, g0, cbr << h);
+
+        long s = vb >> 2;
+        if (s >= 100) {
+            // one digit less, if exactly one of the candidates is in the rounding interval
+            long sp10 = s / 10 * 10;
+            long tp10 = sp10 + 10;
+            boolean upin = vbl + out <= sp10 << 2;
+            boolean wpin = (tp10 << 2) + out <= vbr;
+            if (upin != wpin) {
+                set(upin ? sp10 : tp10, k);
+                return;
+            }
+        }
+        long t = s + 1;
+        boolean uin = vbl + out <= s << 2;
+        boolean win = (t << 2) + out <= vbr;
+        if (uin != win) {
+            set(uin ? s : t, k + dk);
+            return;
+        }
+        // both are in the interval, take the closest and break ties to even
+        long cmp = vb - (s + t << 1);
+        set(cmp < 0 || cmp == 0 && (s & 1) == 0 ? s : t, k + dk);
+    }
+
+    private void set(long f, int e) {
+        if (f != 0) {
+            while (f % 10 == 0) {
+                f /= 10;
+                e++;
+            }
+        }
+        digits = f;
+        exponent = e;
+    }
+
+    // round to odd of the 190 bit product of g and cp, shifted right by 127
+    private static long rop(long g1, long g0, long cp) {
+        long x1 = Math.multiplyHigh(g0, cp);
+        long y0 = g1 * cp;
+        long y1 = Math.multiplyHigh(g1, cp);
+        long z = (y0 >>> 1) + x1;
+        long vbp = y1 + (z >>> 63);
+        return vbp | ((z & Long.MAX_VALUE) + Long.MAX_VALUE) >>> 63;
+    }
+
+    private static int flog10pow2(int e) {
+        return (int) (e * 661_971_961_083L >> 41);
+    }
+
+    private static int flog10threeQuartersPow2(int e) {
+        return (int) (e * 661_971_961_083L - 274_743_187_321L >> 41);
+    }
+
+    private static int flog2pow10(int e) {
+        return (int) (e * 913_124_641_741L >> 38);
+    }
+}
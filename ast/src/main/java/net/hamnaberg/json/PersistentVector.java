@@ -0,0 +1,783 @@
+package net.hamnaberg.json;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Persistent relaxed radix balanced vector used as the backing list of {@link Json.JArray}.
+ * <p>
+ * Elements live in a tree of 32-wide nodes, with a prefix and a suffix buffer of up to 32 elements on
+ * either side, so {@link #append(Object)} and {@link #prepend(Object)} only touch the tree once every 32 calls.
+ * Nodes built by appending are dense and are indexed by radix. Nodes produced by {@link #concat(PersistentVector)}
+ * and {@link #slice(int, int)} may be partially filled, and carry a table of cumulative sizes instead. Concatenation
+ * repacks the nodes along the seam whenever a level has more than {@value #EXTRA_STEPS} nodes more than it needs,
+ * so the tree stays about log<sub>32</sub> deep and finding a child in a relaxed branch takes a bounded number of steps.
+ *
+ * @param <A> the element type
+ */
+final class PersistentVector<A> extends AbstractList<A> implements RandomAccess, Serializable {
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    // how many more nodes than needed a level along a concatenation seam may have, as in the RRB-tree paper
+    private static final int EXTRA_STEPS = 2;
+    private static final Object[] EMPTY_ARRAY = new Object[0];
+
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(EMPTY_ARRAY, null, 0, 0, EMPTY_ARRAY);
+
+    private final Object[] prefix;
+    // either a leaf Object[] (height 0) or a Branch
+    private final Object root;
+    private final int height;
+    private final int rootSize;
+    private final Object[] suffix;
+    private final int size;
+
+    private PersistentVector(Object[] prefix, Object root, int height, int rootSize, Object[] suffix) {
+        this.prefix = prefix;
+        this.root = root;
+        this.height = height;
+        this.rootSize = rootSize;
+        this.suffix = suffix;
+        this.size = prefix.length + rootSize + suffix.length;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <A> PersistentVector<A> empty() {
+        return (PersistentVector<A>) EMPTY;
+    }
+
+    /**
+     * Builds a dense vector holding the elements of the given collection.
+     */
+    @SuppressWarnings("unchecked")
+    static <A> PersistentVector<A> from(Collection<? extends A> collection) {
+        if (collection instanceof PersistentVector) {
+            return (PersistentVector<A>) collection;
+        }
+        Object[] elements = collection.toArray();
+        int length = elements.length;
+        if (length == 0) {
+            return empty();
+        }
+        int suffixLength = length - ((length - 1) & ~MASK);
+        Object[] suffix = Arrays.copyOfRange(elements, length - suffixLength, length);
+        int treeLength = length - suffixLength;
+        if (treeLength == 0) {
+            return new PersistentVector<>(EMPTY_ARRAY, null, 0, 0, suffix);
+        }
+        Object[] level = new Object[treeLength >>> BITS];
+        for (int i = 0; i < level.length; i++) {
+            level[i] = Arrays.copyOfRange(elements, i << BITS, (i + 1) << BITS);
+        }
+        int height = 0;
+        while (level.length > 1) {
+            height++;
+            Object[] parents = new Object[(level.length + MASK) >>> BITS];
+            for (int i = 0; i < parents.length; i++) {
+                parents[i] = new Branch(Arrays.copyOfRange(level, i << BITS, Math.min(level.length, (i + 1) << BITS)), null);
+            }
+            level = parents;
+        }
+        return new PersistentVector<>(EMPTY_ARRAY, level[0], height, treeLength, suffix);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    int height() {
+        return root == null ? 0 : height + 1;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public A get(int index) {
+        Objects.checkIndex(index, size);
+        if (index < prefix.length) {
+            return (A) prefix[index];
+        }
+        index -= prefix.length;
+        if (index < rootSize) {
+            return (A) getIn(root, height, index);
+        }
+        return (A) suffix[index - rootSize];
+    }
+
+    PersistentVector<A> updated(int index, A value) {
+        Objects.checkIndex(index, size);
+        if (index < prefix.length) {
+            Object[] copy = prefix.clone();
+            copy[index] = value;
+            return new PersistentVector<>(copy, root, height, rootSize, suffix);
+        }
+        index -= prefix.length;
+        if (index < rootSize) {
+            return new PersistentVector<>(prefix, setIn(root, height, index, value), height, rootSize, suffix);
+        }
+        Object[] copy = suffix.clone();
+        copy[index - rootSize] = value;
+        return new PersistentVector<>(prefix, root, height, rootSize, copy);
+    }
+
+    PersistentVector<A> append(A value) {
+        if (suffix.length < WIDTH) {
+            Object[] copy = Arrays.copyOf(suffix, suffix.length + 1);
+            copy[suffix.length] = value;
+            return new PersistentVector<>(prefix, root, height, rootSize, copy);
+        }
+        Tree tree = pushRight(root, height, suffix);
+        return new PersistentVector<>(prefix, tree.node, tree.height, rootSize + suffix.length, new Object[]{value});
+    }
+
+    PersistentVector<A> prepend(A value) {
+        if (prefix.length < WIDTH) {
+            Object[] copy = new Object[prefix.length + 1];
+            copy[0] = value;
+            System.arraycopy(prefix, 0, copy, 1, prefix.length);
+            return new PersistentVector<>(copy, root, height, rootSize, suffix);
+        }
+        Tree tree = pushLeft(root, height, prefix);
+        return new PersistentVector<>(new Object[]{value}, tree.node, tree.height, rootSize + prefix.length, suffix);
+    }
+
+    PersistentVector<A> concat(PersistentVector<A> other) {
+        if (other.size == 0) {
+            return this;
+        }
+        if (size == 0) {
+            return other;
+        }
+        if (other.size < WIDTH) {
+            PersistentVector<A> result = this;
+            for (int i = 0; i < other.size; i++) {
+                result = result.append(other.get(i));
+            }
+            return result;
+        }
+        if (size < WIDTH) {
+            PersistentVector<A> result = other;
+            for (int i = size - 1; i >= 0; i--) {
+                result = result.prepend(get(i));
+            }
+            return result;
+        }
+        Tree left = suffix.length == 0 ? new Tree(root, height) : pushRight(root, height, suffix);
+        Tree right = other.prefix.length == 0 ? new Tree(other.root, other.height) : pushLeft(other.root, other.height, other.prefix);
+        int treeSize = rootSize + suffix.length + other.prefix.length + other.rootSize;
+        if (left.node == null) {
+            return new PersistentVector<>(prefix, right.node, right.height, treeSize, other.suffix);
+        }
+        if (right.node == null) {
+            return new PersistentVector<>(prefix, left.node, left.height, treeSize, other.suffix);
+        }
+        Tree merged = collapse(merge(left.node, left.height, right.node, right.height), Math.max(left.height, right.height) + 1);
+        return new PersistentVector<>(prefix, merged.node, merged.height, treeSize, other.suffix);
+    }
+
+    /**
+     * Structurally shared view of the elements from {@code from} (inclusive) to {@code to} (exclusive).
+     */
+    PersistentVector<A> slice(int from, int to) {
+        Objects.checkFromToIndex(from, to, size);
+        if (from == 0 && to == size) {
+            return this;
+        }
+        if (from == to) {
+            return empty();
+        }
+        int p = prefix.length;
+        Object[] newPrefix = from < p ? Arrays.copyOfRange(prefix, from, Math.min(to, p)) : EMPTY_ARRAY;
+        int treeFrom = Math.max(from - p, 0);
+        int treeTo = Math.min(to - p, rootSize);
+        Tree tree = new Tree(null, 0);
+        if (treeFrom < treeTo) {
+            tree = collapse(sliceIn(root, height, treeFrom, treeTo), height);
+        }
+        int suffixFrom = Math.max(from - p - rootSize, 0);
+        int suffixTo = to - p - rootSize;
+        Object[] newSuffix = suffixTo > suffixFrom ? Arrays.copyOfRange(suffix, suffixFrom, suffixTo) : EMPTY_ARRAY;
+        return new PersistentVector<>(newPrefix, tree.node, tree.height, Math.max(treeTo - treeFrom, 0), newSuffix);
+    }
+
+    PersistentVector<A> insert(int index, A value) {
+        Objects.checkIndex(index, size + 1);
+        if (index == 0) {
+            return prepend(value);
+        }
+        if (index == size) {
+            return append(value);
+        }
+        return slice(0, index).append(value).concat(slice(index, size));
+    }
+
+    PersistentVector<A> removeAt(int index) {
+        Objects.checkIndex(index, size);
+        if (index == 0) {
+            return slice(1, size);
+        }
+        if (index == size - 1) {
+            return slice(0, size - 1);
+        }
+        return slice(0, index).concat(slice(index + 1, size));
+    }
+
+    @Override
+    public List<A> subList(int fromIndex, int toIndex) {
+        return slice(fromIndex, toIndex);
+    }
+
+    @Override
+    public Iterator<A> iterator() {
+        return new Cursor<>(this, 0, size);
+    }
+
+    @Override
+    public Spliterator<A> spliterator() {
+        return new VectorSpliterator<>(this, 0, size);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumer<? super A> action) {
+        Objects.requireNonNull(action);
+        for (Object o : prefix) {
+            action.accept((A) o);
+        }
+        if (root != null) {
+            forEachIn(root, height, (Consumer<Object>) action);
+        }
+        for (Object o : suffix) {
+            action.accept((A) o);
+        }
+    }
+
+    @Override
+    public Object[] toArray() {
+        Object[] array = new Object[size];
+        int[] offset = {0};
+        forEach(a -> array[offset[0]++] = a);
+        return array;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) {
+            return true;
+        }
+        if (!(o instanceof List)) {
+            return false;
+        }
+        List<?> other = (List<?>) o;
+        if (other.size() != size) {
+            return false;
+        }
+        Iterator<A> it = iterator();
+        for (Object element : other) {
+            if (!Objects.equals(it.next(), element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode();
+    }
+
+    private Object writeReplace() {
+        return List.copyOf(this);
+    }
+
+    private static final class Branch {
+        private final Object[] children;
+        // cumulative sizes of the children, null when every child but the last is full
+        private final int[] sizes;
+
+        private Branch(Object[] children, int[] sizes) {
+            this.children = children;
+            this.sizes = sizes;
+        }
+    }
+
+    private static final class Tree {
+        private final Object node;
+        private final int height;
+
+        private Tree(Object node, int height) {
+            this.node = node;
+            this.height = height;
+        }
+    }
+
+    private static int sizeOf(Object node, int height) {
+        if (height == 0) {
+            return ((Object[]) node).length;
+        }
+        Branch branch = (Branch) node;
+        int n = branch.children.length;
+        if (branch.sizes != null) {
+            return branch.sizes[n - 1];
+        }
+        return ((n - 1) << (BITS * height)) + sizeOf(branch.children[n - 1], height - 1);
+    }
+
+    private static int childIndex(Branch branch, int height, int index) {
+        if (branch.sizes == null) {
+            return (index >>> (BITS * height)) & MASK;
+        }
+        int shift = BITS * height;
+        int slot = shift < 31 ? index >>> shift : 0;
+        while (branch.sizes[slot] <= index) {
+            slot++;
+        }
+        return slot;
+    }
+
+    private static int childOffset(Branch branch, int height, int slot) {
+        if (slot == 0) {
+            return 0;
+        }
+        return branch.sizes == null ? slot << (BITS * height) : branch.sizes[slot - 1];
+    }
+
+    private static Object getIn(Object node, int height, int index) {
+        while (height > 0) {
+            Branch branch = (Branch) node;
+            int slot = childIndex(branch, height, index);
+            index -= childOffset(branch, height, slot);
+            node = branch.children[slot];
+            height--;
+        }
+        return ((Object[]) node)[index];
+    }
+
+    private static Object setIn(Object node, int height, int index, Object value) {
+        if (height == 0) {
+            Object[] copy = ((Object[]) node).clone();
+            copy[index] = value;
+            return copy;
+        }
+        Branch branch = (Branch) node;
+        int slot = childIndex(branch, height, index);
+        Object[] children = branch.children.clone();
+        children[slot] = setIn(children[slot], height - 1, index - childOffset(branch, height, slot), value);
+        return new Branch(children, branch.sizes);
+    }
+
+    /**
+     * Builds a branch of the given height, deciding whether it can be indexed by radix.
+     */
+    private static Branch branch(Object[] children, int height) {
+        int n = children.length;
+        int[] sizes = new int[n];
+        boolean dense = BITS * height < 31;
+        int total = 0;
+        for (int i = 0; i < n; i++) {
+            int childSize = sizeOf(children[i], height - 1);
+            total += childSize;
+            sizes[i] = total;
+            if (i < n - 1 && dense && childSize != 1 << (BITS * height)) {
+                dense = false;
+            }
+        }
+        return new Branch(children, dense ? null : sizes);
+    }
+
+    /**
+     * Wraps a leaf in single child branches until it reaches the given height.
+     */
+    private static Object wrap(Object[] leaf, int height) {
+        Object node = leaf;
+        for (int h = 1; h <= height; h++) {
+            node = branch(new Object[]{node}, h);
+        }
+        return node;
+    }
+
+    private static Tree pushRight(Object root, int height, Object[] leaf) {
+        if (root == null) {
+            return new Tree(leaf, 0);
+        }
+        Object pushed = pushRightIn(root, height, leaf);
+        if (pushed != null) {
+            return new Tree(pushed, height);
+        }
+        return new Tree(branch(new Object[]{root, wrap(leaf, height)}, height + 1), height + 1);
+    }
+
+    /**
+     * @return the node with the leaf added as its rightmost leaf, or null if the node has no room
+     */
+    private static Object pushRightIn(Object node, int height, Object[] leaf) {
+        if (height == 0) {
+            return null;
+        }
+        Branch branch = (Branch) node;
+        int n = branch.children.length;
+        if (height > 1) {
+            Object last = pushRightIn(branch.children[n - 1], height - 1, leaf);
+            if (last != null) {
+                Object[] children = branch.children.clone();
+                children[n - 1] = last;
+                if (branch.sizes == null) {
+                    return new Branch(children, null);
+                }
+                int[] sizes = branch.sizes.clone();
+                sizes[n - 1] += leaf.length;
+                return new Branch(children, sizes);
+            }
+        }
+        if (n == WIDTH) {
+            return null;
+        }
+        Object[] children = Arrays.copyOf(branch.children, n + 1);
+        children[n] = wrap(leaf, height - 1);
+        if (branch.sizes != null) {
+            int[] sizes = Arrays.copyOf(branch.sizes, n + 1);
+            sizes[n] = sizes[n - 1] + leaf.length;
+            return new Branch(children, sizes);
+        }
+        return branch(children, height);
+    }
+
+    private static Tree pushLeft(Object root, int height, Object[] leaf) {
+        if (root == null) {
+            return new Tree(leaf, 0);
+        }
+        Object pushed = pushLeftIn(root, height, leaf);
+        if (pushed != null) {
+            return new Tree(pushed, height);
+        }
+        return new Tree(branch(new Object[]{wrap(leaf, height), root}, height + 1), height + 1);
+    }
+
+    /**
+     * @return the node with the leaf added as its leftmost leaf, or null if the node has no room
+     */
+    private static Object pushLeftIn(Object node, int height, Object[] leaf) {
+        if (height == 0) {
+            return null;
+        }
+        Branch branch = (Branch) node;
+        int n = branch.children.length;
+        if (height > 1) {
+            Object first = pushLeftIn(branch.children[0], height - 1, leaf);
+            if (first != null) {
+                Object[] children = branch.children.clone();
+                children[0] = first;
+                return branch(children, height);
+            }
+        }
+        if (n == WIDTH) {
+            return null;
+        }
+        Object[] children = new Object[n + 1];
+        children[0] = wrap(leaf, height - 1);
+        System.arraycopy(branch.children, 0, children, 1, n);
+        return branch(children, height);
+    }
+
+    /**
+     * Concatenates two trees, rebalancing the nodes along the seam.
+     *
+     * @return a branch of height {@code max(leftHeight, rightHeight) + 1} with one or two children
+     */
+    private static Branch merge(Object left, int leftHeight, Object right, int rightHeight) {
+        if (leftHeight > rightHeight) {
+            Branch l = (Branch) left;
+            int n = l.children.length;
+            Branch middle = merge(l.children[n - 1], leftHeight - 1, right, rightHeight);
+            return split(join(l.children, 0, n - 1, middle.children, null, 0), leftHeight);
+        }
+        if (leftHeight < rightHeight) {
+            Branch r = (Branch) right;
+            Branch middle = merge(left, leftHeight, r.children[0], rightHeight - 1);
+            return split(join(null, 0, 0, middle.children, r.children, 1), rightHeight);
+        }
+        if (leftHeight == 0) {
+            Object[] l = (Object[]) left;
+            Object[] r = (Object[]) right;
+            if (l.length + r.length <= WIDTH) {
+                Object[] leaf = Arrays.copyOf(l, l.length + r.length);
+                System.arraycopy(r, 0, leaf, l.length, r.length);
+                return branch(new Object[]{leaf}, 1);
+            }
+            if (l.length == WIDTH) {
+                return branch(new Object[]{l, r}, 1);
+            }
+            Object[] full = Arrays.copyOf(l, WIDTH);
+            System.arraycopy(r, 0, full, l.length, WIDTH - l.length);
+            Object[] rest = Arrays.copyOfRange(r, WIDTH - l.length, r.length);
+            return branch(new Object[]{full, rest}, 1);
+        }
+        Branch l = (Branch) left;
+        Branch r = (Branch) right;
+        int n = l.children.length;
+        Branch middle = merge(l.children[n - 1], leftHeight - 1, r.children[0], rightHeight - 1);
+        return split(join(l.children, 0, n - 1, middle.children, r.children, 1), leftHeight);
+    }
+
+    private static Object[] join(Object[] left, int leftFrom, int leftTo, Object[] middle, Object[] right, int rightFrom) {
+        int leftLength = left == null ? 0 : leftTo - leftFrom;
+        int rightLength = right == null ? 0 : right.length - rightFrom;
+        Object[] joined = new Object[leftLength + middle.length + rightLength];
+        if (leftLength > 0) {
+            System.arraycopy(left, leftFrom, joined, 0, leftLength);
+        }
+        System.arraycopy(middle, 0, joined, leftLength, middle.length);
+        if (rightLength > 0) {
+            System.arraycopy(right, rightFrom, joined, leftLength + middle.length, rightLength);
+        }
+        return joined;
+    }
+
+    /**
+     * Packs nodes of height {@code height - 1} into one or two branches of the given height,
+     * and returns them as children of a branch one level up.
+     */
+    private static Branch split(Object[] children, int height) {
+        children = rebalance(children, height);
+        if (children.length <= WIDTH) {
+            return branch(new Object[]{branch(children, height)}, height + 1);
+        }
+        Branch left = branch(Arrays.copyOfRange(children, 0, WIDTH), height);
+        Branch right = branch(Arrays.copyOfRange(children, WIDTH, children.length), height);
+        return branch(new Object[]{left, right}, height + 1);
+    }
+
+    /**
+     * Repacks nodes of height {@code height - 1} into as few full nodes as possible, if there are more than
+     * {@value #EXTRA_STEPS} more of them than that.
+     */
+    private static Object[] rebalance(Object[] nodes, int height) {
+        int slots = 0;
+        for (Object node : nodes) {
+            slots += slotCount(node, height - 1);
+        }
+        int optimal = (slots + MASK) >>> BITS;
+        if (nodes.length <= optimal + EXTRA_STEPS) {
+            return nodes;
+        }
+        Object[] all = new Object[slots];
+        int length = 0;
+        for (Object node : nodes) {
+            Object[] contents = height == 1 ? (Object[]) node : ((Branch) node).children;
+            System.arraycopy(contents, 0, all, length, contents.length);
+            length += contents.length;
+        }
+        Object[] packed = new Object[optimal];
+        for (int i = 0; i < optimal; i++) {
+            Object[] contents = Arrays.copyOfRange(all, i << BITS, Math.min(slots, (i + 1) << BITS));
+            packed[i] = height == 1 ? contents : branch(contents, height - 1);
+        }
+        return packed;
+    }
+
+    private static int slotCount(Object node, int height) {
+        return height == 0 ? ((Object[]) node).length : ((Branch) node).children.length;
+    }
+
+    private static Tree collapse(Object node, int height) {
+        while (height > 0 && ((Branch) node).children.length == 1) {
+            node = ((Branch) node).children[0];
+            height--;
+        }
+        return new Tree(node, height);
+    }
+
+    private static Object sliceIn(Object node, int height, int from, int to) {
+        if (height == 0) {
+            Object[] leaf = (Object[]) node;
+            return from == 0 && to == leaf.length ? leaf : Arrays.copyOfRange(leaf, from, to);
+        }
+        Branch branch = (Branch) node;
+        int first = childIndex(branch, height, from);
+        int last = childIndex(branch, height, to - 1);
+        Object[] children = Arrays.copyOfRange(branch.children, first, last + 1);
+        int firstOffset = childOffset(branch, height, first);
+        int lastOffset = childOffset(branch, height, last);
+        if (first == last) {
+            children[0] = sliceIn(children[0], height - 1, from - firstOffset, to - firstOffset);
+        } else {
+            children[0] = sliceIn(children[0], height - 1, from - firstOffset, sizeOf(children[0], height - 1));
+            children[children.length - 1] = sliceIn(children[children.length - 1], height - 1, 0, to - lastOffset);
+        }
+        return branch(children, height);
+    }
+
+    /**
+     * The prefix, suffix or tree leaf holding the element at the given index.
+     */
+    private Object[] leafAt(int index) {
+        int p = prefix.length;
+        if (index < p) {
+            return prefix;
+        }
+        if (index >= p + rootSize) {
+            return suffix;
+        }
+        Object node = root;
+        int i = index - p;
+        for (int h = height; h > 0; h--) {
+            Branch branch = (Branch) node;
+            int slot = childIndex(branch, h, i);
+            i -= childOffset(branch, h, slot);
+            node = branch.children[slot];
+        }
+        return (Object[]) node;
+    }
+
+    /**
+     * The index of the first element of {@link #leafAt(int)}.
+     */
+    private int leafStart(int index) {
+        int p = prefix.length;
+        if (index < p) {
+            return 0;
+        }
+        if (index >= p + rootSize) {
+            return p + rootSize;
+        }
+        Object node = root;
+        int i = index - p;
+        int start = p;
+        for (int h = height; h > 0; h--) {
+            Branch branch = (Branch) node;
+            int slot = childIndex(branch, h, i);
+            int offset = childOffset(branch, h, slot);
+            i -= offset;
+            start += offset;
+            node = branch.children[slot];
+        }
+        return start;
+    }
+
+    private static void forEachIn(Object node, int height, Consumer<Object> action) {
+        if (height == 0) {
+            for (Object o : (Object[]) node) {
+                action.accept(o);
+            }
+        } else {
+            for (Object child : ((Branch) node).children) {
+                forEachIn(child, height - 1, action);
+            }
+        }
+    }
+
+    /**
+     * Iterates a range of the vector one leaf at a time, descending from the root once per leaf.
+     */
+    private static class Cursor<A> implements Iterator<A> {
+        private final PersistentVector<A> vector;
+        int index;
+        final int end;
+        private Object[] leaf = EMPTY_ARRAY;
+        private int position;
+
+        Cursor(PersistentVector<A> vector, int index, int end) {
+            this.vector = vector;
+            this.index = index;
+            this.end = end;
+        }
+
+        private void seek() {
+            leaf = vector.leafAt(index);
+            position = index - vector.leafStart(index);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return index < end;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public A next() {
+            int i = index;
+            if (i >= end) {
+                throw new NoSuchElementException();
+            }
+            Object[] current = leaf;
+            int p = position;
+            if (p >= current.length) {
+                seek();
+                current = leaf;
+                p = position;
+            }
+            index = i + 1;
+            position = p + 1;
+            return (A) current[p];
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void forEachRemaining(Consumer<? super A> action) {
+            while (index < end) {
+                if (position >= leaf.length) {
+                    seek();
+                }
+                Object[] current = leaf;
+                int n = Math.min(current.length - position, end - index);
+                for (int i = position; i < position + n; i++) {
+                    action.accept((A) current[i]);
+                }
+                position += n;
+                index += n;
+            }
+        }
+
+        void skipTo(int index) {
+            this.index = index;
+            this.leaf = EMPTY_ARRAY;
+            this.position = 0;
+        }
+    }
+
+    private static final class VectorSpliterator<A> extends Cursor<A> implements Spliterator<A> {
+        private final PersistentVector<A> vector;
+
+        VectorSpliterator(PersistentVector<A> vector, int index, int end) {
+            super(vector, index, end);
+            this.vector = vector;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super A> action) {
+            if (hasNext()) {
+                action.accept(next());
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator<A> trySplit() {
+            int mid = (index + end) >>> 1;
+            if (end - index < 2 * WIDTH) {
+                return null;
+            }
+            VectorSpliterator<A> prefix = new VectorSpliterator<>(vector, index, mid);
+            skipTo(mid);
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+        }
+    }
+}
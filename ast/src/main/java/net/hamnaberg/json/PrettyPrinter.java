@@ -1,13 +1,28 @@
 package net.hamnaberg.json;
 
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
+import java.util.WeakHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.LongAdder;
 
 public final class PrettyPrinter {
-    private final static int INDENT_LEVELS = 16;
-
     private final int charsPerLevel;
     private final boolean spaceAfterColon;
     private final boolean dropNullKeys;
@@ -45,12 +60,78 @@ public final class PrettyPrinter {
     }
 
     public void writeTo(Json.JValue value, Appendable appendable) {
-        PrinterState state = new PrinterState(appendable);
-        writeValue(value, state);
+        print(value, new CharState(appendable));
+    }
+
+    /**
+     * Writes value as UTF-8. The stream is neither flushed nor closed.
+     */
+    public void writeTo(Json.JValue value, OutputStream stream) {
+        print(value, new Utf8State(stream, null, null));
+    }
+
+    /**
+     * Writes value as UTF-8. The channel is not closed.
+     */
+    public void writeTo(Json.JValue value, WritableByteChannel channel) {
+        print(value, new Utf8State(null, channel, null));
+    }
+
+    /**
+     * Writes value as UTF-8, from the position of buffer onwards, and advances the position past it.
+     *
+     * @throws java.nio.BufferOverflowException if the output does not fit in the remaining space
+     */
+    public void writeTo(Json.JValue value, ByteBuffer buffer) {
+        print(value, new Utf8State(null, null, buffer));
+    }
+
+    /**
+     * Value as UTF-8, in an array of exactly its length.
+     *
+     * @throws ArithmeticException if the output is too large for an array
+     */
+    public byte[] writeBytes(Json.JValue value) {
+        ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(length(value).bytes()));
+        writeTo(value, buffer);
+        return buffer.array();
+    }
+
+    /**
+     * The exact length of what this printer writes for value, counted without writing it.
+     */
+    public Length length(Json.JValue value) {
+        return new Measurer(null).measure(value);
+    }
+
+    /**
+     * A new, empty cache of lengths measured with this printer.
+     */
+    public LengthCache lengthCache() {
+        return new LengthCache(this);
     }
 
-    private void writeValue(Json.JValue value, PrinterState state) {
-        value.foldUnit(new PrinterStateFolder(state, charsPerLevel));
+    /**
+     * A new, empty cache of output from this printer, holding at most about maxBytes.
+     */
+    public OutputCache outputCache(long maxBytes) {
+        return new OutputCache(this, maxBytes);
+    }
+
+    /**
+     * Writes value with {@link ParallelPrinter}, for {@link JsonForkJoin}.
+     */
+    void writeTo(Json.JValue value, OutputStream stream, ForkJoinPool pool, int threshold) {
+        new ParallelPrinter(pool, threshold, new Utf8State(stream, null, null)).print(value);
+    }
+
+    void writeTo(Json.JValue value, WritableByteChannel channel, ForkJoinPool pool, int threshold) {
+        new ParallelPrinter(pool, threshold, new Utf8State(null, channel, null)).print(value);
+    }
+
+    private void print(Json.JValue value, PrinterState state) {
+        value.walk(new PrinterVisitor(state));
+        state.flush();
     }
 
     public static class JsonWriteException extends RuntimeException {
@@ -59,15 +140,79 @@ public final class PrettyPrinter {
         }
     }
 
-    private class PrinterState {
-        private final Appendable appendable;
-        private int level = 0;
+    /**
+     * @param chars length as chars, as in {@link #writeString(Json.JValue)}
+     * @param bytes length as UTF-8, as in {@link #writeTo(Json.JValue, OutputStream)}
+     */
+    public record Length(long chars, long bytes) {
+    }
 
+    /**
+     * Lengths measured with one printer, remembered per object or array.
+     * <p>
+     * Values are immutable, so an object or array always prints to the same length at a given indentation.
+     * The cache keeps what it takes to work that out for any indentation, for objects and arrays of at least
+     * {@value #MIN_CHARS} chars, and later measurements of trees containing them skip their members.
+     * Entries are keyed like a {@link WeakHashMap}, and go away with their values. The cache is safe to share between threads.
+     */
+    public static final class LengthCache {
+        static final int MIN_CHARS = 256;
 
-        private PrinterState(Appendable appendable) {
-            this.appendable = appendable;
+        private final PrettyPrinter printer;
+        // chars and bytes at level 0, and the number of line breaks, for each value
+        private final Map<Json.JValue, long[]> lengths = new WeakHashMap<>();
+
+        private LengthCache(PrettyPrinter printer) {
+            this.printer = printer;
         }
 
+        public Length length(Json.JValue value) {
+            return printer.new Measurer(this).measure(value);
+        }
+
+        public int size() {
+            synchronized (lengths) {
+                return lengths.size();
+            }
+        }
+
+        long[] get(Json.JValue value) {
+            synchronized (lengths) {
+                return lengths.get(value);
+            }
+        }
+
+        void put(Json.JValue value, long[] length) {
+            synchronized (lengths) {
+                lengths.put(value, length);
+            }
+        }
+    }
+
+    /**
+     * Output of the printer, buffered and handed on whenever the buffer is full and at the end.
+     */
+    static abstract class PrinterState {
+        static final char[] HEX = "0123456789abcdef".toCharArray();
+        // for each ASCII char, how it is written inside a string: 0 as is, 'u' as a six char unicode escape,
+        // anything else as a backslash followed by that char
+        static final char[] ESCAPES = new char[128];
+
+        static {
+            for (int c = 0; c < 32; c++) {
+                ESCAPES[c] = 'u';
+            }
+            ESCAPES['\b'] = 'b';
+            ESCAPES['\t'] = 't';
+            ESCAPES['\n'] = 'n';
+            ESCAPES['\f'] = 'f';
+            ESCAPES['\r'] = 'r';
+            ESCAPES['"'] = '"';
+            ESCAPES['\\'] = '\\';
+        }
+
+        final NumberWriter numbers = new NumberWriter();
+        private int level = 0;
 
         void levelUp() {
             level++;
@@ -81,197 +226,1338 @@ public final class PrettyPrinter {
             return level;
         }
 
-        PrinterState append(String s) {
+        /**
+         * @param c an ASCII char
+         */
+        abstract void append(char c);
+
+        /**
+         * @param s a string of ASCII chars
+         */
+        abstract void append(String s);
+
+        abstract void append(boolean b);
+
+        abstract void appendNull();
+
+        abstract void number(long value);
+
+        /**
+         * @param value a finite double
+         */
+        abstract void number(double value);
+
+        abstract void spaces(int count);
+
+        /**
+         * Appends s as a quoted JSON string. Runs of chars that need no escaping are copied in bulk.
+         */
+        abstract void appendEscaped(String s);
+
+        abstract void flush();
+    }
+
+    /**
+     * Collects output in a char buffer for an {@link Appendable}.
+     */
+    private static final class CharState extends PrinterState {
+        private final Appendable appendable;
+        private final char[] buffer = new char[4096];
+        // the buffer as a CharSequence, for appendables that are neither a Writer nor a StringBuilder
+        private CharBuffer wrapped;
+        private final byte[] digits = new byte[NumberWriter.MAX_LENGTH];
+        private int position;
+
+        private CharState(Appendable appendable) {
+            this.appendable = appendable;
+        }
+
+        @Override
+        void append(String s) {
+            int length = s.length();
+            if (length <= buffer.length - position) {
+                s.getChars(0, length, buffer, position);
+                position += length;
+            } else {
+                appendChars(s, 0, length);
+            }
+        }
+
+        @Override
+        void append(char c) {
+            if (position == buffer.length) {
+                flush();
+            }
+            buffer[position++] = c;
+        }
+
+        @Override
+        void append(boolean b) {
+            append(b ? "true" : "false");
+        }
+
+        @Override
+        void appendNull() {
+            append("null");
+        }
+
+        @Override
+        void number(long value) {
+            appendDigits(NumberWriter.write(value, digits, 0));
+        }
+
+        @Override
+        void number(double value) {
+            appendDigits(numbers.write(value, digits, 0));
+        }
+
+        private void appendDigits(int length) {
+            if (buffer.length - position < length) {
+                flush();
+            }
+            for (int i = 0; i < length; i++) {
+                buffer[position++] = (char) digits[i];
+            }
+        }
+
+        @Override
+        void spaces(int count) {
+            while (count > 0) {
+                if (position == buffer.length) {
+                    flush();
+                }
+                int n = Math.min(count, buffer.length - position);
+                Arrays.fill(buffer, position, position + n, ' ');
+                position += n;
+                count -= n;
+            }
+        }
+
+        @Override
+        void appendEscaped(String s) {
+            append('"');
+            int length = s.length();
+            int run = 0;
+            for (int i = 0; i < length; i++) {
+                char c = s.charAt(i);
+                if (c < 128 && ESCAPES[c] != 0) {
+                    appendChars(s, run, i);
+                    run = i + 1;
+                    appendEscape(c);
+                }
+            }
+            appendChars(s, run, length);
+            append('"');
+        }
+
+        private void appendEscape(char c) {
+            if (buffer.length - position < 6) {
+                flush();
+            }
+            char escape = ESCAPES[c];
+            buffer[position++] = '\\';
+            if (escape == 'u') {
+                buffer[position++] = 'u';
+                buffer[position++] = '0';
+                buffer[position++] = '0';
+                buffer[position++] = HEX[c >> 4];
+                buffer[position++] = HEX[c & 0xF];
+            } else {
+                buffer[position++] = escape;
+            }
+        }
+
+        private void appendChars(String s, int start, int end) {
+            while (start < end) {
+                if (position == buffer.length) {
+                    flush();
+                }
+                int n = Math.min(end - start, buffer.length - position);
+                s.getChars(start, start + n, buffer, position);
+                position += n;
+                start += n;
+            }
+        }
+
+        @Override
+        void flush() {
             try {
-                appendable.append(s);
+                if (appendable instanceof StringBuilder sb) {
+                    sb.append(buffer, 0, position);
+                } else if (appendable instanceof Writer writer) {
+                    writer.write(buffer, 0, position);
+                } else {
+                    if (wrapped == null) {
+                        wrapped = CharBuffer.wrap(buffer);
+                    }
+                    appendable.append(wrapped, 0, position);
+                }
             } catch (IOException e) {
                 throw new JsonWriteException("Unable to append to writer", e);
             }
-            return this;
+            position = 0;
+        }
+    }
+
+    /**
+     * Encodes output as UTF-8 into a byte buffer, for exactly one of a stream, a channel or a ByteBuffer.
+     * Unpaired surrogates are written as '?', like the JDK encoders do.
+     */
+    private static final class Utf8State extends PrinterState {
+        private static final byte[] TRUE = {'t', 'r', 'u', 'e'};
+        private static final byte[] FALSE = {'f', 'a', 'l', 's', 'e'};
+        private static final byte[] NULL = {'n', 'u', 'l', 'l'};
+
+        private final OutputStream stream;
+        private final WritableByteChannel channel;
+        private final ByteBuffer target;
+        private byte[] buffer = new byte[8192];
+        private ByteBuffer wrapped;
+        private int position;
+        // bytes handed on before the start of the buffer
+        private long flushed;
+        // open captures, and how far the buffer may grow to keep them whole
+        private int captures;
+        private int captureLimit;
+
+        private Utf8State(OutputStream stream, WritableByteChannel channel, ByteBuffer target) {
+            this.stream = stream;
+            this.channel = channel;
+            this.target = target;
+        }
+
+        @Override
+        void append(char c) {
+            if (position == buffer.length) {
+                flush();
+            }
+            buffer[position++] = (byte) c;
+        }
+
+        @Override
+        void append(String s) {
+            int length = s.length();
+            if (length > buffer.length - position) {
+                flush();
+            }
+            if (length > buffer.length) {
+                for (int i = 0; i < length; i++) {
+                    append(s.charAt(i));
+                }
+                return;
+            }
+            for (int i = 0; i < length; i++) {
+                buffer[position++] = (byte) s.charAt(i);
+            }
+        }
+
+        @Override
+        void append(boolean b) {
+            append(b ? TRUE : FALSE);
+        }
+
+        @Override
+        void appendNull() {
+            append(NULL);
         }
 
-        void append(char[] chars, int i, int length) {
+        @Override
+        void number(long value) {
+            if (buffer.length - position < NumberWriter.MAX_LENGTH) {
+                flush();
+            }
+            position = NumberWriter.write(value, buffer, position);
+        }
+
+        @Override
+        void number(double value) {
+            if (buffer.length - position < NumberWriter.MAX_LENGTH) {
+                flush();
+            }
+            position = numbers.write(value, buffer, position);
+        }
+
+        void append(byte[] bytes) {
+            append(bytes, 0);
+        }
+
+        private void append(byte[] bytes, int offset) {
+            if (bytes.length - offset <= buffer.length - position) {
+                System.arraycopy(bytes, offset, buffer, position, bytes.length - offset);
+                position += bytes.length - offset;
+                return;
+            }
+            while (offset < bytes.length) {
+                if (position == buffer.length) {
+                    flush();
+                }
+                int n = Math.min(bytes.length - offset, buffer.length - position);
+                System.arraycopy(bytes, offset, buffer, position, n);
+                position += n;
+                offset += n;
+            }
+        }
+
+        /**
+         * Appends bytes from offset on, handing large arrays on as they are rather than copying them into the buffer.
+         */
+        void appendDirect(byte[] bytes, int offset) {
+            int length = bytes.length - offset;
+            if (length < buffer.length || captures > 0) {
+                append(bytes, offset);
+                return;
+            }
+            if (position > 0) {
+                flush();
+            }
+            handOn(bytes, offset, length);
+            flushed += length;
+        }
+
+        /**
+         * Starts keeping what is written from here on.
+         *
+         * @return the mark to end the capture with
+         */
+        long startCapture() {
+            captures++;
+            return flushed + position;
+        }
+
+        /**
+         * @return what was written since mark, or null if some of it has been handed on already
+         */
+        byte[] endCapture(long mark) {
+            captures--;
+            if (mark < flushed) {
+                return null;
+            }
+            return Arrays.copyOfRange(buffer, (int) (mark - flushed), position);
+        }
+
+        @Override
+        void spaces(int count) {
+            while (count > 0) {
+                if (position == buffer.length) {
+                    flush();
+                }
+                int n = Math.min(count, buffer.length - position);
+                Arrays.fill(buffer, position, position + n, (byte) ' ');
+                position += n;
+                count -= n;
+            }
+        }
+
+        @Override
+        void appendEscaped(String s) {
+            append('"');
+            int length = s.length();
+            int i = 0;
+            while (i < length) {
+                // room for a six byte escape, or the four bytes of a surrogate pair
+                if (buffer.length - position < 6) {
+                    flush();
+                }
+                // copy the ASCII run that needs no escaping, as far as it fits
+                int end = Math.min(length, i + buffer.length - position);
+                char c = 0;
+                while (i < end && (c = s.charAt(i)) < 128 && ESCAPES[c] == 0) {
+                    buffer[position++] = (byte) c;
+                    i++;
+                }
+                if (i == end) {
+                    continue;
+                }
+                if (buffer.length - position < 6) {
+                    flush();
+                }
+                if (c < 128) {
+                    appendEscape(c);
+                    i++;
+                } else {
+                    i = appendNonAscii(s, i, c);
+                }
+            }
+            append('"');
+        }
+
+        private void appendEscape(char c) {
+            char escape = ESCAPES[c];
+            buffer[position++] = '\\';
+            if (escape == 'u') {
+                buffer[position++] = 'u';
+                buffer[position++] = '0';
+                buffer[position++] = '0';
+                buffer[position++] = (byte) HEX[c >> 4];
+                buffer[position++] = (byte) HEX[c & 0xF];
+            } else {
+                buffer[position++] = (byte) escape;
+            }
+        }
+
+        /**
+         * Encodes the char at index, or the surrogate pair starting there.
+         *
+         * @return the index after what was encoded
+         */
+        private int appendNonAscii(String s, int index, char c) {
+            if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | c >> 6);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (!Character.isSurrogate(c)) {
+                buffer[position++] = (byte) (0xE0 | c >> 12);
+                buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && index + 1 < s.length() && Character.isLowSurrogate(s.charAt(index + 1))) {
+                int codePoint = Character.toCodePoint(c, s.charAt(index + 1));
+                buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+                buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+                return index + 2;
+            } else {
+                buffer[position++] = '?';
+            }
+            return index + 1;
+        }
+
+        @Override
+        void flush() {
+            if (captures > 0 && buffer.length < captureLimit) {
+                buffer = Arrays.copyOf(buffer, (int) Math.min(buffer.length * 2L, captureLimit));
+                wrapped = null;
+                return;
+            }
+            if (channel != null) {
+                if (wrapped == null) {
+                    wrapped = ByteBuffer.wrap(buffer);
+                }
+                wrapped.clear().limit(position);
+                write(wrapped);
+            } else {
+                handOn(buffer, 0, position);
+            }
+            flushed += position;
+            position = 0;
+        }
+
+        private void handOn(byte[] bytes, int offset, int length) {
+            if (stream != null) {
+                try {
+                    stream.write(bytes, offset, length);
+                } catch (IOException e) {
+                    throw new JsonWriteException("Unable to write to stream", e);
+                }
+            } else if (channel != null) {
+                write(ByteBuffer.wrap(bytes, offset, length));
+            } else {
+                target.put(bytes, offset, length);
+            }
+        }
+
+        private void write(ByteBuffer bytes) {
             try {
-                appendable.append(CharBuffer.wrap(chars), i, length);
+                while (bytes.hasRemaining()) {
+                    channel.write(bytes);
+                }
             } catch (IOException e) {
-                throw new JsonWriteException("Unable to append to writer", e);
+                throw new JsonWriteException("Unable to write to stream", e);
             }
         }
+    }
+
+    /**
+     * UTF-8 output of objects and arrays printed with one printer, remembered per value instance.
+     * <p>
+     * Printing through the cache looks up every object and array that may print to at least {@value #MIN_BYTES} bytes,
+     * as counted from its first members, so small ones cost nothing more than printing them. The first time one is seen only
+     * that is noted. The next time it is printed, its output is kept if it is at least {@value #MIN_BYTES} bytes and at most
+     * a fraction of the budget, and from then on those bytes are copied into the output as they are, wherever it is printed
+     * at the same indentation. So values printed once, such as the envelope of a response, are never copied into the cache.
+     * Entries are kept for as long as their value is reachable, and the least recently used ones are dropped to keep the
+     * total within the budget. The notes of values seen but not kept are bounded on their own, to a quarter of the budget,
+     * so they never push out output.
+     * <p>
+     * Values are immutable, so a value always prints the same. Entries are keyed by identity rather than equality, so looking
+     * one up does not compare trees, and a structurally equal copy of a cached value is printed and cached on its own.
+     * <p>
+     * Only UTF-8 output goes through the cache, since that is what it holds. The cache is split into independently locked
+     * stripes, and is safe to share between threads.
+     */
+    public static final class OutputCache {
+        static final int MIN_BYTES = 256;
+        // each stripe holds at least this much
+        private static final long MIN_STRIPE_BYTES = 64 * 1024;
+        // estimated heap used by an entry besides its output: the key, the map entry and the array header
+        private static final int ENTRY_BYTES = 96;
+        // the share of the budget for values seen but not kept
+        private static final int NOTES_SHARE = 4;
+        // seen once, to be kept when printed again
+        private static final byte[] SEEN = new byte[0];
+        // too small or too large to keep
+        private static final byte[] SKIP = new byte[0];
 
-        void append(boolean s) {
-            append(String.valueOf(s));
+        private final PrettyPrinter printer;
+        private final Stripe[] stripes;
+        private final long maxStripeBytes;
+        private final int maxEntryBytes;
+        private final long maxStripeNotes;
+        private final ReferenceQueue<Json.JValue> collected = new ReferenceQueue<>();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+
+        private OutputCache(PrettyPrinter printer, long maxBytes) {
+            if (maxBytes < 1) {
+                throw new IllegalArgumentException("maxBytes " + maxBytes);
+            }
+            this.printer = printer;
+            long stripes = Math.min(Runtime.getRuntime().availableProcessors() * 4L, Math.max(maxBytes / MIN_STRIPE_BYTES, 1));
+            this.stripes = new Stripe[Integer.highestOneBit((int) stripes)];
+            for (int i = 0; i < this.stripes.length; i++) {
+                this.stripes[i] = new Stripe();
+            }
+            this.maxStripeBytes = maxBytes / this.stripes.length;
+            this.maxEntryBytes = (int) Math.min(maxStripeBytes / 2, Integer.MAX_VALUE - 8);
+            this.maxStripeNotes = Math.max(maxStripeBytes / NOTES_SHARE / ENTRY_BYTES, 1);
         }
-    }
 
-    private class PrinterStateFolder implements VoidFolder {
-        private final PrinterState state;
-        private final char[] indents;
+        /**
+         * @see PrettyPrinter#writeTo(Json.JValue, OutputStream)
+         */
+        public void writeTo(Json.JValue value, OutputStream stream) {
+            printer.new CachingPrinter(this, new Utf8State(stream, null, null)).print(value);
+        }
 
-        private static char[] newIndent(int level) {
-            String indent = " ".repeat(Math.max(0, level + 1));
+        /**
+         * @see PrettyPrinter#writeTo(Json.JValue, WritableByteChannel)
+         */
+        public void writeTo(Json.JValue value, WritableByteChannel channel) {
+            printer.new CachingPrinter(this, new Utf8State(null, channel, null)).print(value);
+        }
+
+        /**
+         * @see PrettyPrinter#writeTo(Json.JValue, ByteBuffer)
+         */
+        public void writeTo(Json.JValue value, ByteBuffer buffer) {
+            printer.new CachingPrinter(this, new Utf8State(null, null, buffer)).print(value);
+        }
 
-            char[] indents = new char[indent.length() * INDENT_LEVELS];
-            int offset = 0;
-            for (int i = 0; i < INDENT_LEVELS; i++) {
-                indent.getChars(0, indent.length(), indents, offset);
-                offset += indent.length();
+        public Stats stats() {
+            expunge();
+            int size = 0;
+            long bytes = 0;
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    size += stripe.printed.size();
+                    bytes += stripe.bytes;
+                }
             }
-            return indents;
+            return new Stats(size, bytes, hits.sum(), misses.sum());
         }
 
-        public PrinterStateFolder(PrinterState state, int charsPerLevel) {
-            this.state = state;
-            this.indents = newIndent(charsPerLevel);
+        /**
+         * Whether value may print to at least {@value #MIN_BYTES} bytes. Counts a lower bound of its length, one byte for each
+         * number and nothing for indentation, and stops as soon as that is reached, so at most that many members are visited.
+         */
+        boolean mayKeep(Json.JValue value) {
+            return count(value, MIN_BYTES) <= 0;
+        }
+
+        /**
+         * @return budget less the least value prints to, or zero or less once that is reached
+         */
+        private int count(Json.JValue value, int budget) {
+            if (value instanceof Json.JString string) {
+                return budget - string.value().length() - 2;
+            }
+            if (value instanceof Json.JObject object) {
+                // the opening bracket, and a comma or the closing one for each field
+                budget--;
+                for (Map.Entry<String, Json.JValue> field : object.value().entrySet()) {
+                    if (budget <= 0) {
+                        break;
+                    }
+                    if (!(field.getValue() instanceof Json.JNull) || !printer.dropNullKeys) {
+                        budget = count(field.getValue(), budget - field.getKey().length() - 4);
+                    }
+                }
+                return budget;
+            }
+            if (value instanceof Json.JArray array) {
+                budget--;
+                if (array.value() instanceof LongList || array.value() instanceof DoubleList) {
+                    return budget - array.size() * 2;
+                }
+                for (Json.JValue element : array.value()) {
+                    if (budget <= 0) {
+                        break;
+                    }
+                    budget = count(element, budget - 1);
+                }
+                return budget;
+            }
+            return budget - (value instanceof Json.JNumber ? 1 : 4);
+        }
+
+        /**
+         * @return the output of value, or null if it is not kept. For values printed before, but not kept yet,
+         * {@link #shouldCapture(byte[])} is true
+         */
+        byte[] get(Json.JValue value, int level) {
+            Probe probe = new Probe(value, level);
+            Stripe stripe = stripe(probe.hash);
+            byte[] printed;
+            synchronized (stripe) {
+                printed = stripe.printed.get(probe);
+                if (printed == null) {
+                    printed = stripe.notes.get(probe);
+                }
+            }
+            if (printed == null) {
+                misses.increment();
+                put(value, level, SEEN);
+                return null;
+            }
+            if (printed.length == 0) {
+                misses.increment();
+                return printed == SEEN ? printed : null;
+            }
+            hits.increment();
+            return printed;
+        }
+
+        static boolean shouldCapture(byte[] printed) {
+            return printed == SEEN;
+        }
+
+        static boolean isPrinted(byte[] printed) {
+            return printed != null && printed.length > 0;
+        }
+
+        /**
+         * @param printed the output of value, or null if it could not be kept whole
+         */
+        void put(Json.JValue value, int level, byte[] printed) {
+            boolean keep = printed != null && printed != SEEN && printed.length >= MIN_BYTES && printed.length <= maxEntryBytes;
+            if (printed != SEEN && !keep) {
+                printed = SKIP;
+            }
+            expunge();
+            Key key = new Key(value, level, collected);
+            Stripe stripe = stripe(key.hash);
+            synchronized (stripe) {
+                if (keep) {
+                    stripe.notes.remove(key);
+                    stripe.add(stripe.printed.put(key, printed), -1);
+                    stripe.add(printed, 1);
+                    Iterator<byte[]> eldest = stripe.printed.values().iterator();
+                    while (stripe.bytes > maxStripeBytes && eldest.hasNext()) {
+                        stripe.add(eldest.next(), -1);
+                        eldest.remove();
+                    }
+                } else {
+                    stripe.notes.put(key, printed);
+                    Iterator<byte[]> eldest = stripe.notes.values().iterator();
+                    while (stripe.notes.size() > maxStripeNotes && eldest.hasNext()) {
+                        eldest.next();
+                        eldest.remove();
+                    }
+                }
+            }
+        }
+
+        private Stripe stripe(int hash) {
+            return stripes[(hash ^ hash >>> 16) & (stripes.length - 1)];
+        }
+
+        // drops the entries of values that have been collected
+        private void expunge() {
+            for (Object reference; (reference = collected.poll()) != null; ) {
+                Key key = (Key) reference;
+                Stripe stripe = stripe(key.hash);
+                synchronized (stripe) {
+                    stripe.add(stripe.printed.remove(key), -1);
+                    stripe.notes.remove(key);
+                }
+            }
+        }
+
+        private static int hash(Json.JValue value, int level) {
+            return System.identityHashCode(value) * 31 + level;
+        }
+
+        private static final class Stripe {
+            // Keys to output, least recently used first
+            final LinkedHashMap<Object, byte[]> printed = new LinkedHashMap<>(16, 0.75f, true);
+            // Keys of values seen but not kept to SEEN or SKIP, least recently used first
+            final LinkedHashMap<Object, byte[]> notes = new LinkedHashMap<>(16, 0.75f, true);
+            // the estimated size of the entries with output
+            long bytes;
+
+            void add(byte[] entry, int sign) {
+                if (entry != null) {
+                    bytes += sign * (long) (entry.length + ENTRY_BYTES);
+                }
+            }
+        }
+
+        // the key of an entry, equal only to itself once the value has been collected
+        private static final class Key extends WeakReference<Json.JValue> {
+            final int hash;
+            final int level;
+
+            Key(Json.JValue value, int level, ReferenceQueue<Json.JValue> queue) {
+                super(value, queue);
+                this.hash = OutputCache.hash(value, level);
+                this.level = level;
+            }
+
+            @Override
+            public int hashCode() {
+                return hash;
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                if (this == o) {
+                    return true;
+                }
+                Json.JValue value = get();
+                return value != null && o instanceof Key key && key.level == level && key.get() == value;
+            }
+        }
+
+        // looks up the Key of a value without creating a reference
+        private static final class Probe {
+            final Json.JValue value;
+            final int level;
+            final int hash;
+
+            Probe(Json.JValue value, int level) {
+                this.value = value;
+                this.level = level;
+                this.hash = OutputCache.hash(value, level);
+            }
+
+            @Override
+            public int hashCode() {
+                return hash;
+            }
+
+            @Override
+            public boolean equals(Object o) {
+                return o instanceof Key key && key.level == level && key.get() == value;
+            }
+        }
+
+        /**
+         * @param size   number of objects and arrays whose output is kept
+         * @param bytes  estimated heap used by the kept output, at most the budget
+         * @param hits   number of objects and arrays that were copied from the cache
+         * @param misses number of objects and arrays that were looked up and printed
+         */
+        public record Stats(int size, long bytes, long hits, long misses) {
+        }
+    }
+
+    /**
+     * Counts what would have been written.
+     */
+    private static final class CountingState extends PrinterState {
+        private final byte[] digits = new byte[NumberWriter.MAX_LENGTH];
+        private long chars;
+        private long bytes;
+
+        void add(long ascii) {
+            chars += ascii;
+            bytes += ascii;
         }
 
         @Override
-        public void onNull() {
-            state.append("null");
+        void append(char c) {
+            add(1);
         }
 
         @Override
-        public void onBoolean(Json.JBoolean b) {
-            state.append(b.value());
+        void append(String s) {
+            add(s.length());
         }
 
         @Override
-        public void onNumber(Json.JNumber n) {
-            state.append(n.value().toString());
+        void append(boolean b) {
+            add(b ? 4 : 5);
         }
 
         @Override
-        public void onString(Json.JString s) {
-            state.append(escape(s.value()));
+        void appendNull() {
+            add(4);
         }
 
         @Override
-        public void onArray(Json.JArray a) {
-            writeStartArray(state);
+        void number(long value) {
+            add(NumberWriter.write(value, digits, 0));
+        }
 
-            int length = a.size();
+        @Override
+        void number(double value) {
+            add(numbers.write(value, digits, 0));
+        }
+
+        @Override
+        void spaces(int count) {
+            add(count);
+        }
+
+        @Override
+        void appendEscaped(String s) {
+            int length = s.length();
+            long escapedChars = 2;
+            long utf8 = 2;
             for (int i = 0; i < length; i++) {
-                Json.JValue v = a.getValue().get(i);
-                if (i > 0) {
-                    state.append(",");
+                char c = s.charAt(i);
+                if (c < 128) {
+                    char escape = ESCAPES[c];
+                    int n = escape == 0 ? 1 : escape == 'u' ? 6 : 2;
+                    escapedChars += n;
+                    utf8 += n;
+                } else {
+                    escapedChars++;
+                    if (c < 0x800) {
+                        utf8 += 2;
+                    } else if (!Character.isSurrogate(c)) {
+                        utf8 += 3;
+                    } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                        escapedChars++;
+                        utf8 += 4;
+                        i++;
+                    } else {
+                        utf8++;
+                    }
                 }
-                doIndent(state);
-                writeValue(v, state);
             }
-
-            writeEndArray(state);
+            chars += escapedChars;
+            bytes += utf8;
         }
 
         @Override
-        public void onObject(Json.JObject o) {
-            writeStartObject(state);
+        void flush() {
+        }
+    }
+
+    /**
+     * Measures a value with an explicit stack, in the order the printer writes it.
+     * <p>
+     * An object or array opened at level {@code l} prints to its length at level 0 plus {@code l * charsPerLevel}
+     * for each line break in it, which is what the {@link LengthCache} keeps.
+     */
+    private final class Measurer {
+        private final LengthCache cache;
+        private final CountingState state = new CountingState();
+        private final int newline = charsPerLevel > 0 ? 1 : 0;
+        private Frame[] frames = new Frame[16];
+        private int depth;
+
+        Measurer(LengthCache cache) {
+            this.cache = cache;
+        }
 
-            int index = 0;
-            Map<String, Json.JValue> map = o.value();
-            for (Map.Entry<String, Json.JValue> entry : map.entrySet()) {
-                if (entry.getValue().isNull() && dropNullKeys) {
+        Length measure(Json.JValue value) {
+            if (value instanceof Json.JObject || value instanceof Json.JArray) {
+                open(value, 0);
+            } else {
+                scalar(value);
+            }
+            while (depth > 0) {
+                Frame frame = frames[depth - 1];
+                Json.JValue member = frame.next();
+                String name = frame.name;
+                if (member == null) {
+                    state.add(newline + (long) (depth - 1) * charsPerLevel + 1);
+                    frame.lines++;
+                    remember(frame.container, depth - 1, frame.chars, frame.bytes, frame.lines);
+                    long lines = frame.lines;
+                    frame.close();
+                    if (--depth > 0) {
+                        frames[depth - 1].lines += lines;
+                    }
                     continue;
                 }
+                if (name != null && dropNullKeys && member instanceof Json.JNull) {
+                    continue;
+                }
+                state.add((frame.written++ > 0 ? 1 : 0) + newline + (long) depth * charsPerLevel);
+                frame.lines++;
+                if (name != null) {
+                    state.appendEscaped(name);
+                    state.add(spaceAfterColon ? 2 : 1);
+                }
+                if (member instanceof Json.JObject || member instanceof Json.JArray) {
+                    frame.lines += open(member, depth);
+                } else {
+                    scalar(member);
+                }
+            }
+            return new Length(state.chars, state.bytes);
+        }
 
-                if (index > 0) {
-                    state.append(",");
+        /**
+         * Counts an object or array opened at level, or pushes a frame for its members.
+         *
+         * @return the number of line breaks counted
+         */
+        private long open(Json.JValue value, int level) {
+            long[] known = cache == null ? null : cache.get(value);
+            if (known != null) {
+                long indentation = known[2] * level * charsPerLevel;
+                state.chars += known[0] + indentation;
+                state.bytes += known[1] + indentation;
+                return known[2];
+            }
+            if (value instanceof Json.JArray array && array.isPacked()) {
+                return packed(array, level);
+            }
+            if (depth == frames.length) {
+                frames = Arrays.copyOf(frames, depth * 2);
+            }
+            Frame frame = frames[depth];
+            if (frame == null) {
+                frame = frames[depth] = new Frame();
+            }
+            frame.open(value);
+            frame.chars = state.chars;
+            frame.bytes = state.bytes;
+            depth++;
+            state.add(1);
+            return 0;
+        }
+
+        private long packed(Json.JArray array, int level) {
+            long chars = state.chars;
+            long bytes = state.bytes;
+            List<Json.JValue> list = array.value();
+            int size = list.size();
+            // brackets, commas, and the line breaks before each element and the closing bracket
+            state.add(2 + Math.max(size - 1, 0) + (long) (size + 1) * newline + ((long) size * (level + 1) + level) * charsPerLevel);
+            if (list instanceof LongList longs) {
+                for (int i = 0; i < size; i++) {
+                    state.number(longs.longAt(i));
+                }
+            } else {
+                DoubleList doubles = (DoubleList) list;
+                for (int i = 0; i < size; i++) {
+                    state.number(doubles.doubleAt(i));
                 }
-                doIndent(state);
-                writeProperty(entry.getKey(), entry.getValue(), state);
-                index++;
             }
+            remember(array, level, chars, bytes, size + 1);
+            return size + 1;
+        }
 
-            writeEndObject(state);
+        private void remember(Json.JValue container, int level, long startChars, long startBytes, long lines) {
+            long indentation = lines * level * charsPerLevel;
+            long chars = state.chars - startChars - indentation;
+            if (cache != null && chars >= LengthCache.MIN_CHARS) {
+                cache.put(container, new long[]{chars, state.bytes - startBytes - indentation, lines});
+            }
         }
 
-        private void writeProperty(String name, Json.JValue value, PrinterState state) {
-            state.append(escape(name)).append(":");
-            if (spaceAfterColon) {
-                state.append(" ");
+        private void scalar(Json.JValue value) {
+            if (value instanceof Json.JString s) {
+                state.appendEscaped(s.value());
+            } else if (value instanceof Json.JNumber n) {
+                n.writeTo(state);
+            } else if (value instanceof Json.JBoolean b) {
+                state.append(b.value());
+            } else {
+                state.appendNull();
             }
-            writeValue(value, state);
+        }
+    }
+
+    /**
+     * Prints with an explicit stack. Subclasses decide how each object and array is opened.
+     */
+    private abstract class StackPrinter {
+        final Utf8State state;
+        final PrinterVisitor visitor;
+        private Frame[] frames = new Frame[16];
+        private int depth;
+
+        StackPrinter(Utf8State state) {
+            this.state = state;
+            this.visitor = new PrinterVisitor(state);
         }
 
-        private void writeStartObject(PrinterState state) {
-            state.append("{");
+        void print(Json.JValue value) {
+            if (value instanceof Json.JObject || value instanceof Json.JArray) {
+                open(value);
+            } else {
+                visitor.value(value);
+            }
+            while (depth > 0) {
+                Frame frame = frames[depth - 1];
+                Json.JValue member = frame.next();
+                if (member == null) {
+                    visitor.close(frame.container instanceof Json.JObject ? '}' : ']');
+                    closed(frame);
+                    frame.close();
+                    depth--;
+                    continue;
+                }
+                if (frame.name != null) {
+                    visitor.name(frame.name);
+                }
+                if (member instanceof Json.JObject || member instanceof Json.JArray) {
+                    open(member);
+                } else {
+                    visitor.value(member);
+                }
+            }
+            state.flush();
+        }
+
+        /**
+         * Prints an object or array whole, or pushes it to have its members printed one by one.
+         */
+        abstract void open(Json.JValue value);
+
+        /**
+         * Called when a pushed object or array has been printed.
+         */
+        void closed(Frame frame) {
+        }
+
+        /**
+         * Writes what comes before value and its opening bracket, and pushes a frame for its members.
+         *
+         * @param capture whether to keep what is written from the bracket on, in {@link Frame#bytes}
+         */
+        void push(Json.JValue value, int level, boolean capture) {
+            visitor.writeMember();
+            if (depth == frames.length) {
+                frames = Arrays.copyOf(frames, depth * 2);
+            }
+            Frame frame = frames[depth];
+            if (frame == null) {
+                frame = frames[depth] = new Frame();
+            }
+            frame.open(value);
+            frame.level = level;
+            frame.bytes = capture ? state.startCapture() : -1;
+            depth++;
+            visitor.open(value instanceof Json.JObject ? '{' : '[');
+        }
+    }
+
+    /**
+     * Splices in objects and arrays found in an {@link OutputCache}, and keeps the output of those it has seen before.
+     */
+    private final class CachingPrinter extends StackPrinter {
+        private final OutputCache cache;
+
+        CachingPrinter(OutputCache cache, Utf8State state) {
+            super(state);
+            this.cache = cache;
+            state.captureLimit = cache.maxEntryBytes;
+        }
+
+        @Override
+        void open(Json.JValue value) {
+            // without indentation, the output is the same at every level
+            int level = charsPerLevel > 0 ? state.getLevel() : 0;
+            if (!cache.mayKeep(value)) {
+                push(value, level, false);
+                return;
+            }
+            byte[] printed = cache.get(value, level);
+            if (OutputCache.isPrinted(printed)) {
+                visitor.splice(printed);
+                return;
+            }
+            push(value, level, OutputCache.shouldCapture(printed));
+        }
+
+        @Override
+        void closed(Frame frame) {
+            if (frame.bytes >= 0) {
+                cache.put(frame.container, frame.level, state.endCapture(frame.bytes));
+            }
+        }
+    }
+
+    /**
+     * Prints the members of objects and arrays with more than threshold members in chunks of threshold members, each into its
+     * own buffer on the pool, and writes the buffers in order. Only a few chunks per thread are printed ahead of the one being
+     * written, so at most that much output is held at a time.
+     * <p>
+     * A chunk is printed at the level of the members, and as if a member had been printed before it, so it starts with a comma.
+     * That comma is left out of the first chunk with any output, as not every chunk has some when null fields are dropped.
+     */
+    private final class ParallelPrinter extends StackPrinter {
+        private final ForkJoinPool pool;
+        private final int threshold;
+
+        ParallelPrinter(ForkJoinPool pool, int threshold, Utf8State state) {
+            super(state);
+            this.pool = pool;
+            this.threshold = threshold;
+        }
+
+        @Override
+        void open(Json.JValue value) {
+            List<?> members = chunked(value);
+            if (members == null) {
+                push(value, 0, false);
+                return;
+            }
+            visitor.writeMember();
+            visitor.open(value instanceof Json.JObject ? '{' : '[');
+            int level = state.getLevel();
+            int window = Math.max(pool.getParallelism(), 1) * 2;
+            ArrayDeque<ForkJoinTask<byte[]>> pending = new ArrayDeque<>();
+            try {
+                for (int from = 0; from < members.size(); from += threshold) {
+                    int start = from;
+                    int end = Math.min(members.size(), from + threshold);
+                    ForkJoinTask<byte[]> chunk = ForkJoinTask.adapt(() -> printChunk(members, start, end, level));
+                    if (ForkJoinTask.getPool() == pool) {
+                        chunk.fork();
+                    } else {
+                        pool.execute(chunk);
+                    }
+                    pending.add(chunk);
+                    if (pending.size() == window) {
+                        write(pending.poll().join());
+                    }
+                }
+                while (!pending.isEmpty()) {
+                    write(pending.poll().join());
+                }
+            } finally {
+                for (ForkJoinTask<byte[]> chunk : pending) {
+                    chunk.cancel(false);
+                }
+            }
+            visitor.close(value instanceof Json.JObject ? '}' : ']');
+        }
+
+        /**
+         * @return the members of value as in {@link #printChunk}, or null if it has at most threshold members
+         */
+        private List<?> chunked(Json.JValue value) {
+            if (value instanceof Json.JObject object) {
+                return object.size() > threshold ? Arrays.asList(object.value().entrySet().toArray()) : null;
+            }
+            Json.JArray array = (Json.JArray) value;
+            if (array.size() <= threshold) {
+                return null;
+            }
+            List<Json.JValue> values = array.value();
+            return values instanceof RandomAccess ? values : Arrays.asList(values.toArray());
+        }
+
+        private void write(byte[] chunk) {
+            if (chunk.length > 0) {
+                state.appendDirect(chunk, visitor.first ? 1 : 0);
+                visitor.first = false;
+            }
+        }
+    }
+
+    /**
+     * Members from until to of an object or array, printed at level and preceded by a comma.
+     *
+     * @param members the fields of an object as map entries, or the elements of an array
+     * @return the output, empty if only null fields were dropped
+     */
+    private byte[] printChunk(List<?> members, int from, int to, int level) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        Utf8State state = new Utf8State(bytes, null, null);
+        for (int i = 0; i < level; i++) {
             state.levelUp();
         }
+        PrinterVisitor visitor = new PrinterVisitor(state);
+        visitor.first = false;
+        for (int i = from; i < to; i++) {
+            Object member = members.get(i);
+            if (member instanceof Map.Entry<?, ?> field) {
+                visitor.name((String) field.getKey());
+                member = field.getValue();
+            }
+            ((Json.JValue) member).walk(visitor);
+        }
+        state.flush();
+        return bytes.toByteArray();
+    }
 
+    /**
+     * An open object or array in a traversal with an explicit stack.
+     */
+    private static final class Frame {
+        // an IndexedMap or List of the members, or an Iterator over them
+        Object members;
+        Json.JValue container;
+        int index;
+        // the field name of the member last returned by next
+        String name;
+        int level;
+        int written;
+        long lines;
+        // what had been counted or written when the container was opened
+        long chars;
+        long bytes;
 
-        private void writeEndObject(PrinterState state) {
-            state.levelDown();
-            doIndent(state);
-            state.append("}");
+        void open(Json.JValue value) {
+            if (value instanceof Json.JObject object) {
+                Map<String, Json.JValue> map = object.value();
+                members = map instanceof IndexedMap ? map : map.entrySet().iterator();
+            } else {
+                List<Json.JValue> list = ((Json.JArray) value).value();
+                members = list instanceof RandomAccess ? list : list.iterator();
+            }
+            container = value;
+            index = 0;
+            written = 0;
+            lines = 0;
+        }
+
+        void close() {
+            members = null;
+            container = null;
+            name = null;
+        }
+
+        /**
+         * @return the next member, or null after the last
+         */
+        Json.JValue next() {
+            name = null;
+            if (members instanceof IndexedMap indexed) {
+                if (index < ((Map<?, ?>) members).size()) {
+                    name = indexed.keyAt(index);
+                    return indexed.valueAt(index++);
+                }
+            } else if (members instanceof List<?> list) {
+                if (index < list.size()) {
+                    return (Json.JValue) list.get(index++);
+                }
+            } else {
+                Iterator<?> iterator = (Iterator<?>) members;
+                if (iterator.hasNext()) {
+                    Object next = iterator.next();
+                    if (next instanceof Map.Entry<?, ?> entry) {
+                        name = (String) entry.getKey();
+                        return (Json.JValue) entry.getValue();
+                    }
+                    return (Json.JValue) next;
+                }
+            }
+            return null;
+        }
+    }
+
+    private class PrinterVisitor implements JsonVisitor {
+        private final PrinterState state;
+        // true until the current object or array has printed a member
+        private boolean first = true;
+        private String name;
+
+        public PrinterVisitor(PrinterState state) {
+            this.state = state;
+        }
+
+        @Override
+        public void startObject() {
+            writeMember();
+            open('{');
+        }
+
+        @Override
+        public void endObject() {
+            close('}');
+        }
+
+        @Override
+        public void startArray() {
+            writeMember();
+            open('[');
         }
 
-        private void writeStartArray(PrinterState state) {
-            state.append("[");
+        @Override
+        public void endArray() {
+            close(']');
+        }
+
+        void open(char bracket) {
+            state.append(bracket);
             state.levelUp();
+            first = true;
         }
 
-        private void writeEndArray(PrinterState state) {
+        void close(char bracket) {
             state.levelDown();
             doIndent(state);
-            state.append("]");
+            state.append(bracket);
+            first = false;
         }
 
-        private String escape(String js) {
-            StringBuilder sb = new StringBuilder();
-            sb.append('\"');
+        /**
+         * Writes a member that has been printed before.
+         */
+        void splice(byte[] printed) {
+            writeMember();
+            ((Utf8State) state).append(printed);
+        }
 
-            for (int i = 0; i < js.length(); ++i) {
-                char c = js.charAt(i);
-                if (c >= 32 && c <= 1114111 && c != 34 && c != 92) {
-                    sb.append(c);
-                } else {
-                    switch (c) {
-                        case '\b':
-                            sb.append('\\');
-                            sb.append('b');
-                            break;
-                        case '\t':
-                            sb.append('\\');
-                            sb.append('t');
-                            break;
-                        case '\n':
-                            sb.append('\\');
-                            sb.append('n');
-                            break;
-                        case '\f':
-                            sb.append('\\');
-                            sb.append('f');
-                            break;
-                        case '\r':
-                            sb.append('\\');
-                            sb.append('r');
-                            break;
-                        case '\"':
-                        case '\\':
-                            sb.append('\\');
-                            sb.append(c);
-                            break;
-                        default:
-                            String hex = "000" + Integer.toHexString(c);
-                            sb.append("\\u").append(hex.substring(hex.length() - 4));
-                    }
-                }
+        @Override
+        public void name(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public void value(Json.JValue value) {
+            if (value instanceof Json.JString s) {
+                writeMember();
+                state.appendEscaped(s.value());
+            } else if (value instanceof Json.JNumber n) {
+                writeMember();
+                n.writeTo(state);
+            } else if (value instanceof Json.JBoolean b) {
+                writeMember();
+                state.append(b.value());
+            } else if (name != null && dropNullKeys) {
+                name = null;
+            } else {
+                writeMember();
+                state.appendNull();
             }
+        }
 
-            sb.append('\"');
-            return sb.toString();
+        void writeMember() {
+            if (state.getLevel() == 0) {
+                return;
+            }
+            if (!first) {
+                state.append(',');
+            }
+            first = false;
+            doIndent(state);
+            if (name != null) {
+                state.appendEscaped(name);
+                state.append(':');
+                if (spaceAfterColon) {
+                    state.append(' ');
+                }
+                name = null;
+            }
         }
 
         private void doIndent(PrinterState state) {
             if (charsPerLevel > 0) {
-                state.append("\n");
+                state.append('\n');
             }
             int level = state.getLevel();
             if (level > 0) {
-                level *= charsPerLevel;
-                while (level > indents.length) {
-                    state.append(indents, 0, indents.length);
-                    level -= indents.length;
-                }
-                state.append(indents, 0, level);
+                state.spaces(level * charsPerLevel);
             }
         }
     }
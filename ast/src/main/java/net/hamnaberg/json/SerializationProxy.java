@@ -0,0 +1,351 @@
+package net.hamnaberg.json;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Serialized form of every {@link Json.JValue} except {@link Json.JNull}, which is an enum.
+ * <p>
+ * The value is written as one tag byte per value, followed by its payload:
+ * <ul>
+ *     <li>integers as zigzag varints, doubles as their 8 bytes, and other decimals as a zigzag varint scale
+ *     followed by the unscaled value, as a varint when it fits in a long</li>
+ *     <li>strings as a varint byte length followed by the UTF-16 code units in modified UTF-8</li>
+ *     <li>arrays as their values followed by an {@code END} tag</li>
+ *     <li>objects as a sequence of field name and value, ended by a zero name.
+ *     A field name is written in full the first time it occurs in the stream, and as its number in the key table after that</li>
+ * </ul>
+ * Both directions keep an explicit stack, so values of any depth can be serialized.
+ */
+final class SerializationProxy implements Externalizable {
+    private static final long serialVersionUID = 1L;
+    private static final byte VERSION = 1;
+
+    private static final byte END = 0;
+    private static final byte NULL = 1;
+    private static final byte FALSE = 2;
+    private static final byte TRUE = 3;
+    private static final byte LONG = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte DECIMAL = 6;
+    private static final byte BIG_DECIMAL = 7;
+    private static final byte STRING = 8;
+    private static final byte OBJECT = 9;
+    private static final byte ARRAY = 10;
+
+    // field name references: 0 ends the object, 1 is followed by a new name, n refers to key n - 2
+    private static final int END_OF_FIELDS = 0;
+    private static final int NEW_KEY = 1;
+
+    private Json.JValue value;
+
+    /**
+     * For {@link Externalizable} only.
+     */
+    public SerializationProxy() {
+    }
+
+    SerializationProxy(Json.JValue value) {
+        this.value = value;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        Writer writer = new Writer(out);
+        try {
+            value.walk(writer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        Reader reader = new Reader(in);
+        try {
+            value = reader.read();
+        } catch (IllegalStateException | IndexOutOfBoundsException | ArithmeticException | NumberFormatException e) {
+            StreamCorruptedException corrupted = new StreamCorruptedException("Invalid JSON value: " + e.getMessage());
+            corrupted.initCause(e);
+            throw corrupted;
+        }
+    }
+
+    private Object readResolve() {
+        return value;
+    }
+
+    static final class Writer implements JsonVisitor {
+        private final DataOutput out;
+        private final byte[] buffer = new byte[8192];
+        private final HashMap<String, Integer> keys = new HashMap<>();
+        private int position;
+
+        private Writer(DataOutput out) throws IOException {
+            this.out = out;
+            out.writeByte(VERSION);
+        }
+
+        @Override
+        public void startObject() {
+            tag(OBJECT);
+        }
+
+        @Override
+        public void endObject() {
+            varLong(END_OF_FIELDS);
+        }
+
+        @Override
+        public void startArray() {
+            tag(ARRAY);
+        }
+
+        @Override
+        public void endArray() {
+            tag(END);
+        }
+
+        @Override
+        public void name(String name) {
+            Integer key = keys.get(name);
+            if (key != null) {
+                varLong(key + 2L);
+            } else {
+                keys.put(name, keys.size());
+                varLong(NEW_KEY);
+                string(name);
+            }
+        }
+
+        @Override
+        public void value(Json.JValue value) {
+            if (value instanceof Json.JString s) {
+                tag(STRING);
+                string(s.value());
+            } else if (value instanceof Json.JNumber n) {
+                n.writeTo(this);
+            } else if (value instanceof Json.JBoolean b) {
+                tag(b.value() ? TRUE : FALSE);
+            } else {
+                tag(NULL);
+            }
+        }
+
+        void number(long value) {
+            tag(LONG);
+            varLong(zigzag(value));
+        }
+
+        void number(double value) {
+            ensure(9);
+            buffer[position++] = DOUBLE;
+            long bits = Double.doubleToRawLongBits(value);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buffer[position++] = (byte) (bits >>> shift);
+            }
+        }
+
+        void number(BigDecimal value) {
+            BigInteger unscaled = value.unscaledValue();
+            boolean small = unscaled.bitLength() < 64;
+            tag(small ? DECIMAL : BIG_DECIMAL);
+            varLong(zigzag(value.scale()));
+            if (small) {
+                varLong(zigzag(unscaled.longValue()));
+            } else {
+                byte[] bytes = unscaled.toByteArray();
+                varLong(bytes.length);
+                write(bytes);
+            }
+        }
+
+        private void tag(byte tag) {
+            ensure(1);
+            buffer[position++] = tag;
+        }
+
+        private void varLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        private void string(String value) {
+            int length = value.length();
+            long bytes = length;
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (c == 0 || c > 0x7F) {
+                    bytes += c > 0x7FF ? 2 : 1;
+                }
+            }
+            varLong(bytes);
+            for (int i = 0; i < length; i++) {
+                if (position + 3 > buffer.length) {
+                    flush();
+                }
+                char c = value.charAt(i);
+                if (c != 0 && c <= 0x7F) {
+                    buffer[position++] = (byte) c;
+                } else if (c <= 0x7FF) {
+                    buffer[position++] = (byte) (0xC0 | c >> 6);
+                    buffer[position++] = (byte) (0x80 | c & 0x3F);
+                } else {
+                    buffer[position++] = (byte) (0xE0 | c >> 12);
+                    buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                    buffer[position++] = (byte) (0x80 | c & 0x3F);
+                }
+            }
+        }
+
+        private void write(byte[] bytes) {
+            flush();
+            try {
+                out.write(bytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void ensure(int bytes) {
+            if (position + bytes > buffer.length) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            try {
+                out.write(buffer, 0, position);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            position = 0;
+        }
+
+        private static long zigzag(long value) {
+            return (value << 1) ^ (value >> 63);
+        }
+    }
+
+    private static final class Reader {
+        private final DataInput in;
+        private final List<String> keys = new ArrayList<>();
+        private byte[] bytes = new byte[64];
+        private char[] chars = new char[64];
+
+        private Reader(DataInput in) {
+            this.in = in;
+        }
+
+        Json.JValue read() throws IOException {
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new InvalidObjectException("Unknown version " + version);
+            }
+            JsonTreeBuilder builder = new JsonTreeBuilder();
+            // whether each open container is an object
+            boolean[] objects = new boolean[16];
+            int depth = 0;
+            do {
+                if (depth > 0 && objects[depth - 1]) {
+                    long key = varLong();
+                    if (key == END_OF_FIELDS) {
+                        builder.endObject();
+                        depth--;
+                        continue;
+                    }
+                    if (key == NEW_KEY) {
+                        String name = string();
+                        keys.add(name);
+                        builder.name(name);
+                    } else {
+                        builder.name(keys.get(Math.toIntExact(key - 2)));
+                    }
+                }
+                byte tag = in.readByte();
+                switch (tag) {
+                    case OBJECT, ARRAY -> {
+                        if (depth == objects.length) {
+                            objects = Arrays.copyOf(objects, depth * 2);
+                        }
+                        objects[depth++] = tag == OBJECT;
+                        if (tag == OBJECT) {
+                            builder.startObject();
+                        } else {
+                            builder.startArray();
+                        }
+                    }
+                    case END -> {
+                        builder.endArray();
+                        depth--;
+                    }
+                    case NULL -> builder.value(Json.jNull());
+                    case FALSE -> builder.value(Json.jBoolean(false));
+                    case TRUE -> builder.value(Json.jBoolean(true));
+                    case LONG -> builder.value(Json.jNumber(unzigzag(varLong())));
+                    case DOUBLE -> builder.value(Json.jNumber(Double.longBitsToDouble(in.readLong())));
+                    case DECIMAL -> {
+                        int scale = Math.toIntExact(unzigzag(varLong()));
+                        builder.value(Json.jNumber(BigDecimal.valueOf(unzigzag(varLong()), scale)));
+                    }
+                    case BIG_DECIMAL -> {
+                        int scale = Math.toIntExact(unzigzag(varLong()));
+                        byte[] unscaled = new byte[Math.toIntExact(varLong())];
+                        in.readFully(unscaled);
+                        builder.value(Json.jNumber(new BigDecimal(new BigInteger(unscaled), scale)));
+                    }
+                    case STRING -> builder.value(Json.jString(string()));
+                    default -> throw new StreamCorruptedException("Unknown tag " + tag);
+                }
+            } while (!builder.isComplete());
+            return builder.result();
+        }
+
+        private String string() throws IOException {
+            int length = Math.toIntExact(varLong());
+            if (length > bytes.length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+                chars = new char[bytes.length];
+            }
+            in.readFully(bytes, 0, length);
+            int count = 0;
+            for (int i = 0; i < length; count++) {
+                int b = bytes[i++];
+                if (b >= 0) {
+                    chars[count] = (char) b;
+                } else if ((b & 0xE0) == 0xC0) {
+                    chars[count] = (char) ((b & 0x1F) << 6 | bytes[i++] & 0x3F);
+                } else {
+                    chars[count] = (char) ((b & 0x0F) << 12 | (bytes[i++] & 0x3F) << 6 | bytes[i++] & 0x3F);
+                }
+            }
+            return new String(chars, 0, count);
+        }
+
+        private long varLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                byte b = in.readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+            throw new StreamCorruptedException("Malformed varint");
+        }
+
+        private static long unzigzag(long value) {
+            return (value >>> 1) ^ -(value & 1);
+        }
+    }
+}
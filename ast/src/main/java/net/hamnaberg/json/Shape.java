@@ -0,0 +1,141 @@
+package net.hamnaberg.json;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ordered key layout shared by every {@link ShapedMap} with the same keys in the same order,
+ * much like the hidden classes of JavaScript engines.
+ * <p>
+ * Shapes form a transition tree rooted in {@link #EMPTY}, adding the same key to a shape gives the same child
+ * for as long as that child is in use. A shape only holds its children weakly, and is kept by its maps and its
+ * children, so the keys of objects that are gone can be collected, however many different keys have been seen.
+ * The tree is bounded by {@link #MAX_KEYS} keys per shape and {@link #MAX_TRANSITIONS} live children per shape.
+ * Past those limits {@link #with(String)} returns null and callers fall back to an ordinary map.
+ */
+final class Shape {
+    static final int MAX_KEYS = 64;
+    static final int MAX_TRANSITIONS = 64;
+    private static final int LINEAR_SCAN_LIMIT = 8;
+
+    static final Shape EMPTY = root();
+
+    // keeps the path from the root while this shape is in use
+    private final Shape parent;
+    private final String[] keys;
+    // open addressing table of key index + 1, zero marks an empty slot. null for small shapes
+    private final int[] table;
+    private final ConcurrentHashMap<String, WeakReference<Shape>> transitions = new ConcurrentHashMap<>();
+    private volatile WeakReference<Shape> last;
+
+    private Shape(Shape parent, String[] keys) {
+        this.parent = parent;
+        this.keys = keys;
+        this.table = keys.length > LINEAR_SCAN_LIMIT ? buildTable(keys) : null;
+    }
+
+    /**
+     * A new transition tree, unrelated to {@link #EMPTY}.
+     */
+    static Shape root() {
+        return new Shape(null, new String[0]);
+    }
+
+    int size() {
+        return keys.length;
+    }
+
+    String key(int index) {
+        return keys[index];
+    }
+
+    int indexOf(Object key) {
+        if (table == null) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        int mask = table.length - 1;
+        for (int slot = spread(key.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int index = table[slot];
+            if (index == 0) {
+                return -1;
+            }
+            if (keys[index - 1].equals(key)) {
+                return index - 1;
+            }
+        }
+    }
+
+    /**
+     * The shape with key appended. The key must not already be part of this shape.
+     *
+     * @return the child shape, or null if the transition tree is full
+     */
+    Shape with(String key) {
+        WeakReference<Shape> reference = last;
+        Shape next = reference == null ? null : reference.get();
+        if (next != null && key.equals(next.keys[keys.length])) {
+            return next;
+        }
+        reference = transitions.get(key);
+        next = reference == null ? null : reference.get();
+        if (next == null) {
+            if (keys.length >= MAX_KEYS) {
+                return null;
+            }
+            if (reference == null && transitions.size() >= MAX_TRANSITIONS) {
+                transitions.values().removeIf(r -> r.get() == null);
+                if (transitions.size() >= MAX_TRANSITIONS) {
+                    return null;
+                }
+            }
+            Shape child = child(key);
+            reference = transitions.compute(key, (k, old) -> old != null && old.get() != null ? old : new WeakReference<>(child));
+            next = reference.get();
+            if (next == null) {
+                // the winning child went away as we got it
+                return child;
+            }
+        }
+        last = reference;
+        return next;
+    }
+
+    /**
+     * Clears the reference to the child for key, exactly as the garbage collector does once the child is unused.
+     */
+    void clearTransition(String key) {
+        WeakReference<Shape> reference = transitions.get(key);
+        if (reference != null) {
+            reference.clear();
+        }
+    }
+
+    private Shape child(String key) {
+        String[] childKeys = new String[keys.length + 1];
+        System.arraycopy(keys, 0, childKeys, 0, keys.length);
+        childKeys[keys.length] = key;
+        return new Shape(this, childKeys);
+    }
+
+    private static int[] buildTable(String[] keys) {
+        int[] table = new int[Integer.highestOneBit(keys.length) << 2];
+        int mask = table.length - 1;
+        for (int i = 0; i < keys.length; i++) {
+            int slot = spread(keys[i].hashCode()) & mask;
+            while (table[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            table[slot] = i + 1;
+        }
+        return table;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
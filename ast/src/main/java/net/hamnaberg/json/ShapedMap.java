@@ -0,0 +1,116 @@
+package net.hamnaberg.json;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable map whose keys are held by a shared {@link Shape}, with the values in a flat array
+ * in key order. Built by {@link Json.JObject.Builder}.
+ */
+final class ShapedMap extends AbstractMap<String, Json.JValue> implements IndexedMap, Serializable {
+    private final Shape shape;
+    private final Json.JValue[] values;
+
+    ShapedMap(Shape shape, Json.JValue[] values) {
+        this.shape = shape;
+        this.values = values;
+    }
+
+    Shape shape() {
+        return shape;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    @Override
+    public Json.JValue get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        int index = shape.indexOf(key);
+        return index < 0 ? null : values[index];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && shape.indexOf(key) >= 0;
+    }
+
+    @Override
+    public String keyAt(int index) {
+        return shape.key(index);
+    }
+
+    @Override
+    public Json.JValue valueAt(int index) {
+        return values[index];
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Json.JValue> action) {
+        for (int i = 0; i < values.length; i++) {
+            action.accept(shape.key(i), values[i]);
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Json.JValue>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Json.JValue>> iterator() {
+                return new Iterator<>() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < values.length;
+                    }
+
+                    @Override
+                    public Entry<String, Json.JValue> next() {
+                        if (index >= values.length) {
+                            throw new NoSuchElementException();
+                        }
+                        int i = index++;
+                        return new SimpleImmutableEntry<>(shape.key(i), values[i]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return values.length;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof ShapedMap other && other.shape == shape) {
+            return Arrays.equals(values, other.values);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < values.length; i++) {
+            hash += shape.key(i).hashCode() ^ values[i].hashCode();
+        }
+        return hash;
+    }
+
+    private Object writeReplace() {
+        return new LinkedHashMap<>(this);
+    }
+}
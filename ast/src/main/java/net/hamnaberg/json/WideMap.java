@@ -0,0 +1,177 @@
+package net.hamnaberg.json;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Immutable map for objects with more keys than a {@link Shape} holds. Keys and values are kept in flat arrays
+ * in insertion order, with an open addressing table of key index + 1 over them, zero marking an empty slot.
+ * Built by {@link Json.JObject.Builder}.
+ */
+final class WideMap extends AbstractMap<String, Json.JValue> implements IndexedMap, Serializable {
+    private final String[] keys;
+    private final Json.JValue[] values;
+    private final int[] table;
+
+    /**
+     * @param table index over keys, as built by {@link #index(String[], int)}
+     */
+    WideMap(String[] keys, Json.JValue[] values, int[] table) {
+        this.keys = keys;
+        this.values = values;
+        this.table = table;
+    }
+
+    @Override
+    public int size() {
+        return values.length;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return values.length == 0;
+    }
+
+    @Override
+    public Json.JValue get(Object key) {
+        if (!(key instanceof String)) {
+            return null;
+        }
+        int index = indexOf(keys, table, key);
+        return index < 0 ? null : values[index];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof String && indexOf(keys, table, key) >= 0;
+    }
+
+    int indexLength() {
+        return table.length;
+    }
+
+    @Override
+    public String keyAt(int index) {
+        return keys[index];
+    }
+
+    @Override
+    public Json.JValue valueAt(int index) {
+        return values[index];
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Json.JValue> action) {
+        for (int i = 0; i < values.length; i++) {
+            action.accept(keys[i], values[i]);
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Json.JValue>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Json.JValue>> iterator() {
+                return new Iterator<>() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < values.length;
+                    }
+
+                    @Override
+                    public Entry<String, Json.JValue> next() {
+                        if (index >= values.length) {
+                            throw new NoSuchElementException();
+                        }
+                        int i = index++;
+                        return new SimpleImmutableEntry<>(keys[i], values[i]);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return values.length;
+            }
+        };
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof WideMap other && Arrays.equals(keys, other.keys)) {
+            return Arrays.equals(values, other.values);
+        }
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 0;
+        for (int i = 0; i < values.length; i++) {
+            hash += keys[i].hashCode() ^ values[i].hashCode();
+        }
+        return hash;
+    }
+
+    /**
+     * Index of key among the first keys, or -1.
+     */
+    static int indexOf(String[] keys, int[] table, Object key) {
+        int mask = table.length - 1;
+        for (int slot = spread(key.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int index = table[slot];
+            if (index == 0) {
+                return -1;
+            }
+            if (keys[index - 1].equals(key)) {
+                return index - 1;
+            }
+        }
+    }
+
+    /**
+     * A table over the first size keys, which must be distinct. It stays at most half full until
+     * {@link #needsResize(int[], int)} says otherwise.
+     */
+    static int[] index(String[] keys, int size) {
+        int[] table = newTable(size);
+        for (int i = 0; i < size; i++) {
+            add(table, keys[i], i);
+        }
+        return table;
+    }
+
+    /**
+     * An empty table with room for size keys.
+     */
+    static int[] newTable(int size) {
+        return new int[tableLength(size)];
+    }
+
+    private static int tableLength(int size) {
+        return Integer.highestOneBit(Math.max(size, 1)) << 2;
+    }
+
+    /**
+     * Whether table is too full for size keys, or much larger than they need.
+     */
+    static boolean needsResize(int[] table, int size) {
+        return size * 2 > table.length || table.length > tableLength(size) * 2;
+    }
+
+    static void add(int[] table, String key, int index) {
+        int mask = table.length - 1;
+        int slot = spread(key.hashCode()) & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = index + 1;
+    }
+
+    private static int spread(int h) {
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,138 @@
+package net.hamnaberg.json;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class HashTrieMapTest {
+
+    @Test
+    public void behavesLikeLinkedHashMap() {
+        Random random = new Random(42);
+        LinkedHashMap<String, Json.JValue> expected = new LinkedHashMap<>();
+        HashTrieMap actual = HashTrieMap.EMPTY;
+
+        for (int i = 0; i < 20000; i++) {
+            String key = "k" + random.nextInt(3000);
+            if (random.nextInt(3) == 0) {
+                expected.remove(key);
+                actual = actual.without(key);
+            } else {
+                Json.JNumber value = Json.jNumber(i);
+                expected.put(key, value);
+                actual = actual.with(key, value);
+            }
+            if (i % 997 == 0) {
+                assertSameMap(expected, actual);
+            }
+        }
+        assertSameMap(expected, actual);
+    }
+
+    @Test
+    public void hashCollisions() {
+        // "Aa" and "BB" share String.hashCode
+        HashTrieMap map = HashTrieMap.EMPTY
+                .with("Aa", Json.jString("first"))
+                .with("BB", Json.jString("second"))
+                .with("AaAa", Json.jString("third"))
+                .with("BBBB", Json.jString("fourth"));
+
+        assertEquals(4, map.size());
+        assertEquals(Json.jString("first"), map.get("Aa"));
+        assertEquals(Json.jString("second"), map.get("BB"));
+        assertEquals(List.of("Aa", "BB", "AaAa", "BBBB"), new ArrayList<>(map.keySet()));
+
+        HashTrieMap removed = map.without("Aa").without("BBBB");
+        assertEquals(2, removed.size());
+        assertNull(removed.get("Aa"));
+        assertEquals(Json.jString("second"), removed.get("BB"));
+        assertEquals(Json.jString("third"), removed.get("AaAa"));
+        assertEquals(4, map.size());
+    }
+
+    @Test
+    public void keySharingTheSlotOfACollision() {
+        // "k309" is not equal in hash to "Aa" and "BB", but lands in their slot of the root
+        Json.JObject object = Json.jEmptyObject().put("Aa", 1).put("BB", 2).put("k309", 3);
+        assertEquals(3, object.size());
+        assertEquals(Optional.of(Json.jNumber(3)), object.get("k309"));
+        assertTrue(object.containsKey("k309"));
+
+        Json.JObject replaced = object.put("k309", 4);
+        assertEquals(3, replaced.size());
+        assertEquals("{\"Aa\":1,\"BB\":2,\"k309\":4}", replaced.nospaces());
+
+        Json.JObject removed = replaced.remove("k309");
+        assertEquals(2, removed.size());
+        assertFalse(removed.containsKey("k309"));
+        assertEquals(Optional.of(Json.jNumber(1)), removed.get("Aa"));
+        assertEquals("{\"Aa\":1,\"BB\":2,\"k309\":5}", removed.put("k309", 5).nospaces());
+        assertEquals("{\"BB\":2,\"k309\":4}", replaced.remove("Aa").nospaces());
+
+        // every key that shares a slot with the collision, at any depth
+        HashTrieMap map = HashTrieMap.EMPTY.with("Aa", Json.jNumber(1)).with("BB", Json.jNumber(2));
+        LinkedHashMap<String, Json.JValue> expected = new LinkedHashMap<>(map);
+        for (int i = 0; i < 5000; i++) {
+            map = map.with("k" + i, Json.jNumber(i));
+            expected.put("k" + i, Json.jNumber(i));
+        }
+        assertSameMap(expected, map);
+        for (int i = 0; i < 5000; i += 2) {
+            map = map.without("k" + i);
+            expected.remove("k" + i);
+        }
+        assertSameMap(expected, map.without("missing"));
+    }
+
+    @Test
+    public void persistent() {
+        HashTrieMap one = HashTrieMap.EMPTY.with("a", Json.jNumber(1));
+        HashTrieMap two = one.with("b", Json.jNumber(2));
+        HashTrieMap replaced = two.with("a", Json.jNumber(3));
+
+        assertEquals(Map.of("a", Json.jNumber(1)), one);
+        assertEquals(Map.of("a", Json.jNumber(1), "b", Json.jNumber(2)), two);
+        assertEquals(List.of("a", "b"), new ArrayList<>(replaced.keySet()));
+        assertEquals(Json.jNumber(3), replaced.get("a"));
+        assertSame(two, two.without("c"));
+    }
+
+    @Test
+    public void jObjectPutAndRemove() throws IOException, ClassNotFoundException {
+        Json.JObject object = Json.jEmptyObject();
+        for (int i = 0; i < 5000; i++) {
+            object = object.put("key" + i, i);
+        }
+        assertEquals(5000, object.size());
+        assertEquals(Optional.of(4999), object.getAsInteger("key4999"));
+        assertEquals("key0", object.keySet().iterator().next());
+
+        Json.JObject removed = object.remove("key0");
+        assertEquals(4999, removed.size());
+        assertEquals("key1", removed.keySet().iterator().next());
+        assertEquals(object, removed.put("key0", 0).concat(Json.jObject("key0", 0)));
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+            out.writeObject(removed);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            assertEquals(removed, in.readObject());
+        }
+    }
+
+    private static void assertSameMap(LinkedHashMap<String, Json.JValue> expected, HashTrieMap actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected, actual);
+        assertEquals(actual, expected);
+        assertEquals(expected.hashCode(), actual.hashCode());
+        assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(actual.entrySet()));
+        for (String key : expected.keySet()) {
+            assertTrue(actual.containsKey(key));
+        }
+    }
+}
@@ -20,6 +20,28 @@ public class JValueTest {
         assertEquals("20", expected.scalarToString());
     }
 
+    @Test
+    public void jNumberRepresentations() {
+        assertEquals(Json.jNumber(new BigDecimal("0.1")), Json.jNumber(0.1));
+        assertEquals(Json.jNumber(new BigDecimal("0.1")).hashCode(), Json.jNumber(0.1).hashCode());
+        assertEquals("0.1", Json.jNumber(0.1).nospaces());
+        assertEquals(new BigDecimal("0.1"), Json.jNumber(0.1).value());
+        assertEquals(Json.jNumber(42L), Json.jNumber(42.0));
+        assertEquals(Json.jNumber(42L).hashCode(), Json.jNumber(42.0).hashCode());
+        assertEquals(Json.jNumber(42L).hashCode(), Json.jNumber(new BigDecimal("42")).hashCode());
+        assertEquals(Json.jNumber(-0.0), Json.jNumber(0));
+        assertNotEquals(Json.jNumber(new BigDecimal("42.0")), Json.jNumber(42));
+        assertNotEquals(Json.jNumber(42.5), Json.jNumber(42));
+        assertEquals(Json.jNumber(1e20), Json.jNumber(new BigDecimal("100000000000000000000")));
+        assertEquals("100000000000000000000", Json.jNumber(1e20).nospaces());
+        assertEquals("9223372036854775807", Json.jNumber(Long.MAX_VALUE).nospaces());
+        assertEquals(Long.MAX_VALUE, Json.jNumber(Long.MAX_VALUE).asLong());
+        assertEquals(2.5, Json.jNumber(new BigDecimal("2.5")).asDouble(), 0.0);
+        assertEquals(2, Json.jNumber(2.5).asInt());
+        assertEquals(Json.jNumber(7), Json.jNumber((Number) Integer.valueOf(7)));
+        assertThrows(NumberFormatException.class, () -> Json.jNumber(Double.NaN));
+    }
+
     @Test
     public void JString() {
         Json.JString string = Json.jString("Hello");
@@ -63,6 +85,41 @@ public class JValueTest {
         assertNotEquals(array1.prepend(1), array1.append(1));
     }
 
+    @Test
+    public void packedArrays() {
+        Json.JArray longs = Json.JArray.builder().add(Json.jNumber(1)).add(2L).add(Json.jNumber(-3)).freeze();
+        assertTrue(longs.isPacked());
+        assertEquals(Json.jArray(List.of(Json.jNumber(1), Json.jNumber(2), Json.jNumber(-3))), longs);
+        assertEquals(Json.jArray(List.of(Json.jNumber(1), Json.jNumber(2), Json.jNumber(-3))).hashCode(), longs.hashCode());
+        assertEquals(Json.JArray.ofLongs(1, 2, -3), longs);
+        assertEquals("[1,2,-3]", longs.nospaces());
+        assertArrayEquals(new long[]{1, 2, -3}, longs.toLongArray());
+        assertArrayEquals(new double[]{1, 2, -3}, longs.toDoubleArray(), 0.0);
+
+        Json.JArray doubles = Json.JArray.builder().add(1).add(Json.jNumber(0.5)).add(Json.jNumber(new BigDecimal("0.25"))).freeze();
+        assertTrue(doubles.isPacked());
+        assertEquals(Json.jArray(List.of(Json.jNumber(1), Json.jNumber(0.5), Json.jNumber(new BigDecimal("0.25")))), doubles);
+        assertEquals(Json.jArray(List.of(Json.jNumber(1), Json.jNumber(0.5), Json.jNumber(new BigDecimal("0.25")))).hashCode(), doubles.hashCode());
+        assertEquals("[1,0.5,0.25]", doubles.nospaces());
+        assertArrayEquals(new double[]{1, 0.5, 0.25}, doubles.toDoubleArray(), 0.0);
+        assertThrows(ArithmeticException.class, doubles::toLongArray);
+        assertEquals(Json.JArray.ofDoubles(1, 0.5, 0.25), doubles);
+
+        // numbers a double can not stand for, and other values, are kept as they are
+        Json.JArray decimals = Json.JArray.builder().add(0.5).add(Json.jNumber(new BigDecimal("1.10"))).freeze();
+        assertFalse(decimals.isPacked());
+        assertEquals("[0.5,1.10]", decimals.nospaces());
+        Json.JArray large = Json.JArray.builder().add(Long.MAX_VALUE).add(0.5).freeze();
+        assertFalse(large.isPacked());
+        assertEquals("[9223372036854775807,0.5]", large.nospaces());
+        Json.JArray mixed = Json.JArray.builder().add(1).add(Json.jString("a")).freeze();
+        assertFalse(mixed.isPacked());
+        assertEquals(Json.jArray(Json.jNumber(1), Json.jString("a")), mixed);
+        assertThrows(IllegalStateException.class, mixed::toLongArray);
+        assertEquals(Json.jEmptyArray(), Json.JArray.ofLongs());
+        assertThrows(NumberFormatException.class, () -> Json.JArray.ofDoubles(Double.NaN));
+    }
+
     @Test
     public void JObject() {
         assertFooObject(Json.jObject("foo", "bar"));
@@ -88,4 +145,32 @@ public class JValueTest {
         assertSame(object, object.asJsonObjectOrEmpty());
         assertEquals(Json.jEmptyObject(), foo.asJsonObjectOrEmpty());
     }
+
+    @Test
+    public void primitiveAccessors() {
+        Json.JObject object = Json.jObject(
+                Json.tuple("long", Json.jNumber(Long.MAX_VALUE)),
+                Json.tuple("int", Json.jNumber(42)),
+                Json.tuple("double", Json.jNumber(2.5)),
+                Json.tuple("bool", Json.jBoolean(true)),
+                Json.tuple("string", Json.jString("s"))
+        );
+        assertEquals(Long.MAX_VALUE, object.getAsLongOr("long", -1));
+        assertEquals(42, object.getAsIntOr("int", -1));
+        assertEquals(2.5, object.getAsDoubleOr("double", -1), 0.0);
+        assertTrue(object.getAsBooleanOr("bool", false));
+        assertEquals("s", object.getAsStringOr("string", null));
+        assertEquals(-1, object.getAsLongOr("string", -1));
+        assertEquals(-1, object.getAsIntOr("missing", -1));
+        assertFalse(object.getAsBooleanOr("int", false));
+        assertNull(object.getAsStringOr("bool", null));
+
+        assertEquals(42, Json.jNumber(42).asIntExact());
+        assertEquals(3, Json.jNumber(3.0).asIntExact());
+        assertEquals(3, Json.jNumber(new BigDecimal("3.00")).asLongExact());
+        assertEquals(Long.MIN_VALUE, Json.jNumber(-0x1p63).asLongExact());
+        assertThrows(ArithmeticException.class, () -> Json.jNumber(2.5).asLongExact());
+        assertThrows(ArithmeticException.class, () -> Json.jNumber(Long.MAX_VALUE).asIntExact());
+        assertThrows(ArithmeticException.class, () -> Json.jNumber(new BigDecimal("1e20")).asLongExact());
+    }
 }
@@ -0,0 +1,83 @@
+package net.hamnaberg.json;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static net.hamnaberg.json.Json.*;
+import static org.junit.Assert.*;
+
+public class JsonFootprintTest {
+
+    @Test
+    public void countsNodesByType() {
+        JValue value = jObject(List.of(
+                tuple("name", jString("abc")),
+                tuple("values", JArray.ofLongs(1, 2, 3)),
+                tuple("mixed", jArray(jNumber(new BigDecimal("1.10")), jBoolean(true), jNull(), jEmptyObject())),
+                tuple("nested", jObject("a", jString("€")))
+        ));
+        JsonFootprint footprint = JsonFootprint.of(value);
+        assertEquals(3, footprint.objects());
+        assertEquals(2, footprint.arrays());
+        assertEquals(2, footprint.strings());
+        assertEquals(4, footprint.numbers());
+        assertEquals(1, footprint.booleans());
+        assertEquals(1, footprint.nulls());
+        assertTrue(footprint.stringBytes() > 0);
+        assertTrue(footprint.numberBytes() > 0);
+        assertTrue(footprint.retainedBytes() > footprint.stringBytes() + footprint.numberBytes());
+        assertEquals(footprint, JsonFootprint.of(value));
+    }
+
+    @Test
+    public void sizesFollowRepresentation() {
+        List<JValue> boxed = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            boxed.add(jNumber(i));
+        }
+        JsonFootprint unpacked = JsonFootprint.of(new JArray(boxed));
+        JsonFootprint packed = JsonFootprint.of(JArray.builder().addAll(boxed).freeze());
+        assertEquals(1000, unpacked.numbers());
+        assertEquals(1000, packed.numbers());
+        assertTrue(packed.retainedBytes() * 4 < unpacked.retainedBytes());
+
+        assertTrue(JsonFootprint.of(jString("€".repeat(100))).stringBytes() > JsonFootprint.of(jString("e".repeat(100))).stringBytes());
+        assertTrue(JsonFootprint.of(jNumber(new BigDecimal("1e-40").add(BigDecimal.ONE))).numberBytes() > JsonFootprint.of(jNumber(1)).numberBytes());
+
+        JObject object = jObject(List.of(tuple("a", jNumber(1)), tuple("b", jNumber(2))));
+        assertTrue(JsonFootprint.of(object, false).retainedBytes() > JsonFootprint.of(object, true).retainedBytes());
+    }
+
+    @Test
+    public void everyObjectRepresentation() {
+        JObject.Builder builder = JObject.builder();
+        LinkedHashMap<String, JValue> map = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            builder.put("k" + i, jNumber(i));
+            map.put("k" + i, jNumber(i));
+        }
+        JObject wide = builder.freeze();
+        for (JObject object : List.of(wide, new JObject(map), wide.put("extra", jNull()), jObject("a", jNumber(1)))) {
+            JsonFootprint footprint = JsonFootprint.of(object);
+            assertEquals(object.size(), footprint.numbers() + footprint.nulls());
+            assertTrue(footprint.retainedBytes() > footprint.numberBytes());
+        }
+        assertTrue(JsonFootprint.of(wide).stringBytes() > 0);
+    }
+
+    @Test
+    public void deeplyNested() {
+        JValue value = jNumber(1);
+        for (int i = 0; i < 50000; i++) {
+            value = i % 2 == 0 ? jArray(List.of(value)) : jObject("a", value);
+        }
+        JsonFootprint footprint = JsonFootprint.of(value);
+        assertEquals(25000, footprint.objects());
+        assertEquals(25000, footprint.arrays());
+        assertEquals(1, footprint.numbers());
+    }
+}
@@ -0,0 +1,124 @@
+package net.hamnaberg.json;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static net.hamnaberg.json.Json.*;
+import static org.junit.Assert.*;
+
+public class JsonForkJoinTest {
+    private final JsonForkJoin forkJoin = new JsonForkJoin(ForkJoinPool.commonPool(), 16);
+
+    private static JArray numbers(int size) {
+        JArray.Builder builder = JArray.builder(size);
+        for (int i = 0; i < size; i++) {
+            builder.add(jObject("n", jNumber(i)));
+        }
+        return builder.freeze();
+    }
+
+    @Test
+    public void mapKeepsOrder() {
+        JArray array = numbers(10000);
+        JArray mapped = forkJoin.map(array, v -> v.asJsonObjectOrEmpty().put("redacted", true));
+        assertEquals(array.map(v -> v.asJsonObjectOrEmpty().put("redacted", true)), mapped);
+        assertEquals(array.mapToList(JValue::nospaces), forkJoin.mapToList(array, JValue::nospaces));
+        assertEquals(jEmptyArray(), forkJoin.map(jEmptyArray(), v -> v));
+        assertThrows(NullPointerException.class, () -> forkJoin.map(array, v -> null));
+    }
+
+    @Test
+    public void mapWideObjectKeepsKeyOrder() {
+        JObject.Builder builder = JObject.builder();
+        for (int i = 0; i < 5000; i++) {
+            builder.put("k" + (i * 7919 % 5000), jNumber(i));
+        }
+        JObject object = builder.freeze();
+        JObject mapped = forkJoin.map(object, (k, v) -> jString(k + "=" + v.asJsonNumber().orElseThrow().asLong()));
+        assertEquals(new ArrayList<>(object.keySet()), new ArrayList<>(mapped.keySet()));
+        for (Map.Entry<String, JValue> entry : object) {
+            assertEquals(jString(entry.getKey() + "=" + entry.getValue().asJsonNumber().orElseThrow().asLong()), mapped.getValue().get(entry.getKey()));
+        }
+    }
+
+    @Test
+    public void foldCombinesInOrder() {
+        JArray array = numbers(10000);
+        Folder<String> folder = Folder.from(s -> "", b -> "", n -> "", o -> o.getAsLongOr("n", -1) + ",", a -> "", () -> "");
+        String expected = array.stream().map(v -> v.fold(folder)).collect(Collectors.joining());
+        assertEquals(expected, forkJoin.fold(array, folder, "", String::concat));
+
+        JObject object = jObject(array.mapToList(v -> tuple("k" + v.asJsonObjectOrEmpty().getAsLongOr("n", -1), v)));
+        assertEquals(expected.replace(",", ""), forkJoin.fold(object, (k, v) -> k.substring(1), "", String::concat));
+    }
+
+    @Test
+    public void forEachVisitsEveryElement() {
+        AtomicLong sum = new AtomicLong();
+        forkJoin.forEach(numbers(10000), new VoidFolder() {
+            @Override
+            public void onObject(JObject o) {
+                sum.addAndGet(o.getAsLongOr("n", 0));
+            }
+        });
+        assertEquals(9999L * 10000 / 2, sum.get());
+    }
+
+    @Test
+    public void spliteratorsSplitEvenly() {
+        JArray array = numbers(10000);
+        Spliterator<JValue> elements = array.spliterator();
+        assertTrue(elements.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        assertEquals(5000, elements.trySplit().estimateSize());
+        assertEquals(array.value(), array.parallelStream().toList());
+
+        JObject object = jObject(array.mapToList(v -> tuple("k" + v.asJsonObjectOrEmpty().getAsLongOr("n", -1), v)));
+        Spliterator<Map.Entry<String, JValue>> entries = object.spliterator();
+        assertTrue(entries.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        assertEquals(5000, entries.trySplit().estimateSize());
+        assertEquals(new ArrayList<>(object.keySet()), object.parallelStream().map(Map.Entry::getKey).toList());
+        assertEquals(new BigDecimal(9999L * 10000 / 2), array.parallelStream().map(v -> v.asJsonObjectOrEmpty().getAsBigDecimal("n").orElse(BigDecimal.ZERO)).reduce(BigDecimal.ZERO, BigDecimal::add));
+    }
+
+    @Test
+    public void writeToPrintsLikeThePrinter() {
+        JObject.Builder wideBuilder = JObject.builder();
+        for (int i = 0; i < 500; i++) {
+            // the first chunks only have nulls, which are dropped with dropNullKeys
+            wideBuilder.put("k" + i, i < 40 || i % 3 == 0 ? jNull() : jString("v" + i));
+        }
+        JObject wide = wideBuilder.freeze();
+        JObject.Builder nullsBuilder = JObject.builder();
+        for (int i = 0; i < 100; i++) {
+            nullsBuilder.put("k" + i, jNull());
+        }
+        JObject nulls = nullsBuilder.freeze();
+        JValue document = jArray(
+                numbers(1000),
+                jObject(List.of(tuple("wide", wide), tuple("nulls", nulls), tuple("empty", jEmptyArray()))),
+                jArray(numbers(17), jArray(numbers(16)), jNumber(1.5))
+        );
+        for (PrettyPrinter printer : List.of(PrettyPrinter.nospaces(), PrettyPrinter.spaces2(), PrettyPrinter.spaces4().dropNullKeys(true), PrettyPrinter.nospaces().dropNullKeys(true))) {
+            for (JValue value : List.of(document, numbers(1000), wide, nulls, jString("x"))) {
+                ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+                forkJoin.writeTo(value, printer, parallel);
+                assertArrayEquals(printer.writeBytes(value), parallel.toByteArray());
+            }
+        }
+    }
+
+    @Test
+    public void writeToHandsOnLargeChunksWhole() {
+        JArray array = numbers(100000);
+        ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+        JsonForkJoin.common().writeTo(array, PrettyPrinter.spaces2(), Channels.newChannel(parallel));
+        assertArrayEquals(PrettyPrinter.spaces2().writeBytes(array), parallel.toByteArray());
+    }
+}
@@ -0,0 +1,109 @@
+package net.hamnaberg.json;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static net.hamnaberg.json.Json.*;
+import static org.junit.Assert.*;
+
+public class JsonPoolTest {
+
+    private static JObject response(int id) {
+        return jObject(List.of(
+                tuple("id", jNumber(id)),
+                tuple("price", jObject(List.of(tuple("amount", jNumber(10)), tuple("currency", jObject(List.of(tuple("code", jString("NOK")), tuple("symbol", jString("kr")))))))),
+                tuple("tags", jArray(jString("a"), jString("b"))),
+                tuple("active", jBoolean(true))
+        ));
+    }
+
+    @Test
+    public void internSharesEqualSubtrees() {
+        JsonPool pool = new JsonPool();
+        JObject first = pool.intern(response(1)).asJsonObjectOrEmpty();
+        JObject second = pool.intern(response(2)).asJsonObjectOrEmpty();
+
+        assertEquals(response(2), second);
+        assertSame(first.getValue().get("price"), second.getValue().get("price"));
+        assertSame(first.getValue().get("tags"), second.getValue().get("tags"));
+        assertSame(first.getValue().get("active"), second.getValue().get("active"));
+        assertNotSame(first, second);
+        assertSame(first, pool.intern(first));
+        assertSame(first, pool.intern(response(1)));
+
+        JsonPool.Stats stats = pool.stats();
+        assertTrue(stats.hits() > 0);
+        assertTrue(stats.bytesSaved() > 0);
+        assertTrue(stats.lookups() >= stats.hits());
+        assertTrue(stats.size() > 0);
+    }
+
+    @Test
+    public void largeContainersAreNotPooledButTheirMembersAre() {
+        JsonPool pool = new JsonPool(2, 1);
+        JArray first = pool.intern(jArray(jString("x"), jString("y"), jString("z"))).asJsonArrayOrEmpty();
+        JArray second = pool.intern(jArray(jString("x"), jString("y"), jString("z"))).asJsonArrayOrEmpty();
+        assertNotSame(first, second);
+        assertSame(first.getValue().get(0), second.getValue().get(0));
+    }
+
+    @Test
+    public void numbersKeepTheirRepresentation() {
+        JsonPool pool = new JsonPool();
+        JValue one = pool.intern(jNumber(1));
+        assertEquals("1", pool.intern(jNumber(1.0)).nospaces());
+        assertSame(one, pool.intern(jNumber(1.0)));
+        assertEquals("1.0", pool.intern(jNumber(new java.math.BigDecimal("1.0"))).nospaces());
+    }
+
+    @Test
+    public void keyOrderIsKept() {
+        JsonPool pool = new JsonPool();
+        JObject ab = pool.intern(jObject(List.of(tuple("a", jNumber(1)), tuple("b", jNumber(2))))).asJsonObjectOrEmpty();
+        JObject ba = pool.intern(jObject(List.of(tuple("b", jNumber(2)), tuple("a", jNumber(1))))).asJsonObjectOrEmpty();
+        assertEquals("{\"a\":1,\"b\":2}", ab.nospaces());
+        assertEquals("{\"b\":2,\"a\":1}", ba.nospaces());
+        assertSame(ba, pool.intern(jObject(List.of(tuple("b", jNumber(2)), tuple("a", jNumber(1))))));
+        assertSame(ab, pool.intern(jObject(List.of(tuple("a", jNumber(1)), tuple("b", jNumber(2))))));
+
+        JValue nested = pool.intern(jArray(jObject(List.of(tuple("b", jNumber(2)), tuple("a", jNumber(1))))));
+        assertEquals("[{\"b\":2,\"a\":1}]", nested.nospaces());
+        // 1, 2, both orders and the array
+        assertEquals(5, pool.stats().size());
+    }
+
+    @Test
+    public void treeBuilderInterns() {
+        JsonPool pool = new JsonPool();
+        JValue first = pool.intern(response(1));
+        JsonTreeBuilder builder = new JsonTreeBuilder(pool);
+        response(3).walk(builder);
+        JObject built = builder.result().asJsonObjectOrEmpty();
+        assertEquals(response(3), built);
+        assertSame(first.asJsonObjectOrEmpty().getValue().get("price"), built.getValue().get("price"));
+    }
+
+    @Test
+    public void concurrentInterningAgreesOnOneInstance() throws Exception {
+        JsonPool pool = new JsonPool();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<JValue>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                int id = i;
+                futures.add(executor.submit(() -> pool.intern(response(id))));
+            }
+            JValue price = futures.get(0).get().asJsonObjectOrEmpty().getValue().get("price");
+            for (Future<JValue> future : futures) {
+                assertSame(price, future.get().asJsonObjectOrEmpty().getValue().get("price"));
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
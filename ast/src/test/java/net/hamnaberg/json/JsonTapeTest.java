@@ -0,0 +1,110 @@
+package net.hamnaberg.json;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class JsonTapeTest {
+
+    @Test
+    public void roundTrip() {
+        Json.JValue value = Json.jObject(
+                Json.tuple("id", Json.jNumber(Long.MIN_VALUE)),
+                Json.tuple("ratio", Json.jNumber(0.25)),
+                Json.tuple("big", Json.jNumber(new BigDecimal("123456789012345678901234567890.5"))),
+                Json.tuple("name", Json.jString("\u00e6\u00f8\u00e5 \ud83d\ude00" + "x".repeat(300))),
+                Json.tuple("flags", Json.jArray(Json.jBoolean(true), Json.jBoolean(false), Json.jNull())),
+                Json.tuple("nested", Json.jObject("empty", Json.jEmptyObject()).put("list", Json.jEmptyArray()))
+        );
+        JsonTape tape = JsonTape.of(value);
+        assertEquals(value, tape.toJValue());
+        assertEquals(value.nospaces(), tape.toJValue().nospaces());
+        for (Json.JValue scalar : List.of(Json.jNull(), Json.jString(""), Json.jNumber(1), Json.jBoolean(true))) {
+            assertEquals(scalar, JsonTape.of(scalar).toJValue());
+        }
+    }
+
+    @Test
+    public void navigation() {
+        JsonTape tape = JsonTape.of(Json.jObject(
+                Json.tuple("a", Json.jArray(Json.jNumber(1), Json.jObject("b", "c"), Json.jNumber(2.5))),
+                Json.tuple("d", Json.jString("e"))
+        ));
+        assertTrue(tape.isObject(0));
+        assertEquals(2, tape.size(0));
+        int a = tape.field(0, "a");
+        assertTrue(tape.isArray(a));
+        assertEquals(3, tape.size(a));
+        assertEquals(Json.jNumber(1), tape.get(tape.element(a, 0)));
+        assertEquals(Json.jObject("b", "c"), tape.get(tape.element(a, 1)));
+        assertEquals(Json.jNumber(2.5), tape.get(tape.element(a, 2)));
+        assertEquals(-1, tape.element(a, 3));
+        assertEquals(Json.jString("e"), tape.get(tape.field(0, "d")));
+        assertEquals(-1, tape.field(0, "missing"));
+        assertEquals(-1, tape.field(a, "a"));
+        assertEquals(tape.length(), tape.skip(0));
+    }
+
+    @Test
+    public void fieldNamesAreComparedAsUtf8() {
+        List<String> names = List.of("ø", "øx", "€", "x€", "\uD83D\uDE00", "\uD83D", "");
+        Json.JObject.Builder object = Json.JObject.builder();
+        for (int i = 0; i < names.size(); i++) {
+            object.put(names.get(i), i);
+        }
+        JsonTape tape = JsonTape.of(object.freeze());
+        for (int i = 0; i < names.size(); i++) {
+            assertEquals(Json.jNumber(i), tape.get(tape.field(0, names.get(i))));
+        }
+        // a lone surrogate is stored as '?'
+        assertEquals(Json.jNumber(5), tape.get(tape.field(0, "?")));
+        for (String missing : List.of("o", "ø€", "€x", "x", "\uD83D\uDE01")) {
+            assertEquals(missing, -1, tape.field(0, missing));
+        }
+    }
+
+    @Test
+    public void builderDuplicatesAndDepth() {
+        JsonTape tape = JsonTape.builder()
+                .startObject()
+                .name("a").number(1)
+                .name("b").string("x")
+                .name("a").number(2)
+                .end()
+                .build();
+        assertEquals(Json.jObject(Json.tuple("a", Json.jNumber(2)), Json.tuple("b", Json.jString("x"))), tape.toJValue());
+        assertEquals(Json.jNumber(2), tape.get(tape.field(0, "a")));
+
+        JsonTape.Builder deep = JsonTape.builder();
+        int depth = 100000;
+        for (int i = 0; i < depth; i++) {
+            deep.startArray();
+        }
+        for (int i = 0; i < depth; i++) {
+            deep.end();
+        }
+        JsonTape deepTape = deep.build();
+        assertEquals(2 * depth, deepTape.length());
+        Json.JValue deepValue = deepTape.toJValue();
+        assertEquals(1, deepValue.asJsonArrayOrEmpty().size());
+
+        assertThrows(IllegalStateException.class, () -> JsonTape.builder().startArray().build());
+        assertThrows(IllegalStateException.class, () -> JsonTape.builder().nullValue().nullValue());
+        assertThrows(IllegalStateException.class, () -> JsonTape.builder().end());
+    }
+
+    @Test
+    public void compactComparedToValues() {
+        Json.JArray.Builder builder = Json.JArray.builder();
+        for (int i = 0; i < 10000; i++) {
+            builder.add(Json.jObject(Json.tuple("id", Json.jNumber(i)), Json.tuple("name", Json.jString("n" + i))));
+        }
+        JsonTape tape = JsonTape.of(builder.freeze());
+        // {, "id", l, raw, "name", ", } per element
+        assertEquals(2 + 10000 * 7, tape.length());
+        assertEquals(10000, tape.size(0));
+    }
+}
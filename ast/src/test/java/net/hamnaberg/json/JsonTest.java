@@ -316,4 +316,59 @@ public class JsonTest {
 
         assertEquals(input, read);
     }
+
+    @Test
+    public void objectBuilder() {
+        Json.JObject.Builder builder = Json.JObject.builder(3)
+                .put("a", 1L)
+                .put("b", "two")
+                .put("a", Json.jNumber(3));
+        assertEquals(2, builder.size());
+        Json.JObject object = builder.freeze();
+        assertEquals(Json.jObject(Json.tuple("a", Json.jNumber(3)), Json.tuple("b", Json.jString("two"))), object);
+        assertEquals(List.of("a", "b"), new ArrayList<>(object.keySet()));
+        assertThrows(UnsupportedOperationException.class, () -> object.getValue().put("c", Json.jNull()));
+        assertThrows(IllegalStateException.class, () -> builder.put("c", Json.jNull()));
+        assertThrows(IllegalStateException.class, builder::freeze);
+        assertThrows(NullPointerException.class, () -> Json.JObject.builder().put("c", (Json.JValue) null));
+        assertSame(Json.jEmptyObject(), Json.JObject.builder().freeze());
+    }
+
+    @Test
+    public void arrayBuilder() {
+        Json.JArray.Builder builder = Json.JArray.builder(2)
+                .add(Json.jNumber(1))
+                .addAll(List.of(Json.jString("two"), Json.jNull()));
+        assertEquals(3, builder.size());
+        Json.JArray array = builder.freeze();
+        assertEquals(Json.jArray(Json.jNumber(1), Json.jString("two"), Json.jNull()), array);
+        assertThrows(UnsupportedOperationException.class, () -> array.getValue().add(Json.jNull()));
+        assertThrows(IllegalStateException.class, () -> builder.add(Json.jNull()));
+        assertSame(Json.jEmptyArray(), Json.JArray.builder().freeze());
+    }
+
+    @Test
+    public void structuralHashAndEquality() throws IOException, ClassNotFoundException {
+        Json.JObject nested = Json.jObject("list", Json.jArray(Json.jNumber(1), Json.jString("two")));
+        Json.JObject object = Json.jObject("a", nested).put("b", Json.jNull());
+        Json.JObject same = Json.JObject.builder().put("a", Json.jObject("list", Json.jArray(Json.jNumber(1), Json.jString("two")))).put("b", Json.jNull()).freeze();
+        Json.JObject different = same.put("b", Json.jBoolean(false));
+
+        assertEquals(object.hashCode(), same.hashCode());
+        assertEquals(object.hashCode(), object.hashCode());
+        assertEquals(object, same);
+        assertNotEquals(object, different);
+        assertNotEquals(Json.jArray(Json.jNumber(1)), Json.jArray(Json.jNumber(1), Json.jNumber(2)));
+        assertEquals(Json.jEmptyArray().hashCode(), Json.jArray(List.of()).hashCode());
+
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+            out.writeObject(object);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            Object read = in.readObject();
+            assertEquals(object, read);
+            assertEquals(object.hashCode(), read.hashCode());
+        }
+    }
 }
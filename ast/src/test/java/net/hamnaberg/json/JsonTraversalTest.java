@@ -0,0 +1,274 @@
+package net.hamnaberg.json;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static net.hamnaberg.json.Json.*;
+import static org.junit.Assert.*;
+
+public class JsonTraversalTest {
+
+    @Test
+    public void walkReportsEventsInDocumentOrder() {
+        JValue value = jObject(List.of(
+                tuple("a", jArray(jNumber(1), jEmptyArray(), jObject("b", jNull()))),
+                tuple("c", jString("d"))
+        ));
+        List<String> events = new ArrayList<>();
+        value.walk(new JsonVisitor() {
+            @Override
+            public void startObject() {
+                events.add("{");
+            }
+
+            @Override
+            public void endObject() {
+                events.add("}");
+            }
+
+            @Override
+            public void startArray() {
+                events.add("[");
+            }
+
+            @Override
+            public void endArray() {
+                events.add("]");
+            }
+
+            @Override
+            public void name(String name) {
+                events.add(name + ":");
+            }
+
+            @Override
+            public void value(JValue value) {
+                events.add(value.toString());
+            }
+        });
+        assertEquals(List.of("{", "a:", "[", jNumber(1).toString(), "[", "]", "{", "b:", jNull().toString(), "}", "]", "c:", jString("d").toString(), "}"), events);
+    }
+
+    @Test
+    public void treeBuilderCopiesWalkedValue() {
+        JValue value = jObject(List.of(
+                tuple("a", jArray(jNumber(1), jEmptyArray(), jObject("b", jNull()))),
+                tuple("c", jString("d"))
+        ));
+        JsonTreeBuilder builder = new JsonTreeBuilder();
+        value.walk(builder);
+        assertTrue(builder.isComplete());
+        assertEquals(value, builder.result());
+
+        JsonTreeBuilder scalar = new JsonTreeBuilder();
+        jBoolean(true).walk(scalar);
+        assertEquals(jBoolean(true), scalar.result());
+    }
+
+    @Test
+    public void treeBuilderRejectsMalformedEvents() {
+        JsonTreeBuilder builder = new JsonTreeBuilder();
+        assertThrows(IllegalStateException.class, builder::result);
+        assertThrows(IllegalStateException.class, builder::endObject);
+        assertThrows(IllegalStateException.class, () -> builder.name("a"));
+        builder.startObject();
+        assertThrows(IllegalStateException.class, () -> builder.value(jNull()));
+        assertThrows(IllegalStateException.class, builder::endArray);
+        builder.name("a");
+        assertThrows(IllegalStateException.class, () -> builder.name("b"));
+        assertThrows(IllegalStateException.class, builder::endObject);
+        builder.value(jNull());
+        builder.endObject();
+        assertEquals(jObject("a", jNull()), builder.result());
+        assertThrows(IllegalStateException.class, builder::startArray);
+        assertThrows(IllegalStateException.class, () -> builder.value(jNull()));
+    }
+
+    @Test
+    public void deeplyNestedValues() {
+        int depth = 50000;
+        JValue value = jNumber(1);
+        JValue other = jNumber(2);
+        for (int i = 0; i < depth; i++) {
+            value = i % 2 == 0 ? jArray(List.of(value)) : jObject("a", value);
+            other = jObject("a", other);
+        }
+        JsonTreeBuilder builder = new JsonTreeBuilder();
+        value.walk(builder);
+        JValue copy = builder.result();
+        assertEquals(value.nospaces(), copy.nospaces());
+        assertEquals(value.nospaces(), JsonTape.of(value).toJValue().nospaces());
+        assertEquals(value.hashCode(), copy.hashCode());
+        assertTrue(value.equals(copy));
+        assertFalse(value.equals(other));
+        assertFalse(other.equals(jObject("a", other.asJsonObjectOrEmpty().getValue().get("a").asJsonObjectOrEmpty().put("b", 1))));
+        assertTrue(value.toString().startsWith("JObject{value={a=JArray{value=[JObject{value={a="));
+        assertEquals(value.toString(), copy.toString());
+
+        JValue base = jNumber(1);
+        for (int i = 0; i < depth; i++) {
+            base = jObject(i == 0 ? "b" : "a", base);
+        }
+        JValue merged = base.deepmerge(other);
+        String expected = "{\"a\":".repeat(depth - 1) + "{\"b\":1,\"a\":2}" + "}".repeat(depth - 1);
+        assertEquals(expected, merged.nospaces());
+    }
+
+    @Test
+    public void hashEqualsAndToString() {
+        JObject object = jObject(List.of(tuple("a", jArray(jNumber(1), jString("x"), jEmptyObject())), tuple("b", jNull())));
+        JObject copy = jObject(List.of(tuple("b", jNull()), tuple("a", jArray(jNumber(1), jString("x"), jEmptyObject()))));
+        assertEquals("JObject{value={a=JArray{value=[JNumber{value=1}, JString{value=\"x\"}, JObject{value={}}]}, b=JNull}}", object.toString());
+        assertEquals(31 + object.getValue().hashCode(), object.hashCode());
+        assertEquals(object.getValue().get("a").asJsonArrayOrEmpty().getValue().hashCode(), object.getValue().get("a").hashCode());
+        assertEquals(object, copy);
+        assertEquals(object.hashCode(), copy.hashCode());
+        assertNotEquals(object, copy.put("b", 1));
+        assertNotEquals(object, copy.put("a", jArray(jNumber(1), jString("x"), jEmptyArray())));
+        assertEquals(JArray.ofLongs(1, 2), jArray(jNumber(1), jNumber(2)));
+        assertEquals(jArray(jNumber(1), jNumber(2)), JArray.ofLongs(1, 2));
+        assertEquals(JArray.ofLongs(1, 2).hashCode(), jArray(jNumber(1), jNumber(2)).hashCode());
+    }
+
+    @Test
+    public void deepmerge() {
+        JObject first = jObject(List.of(
+                tuple("a", jObject(List.of(tuple("x", jNumber(1)), tuple("y", jNumber(2))))),
+                tuple("b", jString("keep")),
+                tuple("c", jObject("z", jNumber(3)))
+        ));
+        JObject second = jObject(List.of(
+                tuple("a", jObject(List.of(tuple("y", jNumber(20)), tuple("w", jNumber(4))))),
+                tuple("c", jArray(jNumber(5))),
+                tuple("d", jNull())
+        ));
+        JObject expected = jObject(List.of(
+                tuple("a", jObject(List.of(tuple("x", jNumber(1)), tuple("y", jNumber(20)), tuple("w", jNumber(4))))),
+                tuple("b", jString("keep")),
+                tuple("c", jArray(jNumber(5))),
+                tuple("d", jNull())
+        ));
+        assertEquals(expected, first.deepmerge(second));
+        assertEquals(jNumber(1), first.deepmerge(jNumber(1)));
+        assertEquals(second, jNumber(1).deepmerge(second));
+    }
+
+    @Test
+    public void transformSharesUnchangedParts() {
+        JObject untouched = jObject("x", jArray(jNumber(1), jNumber(2)));
+        JValue value = jObject(List.of(
+                tuple("a", untouched),
+                tuple("b", jArray(jString("secret"), jNumber(3))),
+                tuple("c", jEmptyArray())
+        ));
+        JValue redacted = value.transform(v -> v.equals(jString("secret")) ? jString("***") : v);
+
+        assertEquals(jObject(List.of(
+                tuple("a", untouched),
+                tuple("b", jArray(jString("***"), jNumber(3))),
+                tuple("c", jEmptyArray())
+        )), redacted);
+        assertSame(untouched, redacted.asJsonObjectOrEmpty().getValue().get("a"));
+        assertSame(value, value.transform(v -> v));
+    }
+
+    @Test
+    public void transformIsBottomUp() {
+        JValue value = jArray(jNumber(1), jArray(jNumber(2), jNumber(3)));
+        List<String> order = new ArrayList<>();
+        JValue summed = value.transform(v -> {
+            order.add(v.nospaces());
+            if (v instanceof JArray array) {
+                return jNumber(array.stream().mapToLong(n -> n.asJsonNumber().orElseThrow().asLong()).sum());
+            }
+            return v;
+        });
+        assertEquals(jNumber(6), summed);
+        assertEquals(List.of("1", "2", "3", "[2,3]", "[1,5]"), order);
+        assertThrows(NullPointerException.class, () -> value.transform(v -> null));
+    }
+
+    @Test
+    public void transformDeeplyNested() {
+        int depth = 50000;
+        JValue value = jNumber(1);
+        for (int i = 0; i < depth; i++) {
+            value = i % 2 == 0 ? jArray(List.of(value)) : jObject("a", value);
+        }
+        JValue incremented = value.transform(v -> v instanceof JNumber n ? jNumber(n.asLong() + 1) : v);
+        assertEquals(value.nospaces().replace("1", "2"), incremented.nospaces());
+        assertSame(value, value.transform(v -> v));
+    }
+
+    @Test
+    public void deepmergeManyIsLeftFold() {
+        Random random = new Random(13);
+        for (int i = 0; i < 500; i++) {
+            List<JValue> layers = new ArrayList<>();
+            for (int j = random.nextInt(5) + 1; j > 0; j--) {
+                layers.add(random.nextInt(8) == 0 ? jNumber(j) : randomObject(random, 0));
+            }
+            JValue expected = layers.get(0);
+            for (JValue layer : layers.subList(1, layers.size())) {
+                expected = referenceMerge(expected, layer);
+            }
+            JValue merged = Json.deepmerge(layers.toArray(new JValue[0]));
+            assertEquals(expected, merged);
+            assertEquals(expected.nospaces(), merged.nospaces());
+            if (layers.size() == 2) {
+                assertEquals(expected.nospaces(), layers.get(0).deepmerge(layers.get(1)).nospaces());
+            }
+        }
+        assertThrows(IllegalArgumentException.class, Json::deepmerge);
+    }
+
+    @Test
+    public void deepmergeSharesContributionsOfOneDocument() {
+        JObject base = jObject("x", jObject("y", jNumber(1)));
+        JObject defaults = jObject(List.of(tuple("a", base), tuple("b", jObject("c", jNumber(2)))));
+        JObject site = jObject("b", jObject("d", jNumber(3)));
+        JObject user = jObject("e", jArray(jNumber(4)));
+        JObject merged = Json.deepmerge(defaults, site, user).asJsonObjectOrEmpty();
+
+        assertEquals(List.of("a", "b", "e"), new ArrayList<>(merged.keySet()));
+        assertSame(base, merged.getValue().get("a"));
+        assertSame(user.getValue().get("e"), merged.getValue().get("e"));
+        assertEquals(jObject(List.of(tuple("c", jNumber(2)), tuple("d", jNumber(3)))), merged.getValue().get("b"));
+        assertSame(user, Json.deepmerge(jNumber(1), user));
+    }
+
+    @Test
+    public void deepmergeWideObjects() {
+        JObject.Builder first = JObject.builder();
+        JObject.Builder second = JObject.builder();
+        for (int i = 0; i < 20000; i++) {
+            first.put("k" + i, jObject("a", jNumber(i)));
+            second.put("k" + (i + 10000), jObject("b", jNumber(i)));
+        }
+        JObject merged = first.freeze().deepmerge(second.freeze()).asJsonObjectOrEmpty();
+        assertEquals(30000, merged.size());
+        assertEquals(jObject(List.of(tuple("a", jNumber(15000)), tuple("b", jNumber(5000)))), merged.getValue().get("k15000"));
+        assertEquals("k29999", new ArrayList<>(merged.keySet()).get(29999));
+    }
+
+    private static JValue referenceMerge(JValue first, JValue second) {
+        if (first instanceof JObject a && second instanceof JObject b) {
+            JObject result = a;
+            for (Map.Entry<String, JValue> field : b) {
+                JValue existing = result.getValue().get(field.getKey());
+                result = result.put(field.getKey(), existing == null ? field.getValue() : referenceMerge(existing, field.getValue()));
+            }
+            return result;
+        }
+        return second;
+    }
+
+    private static JObject randomObject(Random random, int depth) {
+        JObject.Builder builder = JObject.builder();
+        for (int i = random.nextInt(6); i > 0; i--) {
+            builder.put("k" + random.nextInt(8), depth < 3 && random.nextBoolean() ? randomObject(random, depth + 1) : jNumber(random.nextInt(3)));
+        }
+        return builder.freeze();
+    }
+}
@@ -0,0 +1,75 @@
+package net.hamnaberg.json;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class NumberWriterTest {
+
+    @Test
+    public void longs() {
+        for (long value : new long[]{0, 1, -1, 9, 10, 99, 100, -100, 123456789, 1_000_000_000_000L, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            byte[] buffer = new byte[NumberWriter.MAX_LENGTH + 1];
+            int end = NumberWriter.write(value, buffer, 1);
+            assertEquals(Long.toString(value), new String(buffer, 1, end - 1, StandardCharsets.US_ASCII));
+        }
+    }
+
+    @Test
+    public void doubles() {
+        assertEquals("0", NumberWriter.toString(0.0));
+        assertEquals("-3", NumberWriter.toString(-3.0));
+        assertEquals("0.1", NumberWriter.toString(0.1));
+        assertEquals("-1.25", NumberWriter.toString(-1.25));
+        assertEquals("0.002", NumberWriter.toString(2e-3));
+        assertEquals("0.0001", NumberWriter.toString(1e-4));
+        assertEquals("0.000001", NumberWriter.toString(1e-6));
+        assertEquals("1E-7", NumberWriter.toString(1e-7));
+        assertEquals("1.5E-7", NumberWriter.toString(1.5e-7));
+        assertEquals("123456789.5", NumberWriter.toString(123456789.5));
+        assertEquals("18446744073709551616", NumberWriter.toString(0x1p64));
+        assertEquals("100000000000000000000", NumberWriter.toString(1e20));
+        assertEquals("1E+21", NumberWriter.toString(1e21));
+        assertEquals("-1.5E+300", NumberWriter.toString(-1.5e300));
+        assertEquals("1.7976931348623157E+308", NumberWriter.toString(Double.MAX_VALUE));
+        assertEquals("4.9E-324", NumberWriter.toString(Double.MIN_VALUE));
+        assertEquals("2.2250738585072014E-308", NumberWriter.toString(Double.MIN_NORMAL));
+    }
+
+    @Test
+    public void shortestRoundTrip() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < 200_000; i++) {
+            double value = i % 2 == 0 ? Double.longBitsToDouble(random.nextLong()) : random.nextDouble() * Math.pow(10, random.nextInt(-10, 25));
+            if (Double.isNaN(value) || Double.isInfinite(value)) {
+                continue;
+            }
+            String printed = NumberWriter.toString(value);
+            assertEquals(printed, value, Double.parseDouble(printed), 0);
+            BigDecimal decimal = NumberWriter.decimal(value);
+            assertEquals(decimal.toString(), printed);
+            if (Math.abs(value) >= 1e21 || value != Math.rint(value)) {
+                // never more digits than the JDK uses
+                BigDecimal jdk = new BigDecimal(Double.toString(value)).stripTrailingZeros();
+                assertTrue(printed, decimal.precision() <= jdk.precision());
+            }
+        }
+    }
+
+    @Test
+    public void printed() {
+        Json.JValue value = Json.jArray(Json.jNumber(1), Json.jNumber(-0.5), Json.jNumber(1e-7), Json.jNumber(3.0), Json.jNumber(new BigDecimal("2.50")), Json.jNumber(1.5e300));
+        String expected = "[1,-0.5,1E-7,3,2.50,1.5E+300]";
+        assertEquals(expected, value.nospaces());
+        java.io.ByteArrayOutputStream stream = new java.io.ByteArrayOutputStream();
+        PrettyPrinter.nospaces().writeTo(value, stream);
+        assertEquals(expected, stream.toString(StandardCharsets.US_ASCII));
+        assertEquals(new BigDecimal("1E-7"), Json.jNumber(1e-7).value());
+        assertEquals(Json.jNumber(1e-7), Json.jNumber(new BigDecimal("1E-7")));
+    }
+}
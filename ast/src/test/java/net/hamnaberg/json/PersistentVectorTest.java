@@ -0,0 +1,167 @@
+package net.hamnaberg.json;
+
+import org.junit.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.*;
+
+public class PersistentVectorTest {
+
+    @Test
+    public void appendAndPrepend() {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            if (i % 3 == 0) {
+                vector = vector.prepend(i);
+                expected.add(0, i);
+            } else {
+                vector = vector.append(i);
+                expected.add(i);
+            }
+        }
+        assertSameList(expected, vector);
+    }
+
+    @Test
+    public void fromCollection() {
+        for (int size : new int[]{0, 1, 31, 32, 33, 1024, 1025, 32 * 32 * 32 + 17}) {
+            List<Integer> expected = IntStream.range(0, size).boxed().collect(Collectors.toList());
+            assertSameList(expected, PersistentVector.from(expected));
+        }
+    }
+
+    @Test
+    public void randomOperations() {
+        Random random = new Random(1337);
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            int size = expected.size();
+            switch (random.nextInt(8)) {
+                case 0:
+                    vector = vector.append(i);
+                    expected.add(i);
+                    break;
+                case 1:
+                    vector = vector.prepend(i);
+                    expected.add(0, i);
+                    break;
+                case 2: {
+                    List<Integer> other = IntStream.range(0, random.nextInt(2000)).map(n -> -n).boxed().collect(Collectors.toList());
+                    vector = vector.concat(PersistentVector.from(other));
+                    expected.addAll(other);
+                    break;
+                }
+                case 3: {
+                    List<Integer> other = IntStream.range(0, random.nextInt(200)).boxed().collect(Collectors.toList());
+                    vector = PersistentVector.from(other).concat(vector);
+                    expected.addAll(0, other);
+                    break;
+                }
+                case 4:
+                    if (size > 0) {
+                        int from = random.nextInt(size);
+                        int to = from + random.nextInt(size - from + 1);
+                        vector = vector.slice(from, to);
+                        expected = new ArrayList<>(expected.subList(from, to));
+                    }
+                    break;
+                case 5:
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        vector = vector.updated(index, i);
+                        expected.set(index, i);
+                    }
+                    break;
+                case 6: {
+                    int index = random.nextInt(size + 1);
+                    vector = vector.insert(index, i);
+                    expected.add(index, i);
+                    break;
+                }
+                default:
+                    if (size > 0) {
+                        int index = random.nextInt(size);
+                        vector = vector.removeAt(index);
+                        expected.remove(index);
+                    }
+            }
+            if (i % 50 == 0) {
+                assertSameList(expected, vector);
+            }
+        }
+        assertSameList(expected, vector);
+    }
+
+    @Test
+    public void repeatedConcatStaysBalanced() {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            List<Integer> chunk = IntStream.range(i * 37, i * 37 + 37).boxed().collect(Collectors.toList());
+            vector = vector.concat(PersistentVector.from(chunk));
+            expected.addAll(chunk);
+        }
+        assertSameList(expected, vector);
+        assertTrue(vector.height() <= 4);
+    }
+
+    @Test
+    public void middleInsertsAndRemovesStayShallow() {
+        PersistentVector<Integer> vector = PersistentVector.empty();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 16384; i++) {
+            vector = vector.insert(vector.size() / 2, i);
+            expected.add(expected.size() / 2, i);
+        }
+        assertSameList(expected, vector);
+        // 16384 elements fit in three levels of 32, one more for the relaxed nodes along the seams
+        assertTrue("height " + vector.height(), vector.height() <= 4);
+        Random random = new Random(7);
+        for (int i = 0; i < 12000; i++) {
+            int index = random.nextInt(vector.size());
+            vector = vector.removeAt(index);
+            expected.remove(index);
+        }
+        assertSameList(expected, vector);
+        assertTrue("height " + vector.height(), vector.height() <= 4);
+    }
+
+    @Test
+    public void jArrayOperations() {
+        Json.JArray array = Json.jEmptyArray();
+        for (int i = 0; i < 100000; i++) {
+            array = array.append(i);
+        }
+        assertEquals(100000, array.size());
+        assertEquals(Optional.of(Json.jNumber(99999)), array.get(99999));
+        Json.JArray slice = array.slice(10, 20);
+        assertEquals(10, slice.size());
+        assertEquals(Optional.of(Json.jNumber(10)), slice.headOption());
+        assertEquals(Json.jArray(Json.jNumber(1), Json.jNumber(2)), array.slice(1, 3));
+        Json.JArray doubled = array.concat(array);
+        assertEquals(200000, doubled.size());
+        assertEquals(Optional.of(Json.jNumber(0)), doubled.get(100000));
+        assertEquals(Optional.of(Json.jString("x")), doubled.replace(150000, Json.jString("x")).get(150000));
+        assertEquals(100001, array.insert(500, Json.jNull()).size());
+        assertEquals(Optional.of(Json.jNumber(501)), array.remove(500).get(500));
+        assertEquals(array.getValue(), new ArrayList<>(array.getValue()));
+    }
+
+    private static void assertSameList(List<Integer> expected, PersistentVector<Integer> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), actual.get(i));
+        }
+        assertEquals(expected, new ArrayList<>(actual));
+        assertEquals(expected, actual.stream().collect(Collectors.toList()));
+        assertEquals(expected, actual.parallelStream().collect(Collectors.toList()));
+        assertEquals(expected, Arrays.asList(actual.toArray()));
+        assertEquals(expected, actual);
+        assertEquals(expected.hashCode(), actual.hashCode());
+    }
+}
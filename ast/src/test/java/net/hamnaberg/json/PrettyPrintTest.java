@@ -6,6 +6,10 @@ import org.junit.Test;
 import java.util.List;
 
 import static net.hamnaberg.json.Json.*;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.assertThat;
 
 public class PrettyPrintTest {
@@ -23,4 +27,234 @@ public class PrettyPrintTest {
         String noNull = object.pretty(PrettyPrinter.nospaces().dropNullKeys(true));
         assertThat("Contained null", noNull, CoreMatchers.not(CoreMatchers.containsString("\"nullable\":null")));
     }
+
+    @Test
+    public void layout() {
+        JObject object = jObject(List.of(
+                tuple("nullable", jNull()),
+                tuple("a", jArray(jNumber(1), jEmptyObject(), jString("x\n"))),
+                tuple("b", jObject("c", jBoolean(true))),
+                tuple("d", jEmptyArray())
+        ));
+        assertEquals("{\"nullable\":null,\"a\":[1,{},\"x\\n\"],\"b\":{\"c\":true},\"d\":[]}", object.nospaces());
+        assertEquals("{\"a\":[1,{},\"x\\n\"],\"b\":{\"c\":true},\"d\":[]}", object.pretty(PrettyPrinter.nospaces().dropNullKeys(true)));
+        assertEquals("{\n  \"nullable\": null,\n  \"a\": [\n    1,\n    {\n    },\n    \"x\\n\"\n  ],\n  \"b\": {\n    \"c\": true\n  },\n  \"d\": [\n  ]\n}", object.spaces2());
+        assertEquals("[\n  null\n]", jArray(jNull()).pretty(PrettyPrinter.spaces2().dropNullKeys(true)));
+        assertEquals("\"s\"", jString("s").spaces4());
+    }
+
+    @Test
+    public void deeplyNested() {
+        int depth = 50000;
+        JValue value = jNumber(1);
+        for (int i = 0; i < depth; i++) {
+            value = i % 2 == 0 ? jArray(List.of(value)) : jObject("a", value);
+        }
+        String expected = "{\"a\":[".repeat(depth / 2) + "1" + "]}".repeat(depth / 2);
+        assertEquals(expected, value.nospaces());
+    }
+
+    @Test
+    public void escaping() {
+        assertEquals("\"a\\\"b\\\\c\\b\\t\\n\\f\\r\\u0000\\u001f\u007fé€\u2028\"", jString("a\"b\\c\b\t\n\f\r\u0000\u001f\u007fé€\u2028").nospaces());
+        assertEquals("{\"k\\\"ey\":\"\"}", jObject("k\"ey", jString("")).nospaces());
+    }
+
+    @Test
+    public void longStringsAcrossBufferBoundaries() {
+        StringBuilder raw = new StringBuilder();
+        StringBuilder escaped = new StringBuilder();
+        for (int i = 0; i < 10000; i++) {
+            raw.append("text ").append(i).append(i % 7 == 0 ? "\n" : "").append(i % 11 == 0 ? "\u0002" : "");
+            escaped.append("text ").append(i).append(i % 7 == 0 ? "\\n" : "").append(i % 11 == 0 ? "\\u0002" : "");
+        }
+        String expected = "[\"" + escaped + "\",\"" + escaped + "\"]";
+        JArray value = jArray(jString(raw.toString()), jString(raw.toString()));
+        assertEquals(expected, value.nospaces());
+
+        // an Appendable that is neither a StringBuilder nor a Writer
+        StringBuffer buffer = new StringBuffer();
+        PrettyPrinter.nospaces().writeTo(value, buffer);
+        assertEquals(expected, buffer.toString());
+        java.io.StringWriter writer = new java.io.StringWriter();
+        PrettyPrinter.nospaces().writeTo(value, writer);
+        assertEquals(expected, writer.toString());
+    }
+
+    @Test
+    public void utf8() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            text.append("ascii ").append(i).append(" blåbær € \uD83D\uDE00 \"q\"\n\u0003 ");
+        }
+        JValue value = jObject(List.of(
+                tuple("text", jString(text.toString())),
+                tuple("lone", jString("a\uD800b\uDC00")),
+                tuple("nøkkel", jArray(jNumber(1), jNumber(2.5), jBoolean(true), jBoolean(false), jNull()))
+        ));
+        String printed = value.spaces2();
+        byte[] expected = printed.getBytes(java.nio.charset.StandardCharsets.UTF_8);
+
+        java.io.ByteArrayOutputStream stream = new java.io.ByteArrayOutputStream();
+        PrettyPrinter.spaces2().writeTo(value, stream);
+        assertArrayEquals(expected, stream.toByteArray());
+
+        stream.reset();
+        PrettyPrinter.spaces2().writeTo(value, java.nio.channels.Channels.newChannel(stream));
+        assertArrayEquals(expected, stream.toByteArray());
+
+        for (java.nio.ByteBuffer buffer : List.of(java.nio.ByteBuffer.allocate(expected.length + 1), java.nio.ByteBuffer.allocateDirect(expected.length + 1))) {
+            buffer.put((byte) '>');
+            PrettyPrinter.spaces2().writeTo(value, buffer);
+            assertEquals(expected.length + 1, buffer.position());
+            byte[] written = new byte[expected.length];
+            buffer.flip().get();
+            buffer.get(written);
+            assertArrayEquals(expected, written);
+        }
+        assertThrows(java.nio.BufferOverflowException.class, () -> PrettyPrinter.spaces2().writeTo(value, java.nio.ByteBuffer.allocate(10)));
+    }
+
+    private static JValue document(int records) {
+        JArray.Builder items = JArray.builder();
+        for (int i = 0; i < records; i++) {
+            items.add(jObject(List.of(
+                    tuple("id", jNumber(i)),
+                    tuple("name", jString("item " + i + " – blåbær \uD83D\uDE00 \"q\"\n")),
+                    tuple("price", jNumber(i * 1.25 + 0.001)),
+                    tuple("parent", jNull()),
+                    tuple("tags", jArray(jString("a"), jNull(), jBoolean(i % 2 == 0))),
+                    tuple("samples", JArray.ofLongs(1, 2, i)),
+                    tuple("weights", JArray.ofDoubles(0.5, 1e-7, 1.5e300)),
+                    tuple("empty", jEmptyObject()),
+                    tuple("none", jEmptyArray())
+            )).put("søk", jString("\uD800")).remove("missing"));
+        }
+        JObject.Builder wide = JObject.builder();
+        for (int i = 0; i < 40; i++) {
+            wide.put("key" + i, i % 3 == 0 ? jNull() : jNumber(i));
+        }
+        return jObject(List.of(
+                tuple("items", items.freeze()),
+                tuple("wide", wide.freeze()),
+                tuple("linked", jObject(new java.util.LinkedHashMap<>(java.util.Map.of("a", jNull(), "b", jString("x"))))),
+                tuple("decimal", jNumber(new java.math.BigDecimal("2.50")))
+        ));
+    }
+
+    @Test
+    public void length() {
+        JValue value = document(20);
+        List<PrettyPrinter> printers = List.of(PrettyPrinter.nospaces(), PrettyPrinter.spaces2(), PrettyPrinter.spaces4(),
+                PrettyPrinter.spaces2().dropNullKeys(true), new PrettyPrinter(3, false, true));
+        for (PrettyPrinter printer : printers) {
+            for (JValue v : List.of(value, jString("é"), jNumber(-1.5), jNull(), jEmptyArray(), jObject("a", jNull()))) {
+                String printed = printer.writeString(v);
+                PrettyPrinter.Length length = printer.length(v);
+                assertEquals(printed, printed.length(), length.chars());
+                assertEquals(printed, printed.getBytes(java.nio.charset.StandardCharsets.UTF_8).length, length.bytes());
+                assertArrayEquals(printed.getBytes(java.nio.charset.StandardCharsets.UTF_8), printer.writeBytes(v));
+            }
+        }
+    }
+
+    @Test
+    public void lengthCacheAcrossIndentation() {
+        JValue shared = document(10);
+        for (PrettyPrinter printer : List.of(PrettyPrinter.nospaces(), PrettyPrinter.spaces2().dropNullKeys(true))) {
+            PrettyPrinter.LengthCache cache = printer.lengthCache();
+            assertEquals(printer.length(shared), cache.length(shared));
+            int size = cache.size();
+            assertTrue(size > 0);
+            assertEquals(printer.length(shared), cache.length(shared));
+            assertEquals(size, cache.size());
+
+            // the cached subtree, deeper down
+            JValue nested = jObject("a", jArray(jObject("b", shared), shared));
+            String printed = printer.writeString(nested);
+            assertEquals(printed.length(), cache.length(nested).chars());
+            assertEquals(printed.getBytes(java.nio.charset.StandardCharsets.UTF_8).length, cache.length(nested).bytes());
+        }
+    }
+
+    private static byte[] print(JValue value, PrettyPrinter.OutputCache cache) {
+        java.io.ByteArrayOutputStream stream = new java.io.ByteArrayOutputStream();
+        cache.writeTo(value, stream);
+        return stream.toByteArray();
+    }
+
+    @Test
+    public void outputCache() {
+        JValue fragment = document(5);
+        for (PrettyPrinter printer : List.of(PrettyPrinter.nospaces(), PrettyPrinter.spaces2(), PrettyPrinter.spaces4().dropNullKeys(true))) {
+            PrettyPrinter.OutputCache cache = printer.outputCache(1 << 20);
+            // the same fragment at different depths, and a copy of it
+            JValue first = jObject(List.of(tuple("a", fragment), tuple("b", jArray(fragment, jString("x")))));
+            JValue second = jArray(jObject("c", jArray(fragment)), document(5), fragment);
+            for (int round = 0; round < 2; round++) {
+                for (JValue value : List.of(first, second, fragment, jString("é"), jEmptyArray())) {
+                    byte[] expected = printer.writeString(value).getBytes(java.nio.charset.StandardCharsets.UTF_8);
+                    assertArrayEquals(expected, print(value, cache));
+                    java.nio.ByteBuffer buffer = java.nio.ByteBuffer.allocate(expected.length);
+                    cache.writeTo(value, buffer);
+                    assertArrayEquals(expected, buffer.array());
+                }
+            }
+            PrettyPrinter.OutputCache.Stats stats = cache.stats();
+            assertTrue(stats.hits() > 0);
+            assertTrue(stats.misses() > 0);
+            assertTrue(stats.size() > 0);
+
+            long hits = stats.hits();
+            print(fragment, cache);
+            assertEquals(hits + 1, cache.stats().hits());
+        }
+    }
+
+    @Test
+    public void outputCacheStaysWithinBudget() {
+        PrettyPrinter.OutputCache cache = PrettyPrinter.nospaces().outputCache(4000);
+        for (int i = 0; i < 50; i++) {
+            JValue value = jArray(document(1), document(2));
+            assertArrayEquals(value.nospaces().getBytes(java.nio.charset.StandardCharsets.UTF_8), print(value, cache));
+            assertTrue(cache.stats().bytes() <= 4000);
+        }
+        // larger than the buffer and any entry
+        JValue large = document(2000);
+        assertArrayEquals(large.nospaces().getBytes(java.nio.charset.StandardCharsets.UTF_8), print(large, cache));
+        assertTrue(cache.stats().bytes() <= 4000);
+        assertThrows(IllegalArgumentException.class, () -> PrettyPrinter.nospaces().outputCache(0));
+
+        // kept whole across several buffers
+        PrettyPrinter.OutputCache roomy = PrettyPrinter.spaces2().outputCache(16 << 20);
+        JValue wrapped = jArray(large);
+        byte[] expected = PrettyPrinter.spaces2().writeString(wrapped).getBytes(java.nio.charset.StandardCharsets.UTF_8);
+        assertArrayEquals(expected, print(wrapped, roomy));
+        assertArrayEquals(expected, print(wrapped, roomy));
+        assertEquals(0, roomy.stats().hits());
+        long hits = roomy.stats().hits();
+        assertArrayEquals(expected, print(wrapped, roomy));
+        assertEquals(hits + 1, roomy.stats().hits());
+    }
+
+    @Test
+    public void outputCacheKeepsFragmentsAmongSmallValues() {
+        JValue fragment = document(5);
+        PrettyPrinter.OutputCache cache = PrettyPrinter.nospaces().outputCache(8 * fragment.nospaces().length());
+        for (int round = 0; round < 20; round++) {
+            JArray.Builder response = JArray.builder();
+            response.add(fragment);
+            for (int i = 0; i < 1000; i++) {
+                response.add(jObject("id", jNumber(round * 1000 + i)));
+            }
+            JValue value = response.freeze();
+            long hits = cache.stats().hits();
+            assertArrayEquals(value.nospaces().getBytes(java.nio.charset.StandardCharsets.UTF_8), print(value, cache));
+            if (round >= 2) {
+                assertEquals(hits + 1, cache.stats().hits());
+            }
+        }
+        // the small objects were never looked up
+        assertTrue(cache.stats().misses() < 100);
+    }
 }
@@ -0,0 +1,96 @@
+package net.hamnaberg.json;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.util.List;
+
+import static net.hamnaberg.json.Json.*;
+import static org.junit.Assert.*;
+
+public class SerializationProxyTest {
+
+    private static byte[] serialize(Object value) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+            out.writeObject(value);
+        }
+        return bos.toByteArray();
+    }
+
+    private static Object deserialize(byte[] bytes) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return in.readObject();
+        }
+    }
+
+    @Test
+    public void roundTripsEveryKindOfValue() throws Exception {
+        JObject value = jObject(List.of(
+                tuple("string", jString("a\u0000é€😀\uD800 lone")),
+                tuple("empty", jString("")),
+                tuple("long", jNumber(Long.MIN_VALUE)),
+                tuple("double", jNumber(-0.1)),
+                tuple("decimal", jNumber(new BigDecimal("1.10"))),
+                tuple("big", jNumber(new BigDecimal("-123456789012345678901234567890.5e-40"))),
+                tuple("booleans", jArray(jBoolean(true), jBoolean(false), jNull())),
+                tuple("longs", JArray.ofLongs(1, -2, Long.MAX_VALUE)),
+                tuple("doubles", JArray.ofDoubles(0.5, 1e300)),
+                tuple("nested", jObject("string", jObject("long", jEmptyArray()))),
+                tuple("emptyObject", jEmptyObject())
+        ));
+        JValue read = (JValue) deserialize(serialize(value));
+        assertEquals(value, read);
+        assertEquals(value.nospaces(), read.nospaces());
+        assertTrue(read.asJsonObjectOrEmpty().getAsArrayOrEmpty("longs").isPacked());
+
+        for (JValue scalar : List.of(jString("s"), jNumber(1), jNumber(2.5), jBoolean(true), jNull())) {
+            assertEquals(scalar, deserialize(serialize(scalar)));
+        }
+    }
+
+    @Test
+    public void repeatedKeysAreWrittenOnce() throws Exception {
+        JArray.Builder builder = JArray.builder();
+        for (int i = 0; i < 1000; i++) {
+            builder.add(jObject(List.of(tuple("identifier", jNumber(i)), tuple("description", jString("item")))));
+        }
+        JArray value = builder.freeze();
+        byte[] bytes = serialize(value);
+        assertEquals(value, deserialize(bytes));
+        // tags, names and values of 1000 objects, with each name written once
+        assertTrue(bytes.length + " bytes", bytes.length < 1000 * 14);
+    }
+
+    @Test
+    public void deeplyNested() throws Exception {
+        JValue value = jNumber(1);
+        for (int i = 0; i < 50000; i++) {
+            value = i % 2 == 0 ? jArray(List.of(value)) : jObject("a", value);
+        }
+        assertEquals(value.nospaces(), ((JValue) deserialize(serialize(value))).nospaces());
+    }
+
+    @Test
+    public void rejectsCorruptStreams() throws Exception {
+        byte[] bytes = serialize(jArray(jString("abc"), jNumber(1)));
+        int tag = indexOf(bytes, new byte[]{8, 3, 'a', 'b', 'c'});
+        bytes[tag] = 42;
+        byte[] corrupt = bytes;
+        assertThrows(StreamCorruptedException.class, () -> deserialize(corrupt));
+    }
+
+    private static int indexOf(byte[] bytes, byte[] part) {
+        outer:
+        for (int i = 0; i + part.length <= bytes.length; i++) {
+            for (int j = 0; j < part.length; j++) {
+                if (bytes[i + j] != part[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        throw new AssertionError("not found");
+    }
+}
@@ -0,0 +1,119 @@
+package net.hamnaberg.json;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class ShapeTest {
+
+    @Test
+    public void sameKeysShareShape() {
+        Json.JObject first = Json.JObject.builder().put("id", 1L).put("name", "a").freeze();
+        Json.JObject second = Json.JObject.builder().put(new String("id"), 2L).put(new String("name"), "b").freeze();
+        Json.JObject reordered = Json.JObject.builder().put("name", "a").put("id", 1L).freeze();
+
+        assertSame(shapeOf(first), shapeOf(second));
+        assertNotSame(shapeOf(first), shapeOf(reordered));
+        assertEquals(first, reordered);
+        assertEquals(first.hashCode(), reordered.hashCode());
+        assertEquals(List.of("name", "id"), new ArrayList<>(reordered.keySet()));
+        assertNotEquals(first, second);
+        assertEquals(first, second.put("id", 1L).put("name", "a"));
+    }
+
+    @Test
+    public void wideShapesUseIndex() {
+        Json.JObject.Builder builder = Json.JObject.builder();
+        LinkedHashMap<String, Json.JValue> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 40; i++) {
+            builder.put("key" + i, Json.jNumber(i));
+            expected.put("key" + i, Json.jNumber(i));
+        }
+        builder.put("key7", Json.jString("replaced"));
+        expected.put("key7", Json.jString("replaced"));
+
+        Json.JObject object = builder.freeze();
+        assertEquals(expected, object.getValue());
+        assertEquals(new ArrayList<>(expected.entrySet()), new ArrayList<>(object.getValue().entrySet()));
+        for (String key : expected.keySet()) {
+            assertEquals(expected.get(key), object.getValue().get(key));
+        }
+        assertFalse(object.containsKey("key40"));
+        assertNull(object.getValue().get(null));
+    }
+
+    @Test
+    public void fallsBackPastKeyLimit() {
+        Json.JObject.Builder builder = Json.JObject.builder();
+        LinkedHashMap<String, Json.JValue> expected = new LinkedHashMap<>();
+        for (int i = 0; i < Shape.MAX_KEYS + 10; i++) {
+            builder.put("k" + i, Json.jNumber(i));
+            expected.put("k" + i, Json.jNumber(i));
+        }
+        builder.put("k3", Json.jNull());
+        expected.put("k3", Json.jNull());
+
+        Json.JObject object = builder.freeze();
+        assertFalse(object.getValue() instanceof ShapedMap);
+        assertEquals(expected, object.getValue());
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(object.keySet()));
+    }
+
+    @Test
+    public void collectedChildrenAreReplaced() {
+        Shape root = Shape.root();
+        Shape child = root.with("a");
+        assertSame(child, root.with("a"));
+        assertSame(child.with("b"), child.with("b"));
+
+        root.clearTransition("a");
+        Shape replacement = root.with("a");
+        assertNotSame(child, replacement);
+        assertEquals(1, replacement.size());
+        assertEquals("a", replacement.key(0));
+        assertSame(replacement, root.with("a"));
+    }
+
+    @Test
+    public void collectedChildrenDoNotCountTowardsTheLimit() {
+        Shape root = Shape.root();
+        List<Shape> children = new ArrayList<>();
+        for (int i = 0; i < Shape.MAX_TRANSITIONS; i++) {
+            children.add(root.with("key" + i));
+        }
+        assertNull(root.with("extra"));
+        // existing children are still found when the tree is full
+        assertSame(children.get(3), root.with("key3"));
+
+        root.clearTransition("key7");
+        Shape extra = root.with("extra");
+        assertNotNull(extra);
+        assertEquals("extra", extra.key(0));
+        assertNull(root.with("key7"));
+
+        for (int i = 0; i < Shape.MAX_TRANSITIONS; i++) {
+            root.clearTransition("key" + i);
+        }
+        assertNotNull(root.with("key7"));
+        assertSame(extra, root.with("extra"));
+    }
+
+    @Test
+    public void serializable() throws IOException, ClassNotFoundException {
+        Json.JObject object = Json.JObject.builder().put("a", 1L).put("b", Json.jArray(Json.jNull())).freeze();
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+            out.writeObject(object);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            assertEquals(object, in.readObject());
+        }
+    }
+
+    private static Shape shapeOf(Json.JObject object) {
+        return ((ShapedMap) object.getValue()).shape();
+    }
+}
@@ -0,0 +1,95 @@
+package net.hamnaberg.json;
+
+import org.junit.Test;
+
+import java.io.*;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class WideMapTest {
+
+    private static Json.JObject wide(int size) {
+        Json.JObject.Builder builder = Json.JObject.builder();
+        for (int i = 0; i < size; i++) {
+            builder.put("k" + i, Json.jNumber(i));
+        }
+        return builder.freeze();
+    }
+
+    @Test
+    public void lookupAndPosition() {
+        Json.JObject object = wide(20000);
+        assertTrue(object.getValue() instanceof WideMap);
+        assertEquals(20000, object.size());
+        for (int i = 0; i < 20000; i += 7) {
+            assertEquals(Json.jNumber(i), object.getValue().get("k" + i));
+            assertEquals("k" + i, object.keyAt(i));
+            assertEquals(Json.jNumber(i), object.valueAt(i));
+        }
+        assertFalse(object.containsKey("k20000"));
+        assertNull(object.getValue().get(null));
+        assertThrows(IndexOutOfBoundsException.class, () -> object.keyAt(20000));
+        assertThrows(IndexOutOfBoundsException.class, () -> object.valueAt(-1));
+
+        LinkedHashMap<String, Json.JValue> expected = new LinkedHashMap<>(object.getValue());
+        assertEquals(expected, object.getValue());
+        assertEquals(expected.hashCode(), object.getValue().hashCode());
+        assertEquals(object, new Json.JObject(expected));
+        assertEquals(new ArrayList<>(expected.keySet()), new ArrayList<>(object.keySet()));
+    }
+
+    @Test
+    public void replacingKeepsPosition() {
+        Json.JObject.Builder builder = Json.JObject.builder(200);
+        for (int i = 0; i < 100; i++) {
+            builder.put("k" + i, Json.jNumber(i));
+        }
+        builder.put("k3", Json.jNull());
+        Json.JObject object = builder.freeze();
+        assertEquals(100, object.size());
+        assertEquals("k3", object.keyAt(3));
+        assertEquals(Json.jNull(), object.valueAt(3));
+        assertEquals(Json.jNumber(99), object.getValue().get("k99"));
+    }
+
+    @Test
+    public void filterKeepsOrder() {
+        Json.JObject object = wide(1000);
+        Json.JObject even = object.filter((key, value) -> value.asJsonNumber().orElseThrow().asLong() % 2 == 0);
+        assertEquals(500, even.size());
+        assertEquals("k998", even.keyAt(499));
+        assertEquals(Json.jNumber(10), even.getValue().get("k10"));
+        assertFalse(even.containsKey("k11"));
+
+        Json.JObject fromMap = new Json.JObject(new LinkedHashMap<>(object.getValue())).filterKeys(key -> key.endsWith("0"));
+        assertEquals(List.of("k0", "k10", "k20"), new ArrayList<>(fromMap.keySet()).subList(0, 3));
+        assertEquals(fromMap, object.filterKeys(key -> key.endsWith("0")));
+
+        assertSame(object, object.filterKeys(key -> true));
+        assertEquals(Json.jEmptyObject(), object.filterKeys(key -> false));
+        assertEquals(List.of("k1"), new ArrayList<>(object.filterKeys("k1"::equals).keySet()));
+    }
+
+    @Test
+    public void selectProjectsInGivenOrder() {
+        Json.JObject object = wide(1000);
+        Json.JObject selected = object.select("k500", "missing", "k2");
+        assertEquals(List.of("k500", "k2"), new ArrayList<>(selected.keySet()));
+        assertEquals(Json.jNumber(2), selected.valueAt(1));
+    }
+
+    @Test
+    public void serializable() throws IOException, ClassNotFoundException {
+        Json.JObject object = wide(100);
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+            out.writeObject(object);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            Json.JObject read = (Json.JObject) in.readObject();
+            assertEquals(object, read);
+            assertEquals("k42", read.keyAt(42));
+        }
+    }
+}
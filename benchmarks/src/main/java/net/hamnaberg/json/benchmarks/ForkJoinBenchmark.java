@@ -0,0 +1,60 @@
+package net.hamnaberg.json.benchmarks;
+
+import net.hamnaberg.json.Json;
+import net.hamnaberg.json.JsonForkJoin;
+import net.hamnaberg.json.PrettyPrinter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Redacting and printing every object of a large array, sequentially and with {@link JsonForkJoin}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ForkJoinBenchmark {
+    @Param({"200000"})
+    public int size;
+
+    private Json.JArray array;
+    private final Function<Json.JValue, Json.JValue> redact = v -> v.asJsonObjectOrEmpty().put("email", "***").remove("ssn");
+
+    @Setup
+    public void setup() {
+        Json.JArray.Builder builder = Json.JArray.builder(size);
+        for (int i = 0; i < size; i++) {
+            builder.add(Json.jObject(
+                    Json.tuple("id", Json.jNumber(i)),
+                    Json.tuple("email", Json.jString("user" + i + "@example.com")),
+                    Json.tuple("ssn", Json.jString("000-00-" + i))
+            ));
+        }
+        array = builder.freeze();
+    }
+
+    @Benchmark
+    public Json.JArray sequential() {
+        return array.map(redact);
+    }
+
+    @Benchmark
+    public Json.JArray forkJoin() {
+        return JsonForkJoin.common().map(array, redact);
+    }
+
+    @Benchmark
+    public void print() {
+        PrettyPrinter.spaces2().writeTo(array, OutputStream.nullOutputStream());
+    }
+
+    @Benchmark
+    public void forkJoinPrint() {
+        JsonForkJoin.common().writeTo(array, PrettyPrinter.spaces2(), OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,50 @@
+package net.hamnaberg.json.benchmarks;
+
+import net.hamnaberg.json.Json;
+import net.hamnaberg.json.PrettyPrinter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Printing a number heavy document: 10k records of ids, prices, measurements with full precision and tiny values.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class NumberPrinterBenchmark {
+    private Json.JValue numbers;
+    private final ByteArrayOutputStream stream = new ByteArrayOutputStream(1 << 20);
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(1);
+        Json.JArray.Builder records = Json.JArray.builder();
+        for (int i = 0; i < 10000; i++) {
+            records.add(Json.JObject.builder()
+                    .put("id", Json.jNumber(1_000_000L + i))
+                    .put("price", Json.jNumber(random.nextInt(100000) / 100.0))
+                    .put("measurement", Json.jNumber(random.nextDouble() * 1000))
+                    .put("error", Json.jNumber(random.nextDouble() * 1e-9))
+                    .freeze());
+        }
+        numbers = records.freeze();
+    }
+
+    @Benchmark
+    public String nospaces() {
+        return numbers.nospaces();
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream outputStream() {
+        stream.reset();
+        PrettyPrinter.nospaces().writeTo(numbers, stream);
+        return stream;
+    }
+}
@@ -0,0 +1,71 @@
+package net.hamnaberg.json.benchmarks;
+
+import net.hamnaberg.json.Json;
+import net.hamnaberg.json.PrettyPrinter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Printing responses that each embed 20 of 200 shared catalog fragments, with and without an output cache.
+ * Every response is built anew, so only the fragments can be found in the cache.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class OutputCacheBenchmark {
+    private final int[][] picks = new int[64][20];
+    private final Json.JValue[] fragments = new Json.JValue[200];
+    private final ByteArrayOutputStream stream = new ByteArrayOutputStream(1 << 20);
+    private final PrettyPrinter printer = PrettyPrinter.nospaces();
+    private PrettyPrinter.OutputCache cache;
+    private int next;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < fragments.length; i++) {
+            fragments[i] = Json.JObject.builder()
+                    .put("sku", Json.jString("SKU-" + (100000 + i)))
+                    .put("title", Json.jString("Blåbærsyltetøy, 400 g – “førsteklasses” kvalitet nr. " + i))
+                    .put("description", Json.jString("Plain text without anything to escape, as most descriptions are. ".repeat(3)))
+                    .put("price", Json.jObject(Json.tuple("amount", Json.jNumber(i * 1.25 + 9.9)), Json.tuple("currency", Json.jString("NOK"))))
+                    .put("tags", Json.jArray(Json.jString("jam"), Json.jString("breakfast"), Json.jString("organic")))
+                    .freeze();
+        }
+        SplittableRandom random = new SplittableRandom(7);
+        for (int[] pick : picks) {
+            for (int i = 0; i < pick.length; i++) {
+                pick[i] = random.nextInt(fragments.length);
+            }
+        }
+        cache = printer.outputCache(16 << 20);
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream uncached() {
+        stream.reset();
+        printer.writeTo(response(), stream);
+        return stream;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream cached() {
+        stream.reset();
+        cache.writeTo(response(), stream);
+        return stream;
+    }
+
+    private Json.JValue response() {
+        int r = next++;
+        Json.JArray.Builder items = Json.JArray.builder();
+        for (int i : picks[r & 63]) {
+            items.add(fragments[i]);
+        }
+        return Json.jObject(Json.tuple("request", Json.jString("req-" + r)), Json.tuple("items", items.freeze()));
+    }
+}
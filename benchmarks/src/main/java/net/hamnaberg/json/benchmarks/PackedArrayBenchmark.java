@@ -0,0 +1,69 @@
+package net.hamnaberg.json.benchmarks;
+
+import net.hamnaberg.json.Json;
+import net.hamnaberg.json.JsonTape;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and reading a 10k element time series, which the builder stores as a {@code double[]}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PackedArrayBenchmark {
+    private double[] samples;
+    private Json.JArray series;
+    private JsonTape tape;
+
+    @Setup
+    public void setup() {
+        samples = new double[10000];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = Math.round(Math.sin(i / 100.0) * 1000) / 100.0;
+        }
+        series = Json.JArray.ofDoubles(samples);
+        tape = JsonTape.of(series);
+    }
+
+    @Benchmark
+    public Json.JArray build() {
+        Json.JArray.Builder builder = Json.JArray.builder();
+        for (double sample : samples) {
+            builder.add(Json.jNumber(sample));
+        }
+        return builder.freeze();
+    }
+
+    @Benchmark
+    public Json.JValue fromTape() {
+        return tape.toJValue();
+    }
+
+    @Benchmark
+    public double sum() {
+        double sum = 0;
+        for (double sample : series.toDoubleArray()) {
+            sum += sample;
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double sumElements() {
+        double sum = 0;
+        for (Json.JValue element : series) {
+            sum += element.asJsonNumber().orElseThrow().asDouble();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public String nospaces() {
+        return series.nospaces();
+    }
+}
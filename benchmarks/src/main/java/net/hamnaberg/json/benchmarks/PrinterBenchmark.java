@@ -0,0 +1,100 @@
+package net.hamnaberg.json.benchmarks;
+
+import net.hamnaberg.json.Json;
+import net.hamnaberg.json.PrettyPrinter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Printing a string heavy document: 1000 records of plain ASCII, non-ASCII and escaped text,
+ * as chars and as UTF-8 bytes, and measuring its UTF-8 length.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrinterBenchmark {
+    private Json.JValue strings;
+    private final ByteArrayOutputStream stream = new ByteArrayOutputStream(1 << 20);
+    private final ByteBuffer direct = ByteBuffer.allocateDirect(1 << 20);
+    private PrettyPrinter.LengthCache lengths;
+
+    @Setup
+    public void setup() {
+        Json.JArray.Builder records = Json.JArray.builder();
+        for (int i = 0; i < 1000; i++) {
+            records.add(Json.JObject.builder()
+                    .put("id", Json.jString("c0ffee-" + i))
+                    .put("title", Json.jString("A reasonably long product title, number " + i))
+                    .put("description", Json.jString("Plain text without anything to escape, which is by far the most common kind of string in a document. ".repeat(3)))
+                    .put("localized", Json.jString("Blåbærsyltetøy på ¼ kilo – “førsteklasses” kvalitet"))
+                    .put("escaped", Json.jString("line one\nline two\t\"quoted\" and a \\ backslash\u0001"))
+                    .freeze());
+        }
+        strings = Json.jObject("records", records.freeze());
+        lengths = PrettyPrinter.nospaces().lengthCache();
+    }
+
+    @Benchmark
+    public String nospaces() {
+        return strings.nospaces();
+    }
+
+    @Benchmark
+    public String spaces2() {
+        return strings.spaces2();
+    }
+
+    @Benchmark
+    public StringWriter writer() {
+        StringWriter writer = new StringWriter(1 << 20);
+        PrettyPrinter.nospaces().writeTo(strings, writer);
+        return writer;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream outputStreamWriter() throws Exception {
+        stream.reset();
+        OutputStreamWriter writer = new OutputStreamWriter(stream, StandardCharsets.UTF_8);
+        PrettyPrinter.nospaces().writeTo(strings, writer);
+        writer.flush();
+        return stream;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream outputStream() {
+        stream.reset();
+        PrettyPrinter.nospaces().writeTo(strings, stream);
+        return stream;
+    }
+
+    @Benchmark
+    public ByteBuffer directBuffer() {
+        direct.clear();
+        PrettyPrinter.nospaces().writeTo(strings, direct);
+        return direct;
+    }
+
+    @Benchmark
+    public int printedLength() {
+        return strings.nospaces().getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    @Benchmark
+    public long length() {
+        return PrettyPrinter.nospaces().length(strings).bytes();
+    }
+
+    @Benchmark
+    public long cachedLength() {
+        return lengths.length(strings).bytes();
+    }
+}
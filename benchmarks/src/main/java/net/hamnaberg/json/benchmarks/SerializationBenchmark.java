@@ -0,0 +1,55 @@
+package net.hamnaberg.json.benchmarks;
+
+import net.hamnaberg.json.Json;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Java serialization of a document of 1000 small objects, written to and read from a byte array.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBenchmark {
+    private Json.JValue document;
+    private byte[] serialized;
+
+    @Setup
+    public void setup() throws IOException {
+        Json.JArray.Builder items = Json.JArray.builder();
+        for (int i = 0; i < 1000; i++) {
+            items.add(Json.jObject(
+                    Json.tuple("id", Json.jNumber(i)),
+                    Json.tuple("name", Json.jString("item " + i)),
+                    Json.tuple("price", Json.jNumber(i * 1.25)),
+                    Json.tuple("tags", Json.jArray(Json.jString("a"), Json.jString("b"))),
+                    Json.tuple("active", Json.jBoolean(i % 2 == 0))
+            ));
+        }
+        document = Json.jObject("items", items.freeze());
+        serialized = write();
+        System.out.println();
+        System.out.println("Serialized size: " + serialized.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] write() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(document);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public Object read() throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized))) {
+            return in.readObject();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package net.hamnaberg.json.benchmarks;
+
+import net.hamnaberg.json.Json;
+import net.hamnaberg.json.JsonFootprint;
+import net.hamnaberg.json.JsonTreeBuilder;
+import net.hamnaberg.json.PrettyPrinter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Printing, copying, measuring and merging an ordinary, shallow document, which all go through an explicit stack traversal,
+ * and merging two objects with 10k keys each.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TraversalBenchmark {
+    private Json.JValue document;
+    // the document as the parsers would build it
+    private Json.JValue built;
+    private Json.JValue patch;
+    private Json.JValue wideBase;
+    private Json.JValue wideOverride;
+
+    @Setup
+    public void setup() {
+        Json.JArray.Builder items = Json.JArray.builder();
+        for (int i = 0; i < 100; i++) {
+            items.add(Json.jObject(
+                    Json.tuple("id", Json.jNumber(i)),
+                    Json.tuple("name", Json.jString("item " + i)),
+                    Json.tuple("price", Json.jNumber(i * 1.25)),
+                    Json.tuple("tags", Json.jArray(Json.jString("a"), Json.jString("b"))),
+                    Json.tuple("meta", Json.jObject(Json.tuple("active", Json.jBoolean(i % 2 == 0)), Json.tuple("parent", Json.jNull())))
+            ));
+        }
+        document = Json.jObject(
+                Json.tuple("items", items.freeze()),
+                Json.tuple("settings", Json.jObject(Json.tuple("page", Json.jObject("size", 100)), Json.tuple("sort", Json.jString("id"))))
+        );
+        Json.JObject.Builder base = Json.JObject.builder();
+        Json.JObject.Builder override = Json.JObject.builder();
+        for (int i = 0; i < 10000; i++) {
+            base.put("key" + i, Json.jObject(Json.tuple("value", Json.jNumber(i)), Json.tuple("source", Json.jString("default"))));
+            if (i % 2 == 0) {
+                override.put("key" + i, Json.jObject("source", "site"));
+            }
+        }
+        wideBase = base.freeze();
+        wideOverride = override.freeze();
+        JsonTreeBuilder builder = new JsonTreeBuilder();
+        document.walk(builder);
+        built = builder.result();
+        patch = Json.jObject("settings", Json.jObject(Json.tuple("page", Json.jObject("number", 2)), Json.tuple("filter", Json.jString("active"))));
+    }
+
+    @Benchmark
+    public String nospaces() {
+        return document.nospaces();
+    }
+
+    @Benchmark
+    public String spaces2() {
+        return document.pretty(PrettyPrinter.spaces2());
+    }
+
+    @Benchmark
+    public Json.JValue copy() {
+        JsonTreeBuilder builder = new JsonTreeBuilder();
+        document.walk(builder);
+        return builder.result();
+    }
+
+    @Benchmark
+    public JsonFootprint footprint() {
+        return JsonFootprint.of(built);
+    }
+
+    @Benchmark
+    public Json.JValue deepmerge() {
+        return document.deepmerge(patch);
+    }
+
+    @Benchmark
+    public Json.JValue wideDeepmerge() {
+        return wideBase.deepmerge(wideOverride);
+    }
+}
@@ -0,0 +1,86 @@
+package net.hamnaberg.json.benchmarks;
+
+import net.hamnaberg.json.Json;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Type predicates and primitive field accessors, as used by hand-written decoders.
+ * <p>
+ * Run with {@code -prof gc}; {@code gc.alloc.rate.norm} should be 0 B/op for all of these.
+ * The {@code Optional} returning variants still allocate the {@code Optional} itself when a
+ * value is present and the call site is megamorphic.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TypeTestBenchmark {
+    private Json.JValue[] values;
+    private Json.JObject object;
+
+    @Setup
+    public void setup() {
+        object = Json.jObject(
+                Json.tuple("id", Json.jNumber(123456789L)),
+                Json.tuple("count", Json.jNumber(42)),
+                Json.tuple("ratio", Json.jNumber(0.75)),
+                Json.tuple("enabled", Json.jBoolean(true)),
+                Json.tuple("name", Json.jString("immutable-json"))
+        );
+        values = new Json.JValue[]{
+                object,
+                Json.jArray(Json.jNumber(1), Json.jNumber(2)),
+                Json.jString("string"),
+                Json.jNumber(1),
+                Json.jBoolean(false),
+                Json.jNull()
+        };
+    }
+
+    @Benchmark
+    public void predicates(Blackhole bh) {
+        for (Json.JValue value : values) {
+            bh.consume(value.isObject());
+            bh.consume(value.isArray());
+            bh.consume(value.isString());
+            bh.consume(value.isNumber());
+            bh.consume(value.isBoolean());
+            bh.consume(value.isNull());
+        }
+    }
+
+    @Benchmark
+    public void asJsonObjectOrEmpty(Blackhole bh) {
+        for (Json.JValue value : values) {
+            bh.consume(value.asJsonObjectOrEmpty());
+            bh.consume(value.asJsonArrayOrEmpty());
+        }
+    }
+
+    @Benchmark
+    public long primitiveAccessors() {
+        long sum = object.getAsLongOr("id", 0L);
+        sum += object.getAsIntOr("count", 0);
+        sum += (long) object.getAsDoubleOr("ratio", 0.0);
+        sum += object.getAsBooleanOr("enabled", false) ? 1 : 0;
+        sum += object.getAsStringOr("name", "").length();
+        sum += object.getAsLongOr("missing", -1L);
+        return sum;
+    }
+
+    @Benchmark
+    public int exactConversions() {
+        int sum = 0;
+        for (Json.JValue value : values) {
+            if (value instanceof Json.JNumber n) {
+                sum += n.asIntExact();
+            }
+        }
+        return sum + object.getAsIntOr("count", 0);
+    }
+}
@@ -0,0 +1,59 @@
+package net.hamnaberg.json.benchmarks;
+
+import net.hamnaberg.json.Json;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading and filtering an object with 20k keys.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WideObjectBenchmark {
+    private Json.JObject features;
+    private String[] names;
+
+    @Setup
+    public void setup() {
+        Json.JObject.Builder builder = Json.JObject.builder();
+        names = new String[20000];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "feature." + i;
+            builder.put(names[i], Json.jNumber(i % 3 == 0 ? i : -i));
+        }
+        features = builder.freeze();
+    }
+
+    @Benchmark
+    public long get() {
+        long sum = 0;
+        for (String name : names) {
+            sum += features.getAsLongOr(name, 0);
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long positional() {
+        long sum = 0;
+        for (int i = 0; i < features.size(); i++) {
+            sum += features.keyAt(i).length();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Json.JObject filter() {
+        return features.filter((name, value) -> value.asJsonNumber().orElseThrow().asLong() >= 0);
+    }
+
+    @Benchmark
+    public Json.JObject filterKeys() {
+        return features.filterKeys(name -> name.endsWith("7"));
+    }
+}
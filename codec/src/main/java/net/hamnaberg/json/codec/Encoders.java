@@ -14,7 +14,6 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 public abstract class Encoders {
     private Encoders(){}
@@ -41,7 +40,13 @@ public abstract class Encoders {
     }
 
     public static <A> EncodeJson<List<A>> listEncoder(EncodeJson<A> encoder) {
-        return value -> Json.jArray(value.stream().map(encoder::toJson).collect(Collectors.toUnmodifiableList()));
+        return value -> {
+            Json.JArray.Builder builder = Json.JArray.builder(value.size());
+            for (A a : value) {
+                builder.add(encoder.toJson(a));
+            }
+            return builder.freeze();
+        };
     }
 
     public static <A> EncodeJson<Set<A>> setEncoder(EncodeJson<A> encoder) {
@@ -57,10 +62,10 @@ public abstract class Encoders {
     }
 
     public static <A1, A2> EncodeJson<Tuple2<A1, A2>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2()))
-        );
+        return tuple -> Json.JObject.builder(2)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .freeze();
     }
 
     public static <A1, A2, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, Function<TT, Tuple2<A1, A2>> f) {
@@ -68,11 +73,11 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3> EncodeJson<Tuple3<A1, A2, A3>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3()))
-        );
+        return tuple -> Json.JObject.builder(3)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .freeze();
     }
 
     public static <A1, A2, A3, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, Function<TT, Tuple3<A1, A2, A3>> f) {
@@ -80,12 +85,12 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4> EncodeJson<Tuple4<A1, A2, A3, A4>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4()))
-        );
+        return tuple -> Json.JObject.builder(4)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, Function<TT, Tuple4<A1, A2, A3, A4>> f) {
@@ -93,13 +98,13 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5> EncodeJson<Tuple5<A1, A2, A3, A4, A5>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5()))
-        );
+        return tuple -> Json.JObject.builder(5)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, Function<TT, Tuple5<A1, A2, A3, A4, A5>> f) {
@@ -107,14 +112,14 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6> EncodeJson<Tuple6<A1, A2, A3, A4, A5, A6>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6()))
-        );
+        return tuple -> Json.JObject.builder(6)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, Function<TT, Tuple6<A1, A2, A3, A4, A5, A6>> f) {
@@ -122,15 +127,15 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7> EncodeJson<Tuple7<A1, A2, A3, A4, A5, A6, A7>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7()))
-        );
+        return tuple -> Json.JObject.builder(7)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, Function<TT, Tuple7<A1, A2, A3, A4, A5, A6, A7>> f) {
@@ -138,16 +143,16 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8> EncodeJson<Tuple8<A1, A2, A3, A4, A5, A6, A7, A8>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7())),
-                Json.tuple(e8.name, e8.toJson(tuple._8()))
-        );
+        return tuple -> Json.JObject.builder(8)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .put(e8.name, e8.toJson(tuple._8()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, Function<TT, Tuple8<A1, A2, A3, A4, A5, A6, A7, A8>> f) {
@@ -155,17 +160,17 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9> EncodeJson<Tuple9<A1, A2, A3, A4, A5, A6, A7, A8, A9>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7())),
-                Json.tuple(e8.name, e8.toJson(tuple._8())),
-                Json.tuple(e9.name, e9.toJson(tuple._9()))
-        );
+        return tuple -> Json.JObject.builder(9)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .put(e8.name, e8.toJson(tuple._8()))
+                .put(e9.name, e9.toJson(tuple._9()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, Function<TT, Tuple9<A1, A2, A3, A4, A5, A6, A7, A8, A9>> f) {
@@ -173,18 +178,18 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10> EncodeJson<Tuple10<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7())),
-                Json.tuple(e8.name, e8.toJson(tuple._8())),
-                Json.tuple(e9.name, e9.toJson(tuple._9())),
-                Json.tuple(e10.name, e10.toJson(tuple._10()))
-        );
+        return tuple -> Json.JObject.builder(10)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .put(e8.name, e8.toJson(tuple._8()))
+                .put(e9.name, e9.toJson(tuple._9()))
+                .put(e10.name, e10.toJson(tuple._10()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, Function<TT, Tuple10<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10>> f) {
@@ -192,19 +197,19 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11> EncodeJson<Tuple11<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7())),
-                Json.tuple(e8.name, e8.toJson(tuple._8())),
-                Json.tuple(e9.name, e9.toJson(tuple._9())),
-                Json.tuple(e10.name, e10.toJson(tuple._10())),
-                Json.tuple(e11.name, e11.toJson(tuple._11()))
-        );
+        return tuple -> Json.JObject.builder(11)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .put(e8.name, e8.toJson(tuple._8()))
+                .put(e9.name, e9.toJson(tuple._9()))
+                .put(e10.name, e10.toJson(tuple._10()))
+                .put(e11.name, e11.toJson(tuple._11()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, Function<TT, Tuple11<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11>> f) {
@@ -212,20 +217,20 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12> EncodeJson<Tuple12<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7())),
-                Json.tuple(e8.name, e8.toJson(tuple._8())),
-                Json.tuple(e9.name, e9.toJson(tuple._9())),
-                Json.tuple(e10.name, e10.toJson(tuple._10())),
-                Json.tuple(e11.name, e11.toJson(tuple._11())),
-                Json.tuple(e12.name, e12.toJson(tuple._12()))
-        );
+        return tuple -> Json.JObject.builder(12)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .put(e8.name, e8.toJson(tuple._8()))
+                .put(e9.name, e9.toJson(tuple._9()))
+                .put(e10.name, e10.toJson(tuple._10()))
+                .put(e11.name, e11.toJson(tuple._11()))
+                .put(e12.name, e12.toJson(tuple._12()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, Function<TT, Tuple12<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12>> f) {
@@ -233,21 +238,21 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13> EncodeJson<Tuple13<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7())),
-                Json.tuple(e8.name, e8.toJson(tuple._8())),
-                Json.tuple(e9.name, e9.toJson(tuple._9())),
-                Json.tuple(e10.name, e10.toJson(tuple._10())),
-                Json.tuple(e11.name, e11.toJson(tuple._11())),
-                Json.tuple(e12.name, e12.toJson(tuple._12())),
-                Json.tuple(e13.name, e13.toJson(tuple._13()))
-        );
+        return tuple -> Json.JObject.builder(13)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .put(e8.name, e8.toJson(tuple._8()))
+                .put(e9.name, e9.toJson(tuple._9()))
+                .put(e10.name, e10.toJson(tuple._10()))
+                .put(e11.name, e11.toJson(tuple._11()))
+                .put(e12.name, e12.toJson(tuple._12()))
+                .put(e13.name, e13.toJson(tuple._13()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, Function<TT, Tuple13<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13>> f) {
@@ -255,22 +260,22 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14> EncodeJson<Tuple14<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7())),
-                Json.tuple(e8.name, e8.toJson(tuple._8())),
-                Json.tuple(e9.name, e9.toJson(tuple._9())),
-                Json.tuple(e10.name, e10.toJson(tuple._10())),
-                Json.tuple(e11.name, e11.toJson(tuple._11())),
-                Json.tuple(e12.name, e12.toJson(tuple._12())),
-                Json.tuple(e13.name, e13.toJson(tuple._13())),
-                Json.tuple(e14.name, e14.toJson(tuple._14()))
-        );
+        return tuple -> Json.JObject.builder(14)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .put(e8.name, e8.toJson(tuple._8()))
+                .put(e9.name, e9.toJson(tuple._9()))
+                .put(e10.name, e10.toJson(tuple._10()))
+                .put(e11.name, e11.toJson(tuple._11()))
+                .put(e12.name, e12.toJson(tuple._12()))
+                .put(e13.name, e13.toJson(tuple._13()))
+                .put(e14.name, e14.toJson(tuple._14()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, Function<TT, Tuple14<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14>> f) {
@@ -278,23 +283,23 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15> EncodeJson<Tuple15<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7())),
-                Json.tuple(e8.name, e8.toJson(tuple._8())),
-                Json.tuple(e9.name, e9.toJson(tuple._9())),
-                Json.tuple(e10.name, e10.toJson(tuple._10())),
-                Json.tuple(e11.name, e11.toJson(tuple._11())),
-                Json.tuple(e12.name, e12.toJson(tuple._12())),
-                Json.tuple(e13.name, e13.toJson(tuple._13())),
-                Json.tuple(e14.name, e14.toJson(tuple._14())),
-                Json.tuple(e15.name, e15.toJson(tuple._15()))
-        );
+        return tuple -> Json.JObject.builder(15)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .put(e8.name, e8.toJson(tuple._8()))
+                .put(e9.name, e9.toJson(tuple._9()))
+                .put(e10.name, e10.toJson(tuple._10()))
+                .put(e11.name, e11.toJson(tuple._11()))
+                .put(e12.name, e12.toJson(tuple._12()))
+                .put(e13.name, e13.toJson(tuple._13()))
+                .put(e14.name, e14.toJson(tuple._14()))
+                .put(e15.name, e15.toJson(tuple._15()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, Function<TT, Tuple15<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15>> f) {
@@ -302,24 +307,24 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16> EncodeJson<Tuple16<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7())),
-                Json.tuple(e8.name, e8.toJson(tuple._8())),
-                Json.tuple(e9.name, e9.toJson(tuple._9())),
-                Json.tuple(e10.name, e10.toJson(tuple._10())),
-                Json.tuple(e11.name, e11.toJson(tuple._11())),
-                Json.tuple(e12.name, e12.toJson(tuple._12())),
-                Json.tuple(e13.name, e13.toJson(tuple._13())),
-                Json.tuple(e14.name, e14.toJson(tuple._14())),
-                Json.tuple(e15.name, e15.toJson(tuple._15())),
-                Json.tuple(e16.name, e16.toJson(tuple._16()))
-        );
+        return tuple -> Json.JObject.builder(16)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .put(e8.name, e8.toJson(tuple._8()))
+                .put(e9.name, e9.toJson(tuple._9()))
+                .put(e10.name, e10.toJson(tuple._10()))
+                .put(e11.name, e11.toJson(tuple._11()))
+                .put(e12.name, e12.toJson(tuple._12()))
+                .put(e13.name, e13.toJson(tuple._13()))
+                .put(e14.name, e14.toJson(tuple._14()))
+                .put(e15.name, e15.toJson(tuple._15()))
+                .put(e16.name, e16.toJson(tuple._16()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, Function<TT, Tuple16<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16>> f) {
@@ -327,25 +332,25 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17> EncodeJson<Tuple17<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7())),
-                Json.tuple(e8.name, e8.toJson(tuple._8())),
-                Json.tuple(e9.name, e9.toJson(tuple._9())),
-                Json.tuple(e10.name, e10.toJson(tuple._10())),
-                Json.tuple(e11.name, e11.toJson(tuple._11())),
-                Json.tuple(e12.name, e12.toJson(tuple._12())),
-                Json.tuple(e13.name, e13.toJson(tuple._13())),
-                Json.tuple(e14.name, e14.toJson(tuple._14())),
-                Json.tuple(e15.name, e15.toJson(tuple._15())),
-                Json.tuple(e16.name, e16.toJson(tuple._16())),
-                Json.tuple(e17.name, e17.toJson(tuple._17()))
-        );
+        return tuple -> Json.JObject.builder(17)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .put(e8.name, e8.toJson(tuple._8()))
+                .put(e9.name, e9.toJson(tuple._9()))
+                .put(e10.name, e10.toJson(tuple._10()))
+                .put(e11.name, e11.toJson(tuple._11()))
+                .put(e12.name, e12.toJson(tuple._12()))
+                .put(e13.name, e13.toJson(tuple._13()))
+                .put(e14.name, e14.toJson(tuple._14()))
+                .put(e15.name, e15.toJson(tuple._15()))
+                .put(e16.name, e16.toJson(tuple._16()))
+                .put(e17.name, e17.toJson(tuple._17()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, Function<TT, Tuple17<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17>> f) {
@@ -353,26 +358,26 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18> EncodeJson<Tuple18<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, FieldEncoder<A18> e18) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7())),
-                Json.tuple(e8.name, e8.toJson(tuple._8())),
-                Json.tuple(e9.name, e9.toJson(tuple._9())),
-                Json.tuple(e10.name, e10.toJson(tuple._10())),
-                Json.tuple(e11.name, e11.toJson(tuple._11())),
-                Json.tuple(e12.name, e12.toJson(tuple._12())),
-                Json.tuple(e13.name, e13.toJson(tuple._13())),
-                Json.tuple(e14.name, e14.toJson(tuple._14())),
-                Json.tuple(e15.name, e15.toJson(tuple._15())),
-                Json.tuple(e16.name, e16.toJson(tuple._16())),
-                Json.tuple(e17.name, e17.toJson(tuple._17())),
-                Json.tuple(e18.name, e18.toJson(tuple._18()))
-        );
+        return tuple -> Json.JObject.builder(18)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .put(e8.name, e8.toJson(tuple._8()))
+                .put(e9.name, e9.toJson(tuple._9()))
+                .put(e10.name, e10.toJson(tuple._10()))
+                .put(e11.name, e11.toJson(tuple._11()))
+                .put(e12.name, e12.toJson(tuple._12()))
+                .put(e13.name, e13.toJson(tuple._13()))
+                .put(e14.name, e14.toJson(tuple._14()))
+                .put(e15.name, e15.toJson(tuple._15()))
+                .put(e16.name, e16.toJson(tuple._16()))
+                .put(e17.name, e17.toJson(tuple._17()))
+                .put(e18.name, e18.toJson(tuple._18()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, FieldEncoder<A18> e18, Function<TT, Tuple18<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18>> f) {
@@ -380,27 +385,27 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19> EncodeJson<Tuple19<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, FieldEncoder<A18> e18, FieldEncoder<A19> e19) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7())),
-                Json.tuple(e8.name, e8.toJson(tuple._8())),
-                Json.tuple(e9.name, e9.toJson(tuple._9())),
-                Json.tuple(e10.name, e10.toJson(tuple._10())),
-                Json.tuple(e11.name, e11.toJson(tuple._11())),
-                Json.tuple(e12.name, e12.toJson(tuple._12())),
-                Json.tuple(e13.name, e13.toJson(tuple._13())),
-                Json.tuple(e14.name, e14.toJson(tuple._14())),
-                Json.tuple(e15.name, e15.toJson(tuple._15())),
-                Json.tuple(e16.name, e16.toJson(tuple._16())),
-                Json.tuple(e17.name, e17.toJson(tuple._17())),
-                Json.tuple(e18.name, e18.toJson(tuple._18())),
-                Json.tuple(e19.name, e19.toJson(tuple._19()))
-        );
+        return tuple -> Json.JObject.builder(19)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .put(e8.name, e8.toJson(tuple._8()))
+                .put(e9.name, e9.toJson(tuple._9()))
+                .put(e10.name, e10.toJson(tuple._10()))
+                .put(e11.name, e11.toJson(tuple._11()))
+                .put(e12.name, e12.toJson(tuple._12()))
+                .put(e13.name, e13.toJson(tuple._13()))
+                .put(e14.name, e14.toJson(tuple._14()))
+                .put(e15.name, e15.toJson(tuple._15()))
+                .put(e16.name, e16.toJson(tuple._16()))
+                .put(e17.name, e17.toJson(tuple._17()))
+                .put(e18.name, e18.toJson(tuple._18()))
+                .put(e19.name, e19.toJson(tuple._19()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, FieldEncoder<A18> e18, FieldEncoder<A19> e19, Function<TT, Tuple19<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19>> f) {
@@ -408,28 +413,28 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20> EncodeJson<Tuple20<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, FieldEncoder<A18> e18, FieldEncoder<A19> e19, FieldEncoder<A20> e20) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7())),
-                Json.tuple(e8.name, e8.toJson(tuple._8())),
-                Json.tuple(e9.name, e9.toJson(tuple._9())),
-                Json.tuple(e10.name, e10.toJson(tuple._10())),
-                Json.tuple(e11.name, e11.toJson(tuple._11())),
-                Json.tuple(e12.name, e12.toJson(tuple._12())),
-                Json.tuple(e13.name, e13.toJson(tuple._13())),
-                Json.tuple(e14.name, e14.toJson(tuple._14())),
-                Json.tuple(e15.name, e15.toJson(tuple._15())),
-                Json.tuple(e16.name, e16.toJson(tuple._16())),
-                Json.tuple(e17.name, e17.toJson(tuple._17())),
-                Json.tuple(e18.name, e18.toJson(tuple._18())),
-                Json.tuple(e19.name, e19.toJson(tuple._19())),
-                Json.tuple(e20.name, e20.toJson(tuple._20()))
-        );
+        return tuple -> Json.JObject.builder(20)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .put(e8.name, e8.toJson(tuple._8()))
+                .put(e9.name, e9.toJson(tuple._9()))
+                .put(e10.name, e10.toJson(tuple._10()))
+                .put(e11.name, e11.toJson(tuple._11()))
+                .put(e12.name, e12.toJson(tuple._12()))
+                .put(e13.name, e13.toJson(tuple._13()))
+                .put(e14.name, e14.toJson(tuple._14()))
+                .put(e15.name, e15.toJson(tuple._15()))
+                .put(e16.name, e16.toJson(tuple._16()))
+                .put(e17.name, e17.toJson(tuple._17()))
+                .put(e18.name, e18.toJson(tuple._18()))
+                .put(e19.name, e19.toJson(tuple._19()))
+                .put(e20.name, e20.toJson(tuple._20()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, FieldEncoder<A18> e18, FieldEncoder<A19> e19, FieldEncoder<A20> e20, Function<TT, Tuple20<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20>> f) {
@@ -437,29 +442,29 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21> EncodeJson<Tuple21<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, FieldEncoder<A18> e18, FieldEncoder<A19> e19, FieldEncoder<A20> e20, FieldEncoder<A21> e21) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7())),
-                Json.tuple(e8.name, e8.toJson(tuple._8())),
-                Json.tuple(e9.name, e9.toJson(tuple._9())),
-                Json.tuple(e10.name, e10.toJson(tuple._10())),
-                Json.tuple(e11.name, e11.toJson(tuple._11())),
-                Json.tuple(e12.name, e12.toJson(tuple._12())),
-                Json.tuple(e13.name, e13.toJson(tuple._13())),
-                Json.tuple(e14.name, e14.toJson(tuple._14())),
-                Json.tuple(e15.name, e15.toJson(tuple._15())),
-                Json.tuple(e16.name, e16.toJson(tuple._16())),
-                Json.tuple(e17.name, e17.toJson(tuple._17())),
-                Json.tuple(e18.name, e18.toJson(tuple._18())),
-                Json.tuple(e19.name, e19.toJson(tuple._19())),
-                Json.tuple(e20.name, e20.toJson(tuple._20())),
-                Json.tuple(e21.name, e21.toJson(tuple._21()))
-        );
+        return tuple -> Json.JObject.builder(21)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .put(e8.name, e8.toJson(tuple._8()))
+                .put(e9.name, e9.toJson(tuple._9()))
+                .put(e10.name, e10.toJson(tuple._10()))
+                .put(e11.name, e11.toJson(tuple._11()))
+                .put(e12.name, e12.toJson(tuple._12()))
+                .put(e13.name, e13.toJson(tuple._13()))
+                .put(e14.name, e14.toJson(tuple._14()))
+                .put(e15.name, e15.toJson(tuple._15()))
+                .put(e16.name, e16.toJson(tuple._16()))
+                .put(e17.name, e17.toJson(tuple._17()))
+                .put(e18.name, e18.toJson(tuple._18()))
+                .put(e19.name, e19.toJson(tuple._19()))
+                .put(e20.name, e20.toJson(tuple._20()))
+                .put(e21.name, e21.toJson(tuple._21()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, FieldEncoder<A18> e18, FieldEncoder<A19> e19, FieldEncoder<A20> e20, FieldEncoder<A21> e21, Function<TT, Tuple21<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21>> f) {
@@ -467,30 +472,30 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22> EncodeJson<Tuple22<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, FieldEncoder<A18> e18, FieldEncoder<A19> e19, FieldEncoder<A20> e20, FieldEncoder<A21> e21, FieldEncoder<A22> e22) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7())),
-                Json.tuple(e8.name, e8.toJson(tuple._8())),
-                Json.tuple(e9.name, e9.toJson(tuple._9())),
-                Json.tuple(e10.name, e10.toJson(tuple._10())),
-                Json.tuple(e11.name, e11.toJson(tuple._11())),
-                Json.tuple(e12.name, e12.toJson(tuple._12())),
-                Json.tuple(e13.name, e13.toJson(tuple._13())),
-                Json.tuple(e14.name, e14.toJson(tuple._14())),
-                Json.tuple(e15.name, e15.toJson(tuple._15())),
-                Json.tuple(e16.name, e16.toJson(tuple._16())),
-                Json.tuple(e17.name, e17.toJson(tuple._17())),
-                Json.tuple(e18.name, e18.toJson(tuple._18())),
-                Json.tuple(e19.name, e19.toJson(tuple._19())),
-                Json.tuple(e20.name, e20.toJson(tuple._20())),
-                Json.tuple(e21.name, e21.toJson(tuple._21())),
-                Json.tuple(e22.name, e22.toJson(tuple._22()))
-        );
+        return tuple -> Json.JObject.builder(22)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .put(e8.name, e8.toJson(tuple._8()))
+                .put(e9.name, e9.toJson(tuple._9()))
+                .put(e10.name, e10.toJson(tuple._10()))
+                .put(e11.name, e11.toJson(tuple._11()))
+                .put(e12.name, e12.toJson(tuple._12()))
+                .put(e13.name, e13.toJson(tuple._13()))
+                .put(e14.name, e14.toJson(tuple._14()))
+                .put(e15.name, e15.toJson(tuple._15()))
+                .put(e16.name, e16.toJson(tuple._16()))
+                .put(e17.name, e17.toJson(tuple._17()))
+                .put(e18.name, e18.toJson(tuple._18()))
+                .put(e19.name, e19.toJson(tuple._19()))
+                .put(e20.name, e20.toJson(tuple._20()))
+                .put(e21.name, e21.toJson(tuple._21()))
+                .put(e22.name, e22.toJson(tuple._22()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, FieldEncoder<A18> e18, FieldEncoder<A19> e19, FieldEncoder<A20> e20, FieldEncoder<A21> e21, FieldEncoder<A22> e22, Function<TT, Tuple22<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22>> f) {
@@ -498,31 +503,31 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, A23> EncodeJson<Tuple23<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, A23>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, FieldEncoder<A18> e18, FieldEncoder<A19> e19, FieldEncoder<A20> e20, FieldEncoder<A21> e21, FieldEncoder<A22> e22, FieldEncoder<A23> e23) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7())),
-                Json.tuple(e8.name, e8.toJson(tuple._8())),
-                Json.tuple(e9.name, e9.toJson(tuple._9())),
-                Json.tuple(e10.name, e10.toJson(tuple._10())),
-                Json.tuple(e11.name, e11.toJson(tuple._11())),
-                Json.tuple(e12.name, e12.toJson(tuple._12())),
-                Json.tuple(e13.name, e13.toJson(tuple._13())),
-                Json.tuple(e14.name, e14.toJson(tuple._14())),
-                Json.tuple(e15.name, e15.toJson(tuple._15())),
-                Json.tuple(e16.name, e16.toJson(tuple._16())),
-                Json.tuple(e17.name, e17.toJson(tuple._17())),
-                Json.tuple(e18.name, e18.toJson(tuple._18())),
-                Json.tuple(e19.name, e19.toJson(tuple._19())),
-                Json.tuple(e20.name, e20.toJson(tuple._20())),
-                Json.tuple(e21.name, e21.toJson(tuple._21())),
-                Json.tuple(e22.name, e22.toJson(tuple._22())),
-                Json.tuple(e23.name, e23.toJson(tuple._23()))
-        );
+        return tuple -> Json.JObject.builder(23)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .put(e8.name, e8.toJson(tuple._8()))
+                .put(e9.name, e9.toJson(tuple._9()))
+                .put(e10.name, e10.toJson(tuple._10()))
+                .put(e11.name, e11.toJson(tuple._11()))
+                .put(e12.name, e12.toJson(tuple._12()))
+                .put(e13.name, e13.toJson(tuple._13()))
+                .put(e14.name, e14.toJson(tuple._14()))
+                .put(e15.name, e15.toJson(tuple._15()))
+                .put(e16.name, e16.toJson(tuple._16()))
+                .put(e17.name, e17.toJson(tuple._17()))
+                .put(e18.name, e18.toJson(tuple._18()))
+                .put(e19.name, e19.toJson(tuple._19()))
+                .put(e20.name, e20.toJson(tuple._20()))
+                .put(e21.name, e21.toJson(tuple._21()))
+                .put(e22.name, e22.toJson(tuple._22()))
+                .put(e23.name, e23.toJson(tuple._23()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, A23, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, FieldEncoder<A18> e18, FieldEncoder<A19> e19, FieldEncoder<A20> e20, FieldEncoder<A21> e21, FieldEncoder<A22> e22, FieldEncoder<A23> e23, Function<TT, Tuple23<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, A23>> f) {
@@ -530,32 +535,32 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, A23, A24> EncodeJson<Tuple24<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, A23, A24>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, FieldEncoder<A18> e18, FieldEncoder<A19> e19, FieldEncoder<A20> e20, FieldEncoder<A21> e21, FieldEncoder<A22> e22, FieldEncoder<A23> e23, FieldEncoder<A24> e24) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7())),
-                Json.tuple(e8.name, e8.toJson(tuple._8())),
-                Json.tuple(e9.name, e9.toJson(tuple._9())),
-                Json.tuple(e10.name, e10.toJson(tuple._10())),
-                Json.tuple(e11.name, e11.toJson(tuple._11())),
-                Json.tuple(e12.name, e12.toJson(tuple._12())),
-                Json.tuple(e13.name, e13.toJson(tuple._13())),
-                Json.tuple(e14.name, e14.toJson(tuple._14())),
-                Json.tuple(e15.name, e15.toJson(tuple._15())),
-                Json.tuple(e16.name, e16.toJson(tuple._16())),
-                Json.tuple(e17.name, e17.toJson(tuple._17())),
-                Json.tuple(e18.name, e18.toJson(tuple._18())),
-                Json.tuple(e19.name, e19.toJson(tuple._19())),
-                Json.tuple(e20.name, e20.toJson(tuple._20())),
-                Json.tuple(e21.name, e21.toJson(tuple._21())),
-                Json.tuple(e22.name, e22.toJson(tuple._22())),
-                Json.tuple(e23.name, e23.toJson(tuple._23())),
-                Json.tuple(e24.name, e24.toJson(tuple._24()))
-        );
+        return tuple -> Json.JObject.builder(24)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .put(e8.name, e8.toJson(tuple._8()))
+                .put(e9.name, e9.toJson(tuple._9()))
+                .put(e10.name, e10.toJson(tuple._10()))
+                .put(e11.name, e11.toJson(tuple._11()))
+                .put(e12.name, e12.toJson(tuple._12()))
+                .put(e13.name, e13.toJson(tuple._13()))
+                .put(e14.name, e14.toJson(tuple._14()))
+                .put(e15.name, e15.toJson(tuple._15()))
+                .put(e16.name, e16.toJson(tuple._16()))
+                .put(e17.name, e17.toJson(tuple._17()))
+                .put(e18.name, e18.toJson(tuple._18()))
+                .put(e19.name, e19.toJson(tuple._19()))
+                .put(e20.name, e20.toJson(tuple._20()))
+                .put(e21.name, e21.toJson(tuple._21()))
+                .put(e22.name, e22.toJson(tuple._22()))
+                .put(e23.name, e23.toJson(tuple._23()))
+                .put(e24.name, e24.toJson(tuple._24()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, A23, A24, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, FieldEncoder<A18> e18, FieldEncoder<A19> e19, FieldEncoder<A20> e20, FieldEncoder<A21> e21, FieldEncoder<A22> e22, FieldEncoder<A23> e23, FieldEncoder<A24> e24, Function<TT, Tuple24<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, A23, A24>> f) {
@@ -563,33 +568,33 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, A23, A24, A25> EncodeJson<Tuple25<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, A23, A24, A25>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, FieldEncoder<A18> e18, FieldEncoder<A19> e19, FieldEncoder<A20> e20, FieldEncoder<A21> e21, FieldEncoder<A22> e22, FieldEncoder<A23> e23, FieldEncoder<A24> e24, FieldEncoder<A25> e25) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7())),
-                Json.tuple(e8.name, e8.toJson(tuple._8())),
-                Json.tuple(e9.name, e9.toJson(tuple._9())),
-                Json.tuple(e10.name, e10.toJson(tuple._10())),
-                Json.tuple(e11.name, e11.toJson(tuple._11())),
-                Json.tuple(e12.name, e12.toJson(tuple._12())),
-                Json.tuple(e13.name, e13.toJson(tuple._13())),
-                Json.tuple(e14.name, e14.toJson(tuple._14())),
-                Json.tuple(e15.name, e15.toJson(tuple._15())),
-                Json.tuple(e16.name, e16.toJson(tuple._16())),
-                Json.tuple(e17.name, e17.toJson(tuple._17())),
-                Json.tuple(e18.name, e18.toJson(tuple._18())),
-                Json.tuple(e19.name, e19.toJson(tuple._19())),
-                Json.tuple(e20.name, e20.toJson(tuple._20())),
-                Json.tuple(e21.name, e21.toJson(tuple._21())),
-                Json.tuple(e22.name, e22.toJson(tuple._22())),
-                Json.tuple(e23.name, e23.toJson(tuple._23())),
-                Json.tuple(e24.name, e24.toJson(tuple._24())),
-                Json.tuple(e25.name, e25.toJson(tuple._25()))
-        );
+        return tuple -> Json.JObject.builder(25)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .put(e8.name, e8.toJson(tuple._8()))
+                .put(e9.name, e9.toJson(tuple._9()))
+                .put(e10.name, e10.toJson(tuple._10()))
+                .put(e11.name, e11.toJson(tuple._11()))
+                .put(e12.name, e12.toJson(tuple._12()))
+                .put(e13.name, e13.toJson(tuple._13()))
+                .put(e14.name, e14.toJson(tuple._14()))
+                .put(e15.name, e15.toJson(tuple._15()))
+                .put(e16.name, e16.toJson(tuple._16()))
+                .put(e17.name, e17.toJson(tuple._17()))
+                .put(e18.name, e18.toJson(tuple._18()))
+                .put(e19.name, e19.toJson(tuple._19()))
+                .put(e20.name, e20.toJson(tuple._20()))
+                .put(e21.name, e21.toJson(tuple._21()))
+                .put(e22.name, e22.toJson(tuple._22()))
+                .put(e23.name, e23.toJson(tuple._23()))
+                .put(e24.name, e24.toJson(tuple._24()))
+                .put(e25.name, e25.toJson(tuple._25()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, A23, A24, A25, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, FieldEncoder<A18> e18, FieldEncoder<A19> e19, FieldEncoder<A20> e20, FieldEncoder<A21> e21, FieldEncoder<A22> e22, FieldEncoder<A23> e23, FieldEncoder<A24> e24, FieldEncoder<A25> e25, Function<TT, Tuple25<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, A23, A24, A25>> f) {
@@ -597,34 +602,34 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, A23, A24, A25, A26> EncodeJson<Tuple26<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, A23, A24, A25, A26>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, FieldEncoder<A18> e18, FieldEncoder<A19> e19, FieldEncoder<A20> e20, FieldEncoder<A21> e21, FieldEncoder<A22> e22, FieldEncoder<A23> e23, FieldEncoder<A24> e24, FieldEncoder<A25> e25, FieldEncoder<A26> e26) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7())),
-                Json.tuple(e8.name, e8.toJson(tuple._8())),
-                Json.tuple(e9.name, e9.toJson(tuple._9())),
-                Json.tuple(e10.name, e10.toJson(tuple._10())),
-                Json.tuple(e11.name, e11.toJson(tuple._11())),
-                Json.tuple(e12.name, e12.toJson(tuple._12())),
-                Json.tuple(e13.name, e13.toJson(tuple._13())),
-                Json.tuple(e14.name, e14.toJson(tuple._14())),
-                Json.tuple(e15.name, e15.toJson(tuple._15())),
-                Json.tuple(e16.name, e16.toJson(tuple._16())),
-                Json.tuple(e17.name, e17.toJson(tuple._17())),
-                Json.tuple(e18.name, e18.toJson(tuple._18())),
-                Json.tuple(e19.name, e19.toJson(tuple._19())),
-                Json.tuple(e20.name, e20.toJson(tuple._20())),
-                Json.tuple(e21.name, e21.toJson(tuple._21())),
-                Json.tuple(e22.name, e22.toJson(tuple._22())),
-                Json.tuple(e23.name, e23.toJson(tuple._23())),
-                Json.tuple(e24.name, e24.toJson(tuple._24())),
-                Json.tuple(e25.name, e25.toJson(tuple._25())),
-                Json.tuple(e26.name, e26.toJson(tuple._26()))
-        );
+        return tuple -> Json.JObject.builder(26)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .put(e8.name, e8.toJson(tuple._8()))
+                .put(e9.name, e9.toJson(tuple._9()))
+                .put(e10.name, e10.toJson(tuple._10()))
+                .put(e11.name, e11.toJson(tuple._11()))
+                .put(e12.name, e12.toJson(tuple._12()))
+                .put(e13.name, e13.toJson(tuple._13()))
+                .put(e14.name, e14.toJson(tuple._14()))
+                .put(e15.name, e15.toJson(tuple._15()))
+                .put(e16.name, e16.toJson(tuple._16()))
+                .put(e17.name, e17.toJson(tuple._17()))
+                .put(e18.name, e18.toJson(tuple._18()))
+                .put(e19.name, e19.toJson(tuple._19()))
+                .put(e20.name, e20.toJson(tuple._20()))
+                .put(e21.name, e21.toJson(tuple._21()))
+                .put(e22.name, e22.toJson(tuple._22()))
+                .put(e23.name, e23.toJson(tuple._23()))
+                .put(e24.name, e24.toJson(tuple._24()))
+                .put(e25.name, e25.toJson(tuple._25()))
+                .put(e26.name, e26.toJson(tuple._26()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, A23, A24, A25, A26, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, FieldEncoder<A18> e18, FieldEncoder<A19> e19, FieldEncoder<A20> e20, FieldEncoder<A21> e21, FieldEncoder<A22> e22, FieldEncoder<A23> e23, FieldEncoder<A24> e24, FieldEncoder<A25> e25, FieldEncoder<A26> e26, Function<TT, Tuple26<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, A23, A24, A25, A26>> f) {
@@ -632,35 +637,35 @@ public abstract class Encoders {
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, A23, A24, A25, A26, A27> EncodeJson<Tuple27<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, A23, A24, A25, A26, A27>> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, FieldEncoder<A18> e18, FieldEncoder<A19> e19, FieldEncoder<A20> e20, FieldEncoder<A21> e21, FieldEncoder<A22> e22, FieldEncoder<A23> e23, FieldEncoder<A24> e24, FieldEncoder<A25> e25, FieldEncoder<A26> e26, FieldEncoder<A27> e27) {
-        return tuple -> Json.jObject(
-                Json.tuple(e1.name, e1.toJson(tuple._1())),
-                Json.tuple(e2.name, e2.toJson(tuple._2())),
-                Json.tuple(e3.name, e3.toJson(tuple._3())),
-                Json.tuple(e4.name, e4.toJson(tuple._4())),
-                Json.tuple(e5.name, e5.toJson(tuple._5())),
-                Json.tuple(e6.name, e6.toJson(tuple._6())),
-                Json.tuple(e7.name, e7.toJson(tuple._7())),
-                Json.tuple(e8.name, e8.toJson(tuple._8())),
-                Json.tuple(e9.name, e9.toJson(tuple._9())),
-                Json.tuple(e10.name, e10.toJson(tuple._10())),
-                Json.tuple(e11.name, e11.toJson(tuple._11())),
-                Json.tuple(e12.name, e12.toJson(tuple._12())),
-                Json.tuple(e13.name, e13.toJson(tuple._13())),
-                Json.tuple(e14.name, e14.toJson(tuple._14())),
-                Json.tuple(e15.name, e15.toJson(tuple._15())),
-                Json.tuple(e16.name, e16.toJson(tuple._16())),
-                Json.tuple(e17.name, e17.toJson(tuple._17())),
-                Json.tuple(e18.name, e18.toJson(tuple._18())),
-                Json.tuple(e19.name, e19.toJson(tuple._19())),
-                Json.tuple(e20.name, e20.toJson(tuple._20())),
-                Json.tuple(e21.name, e21.toJson(tuple._21())),
-                Json.tuple(e22.name, e22.toJson(tuple._22())),
-                Json.tuple(e23.name, e23.toJson(tuple._23())),
-                Json.tuple(e24.name, e24.toJson(tuple._24())),
-                Json.tuple(e25.name, e25.toJson(tuple._25())),
-                Json.tuple(e26.name, e26.toJson(tuple._26())),
-                Json.tuple(e27.name, e27.toJson(tuple._27()))
-        );
+        return tuple -> Json.JObject.builder(27)
+                .put(e1.name, e1.toJson(tuple._1()))
+                .put(e2.name, e2.toJson(tuple._2()))
+                .put(e3.name, e3.toJson(tuple._3()))
+                .put(e4.name, e4.toJson(tuple._4()))
+                .put(e5.name, e5.toJson(tuple._5()))
+                .put(e6.name, e6.toJson(tuple._6()))
+                .put(e7.name, e7.toJson(tuple._7()))
+                .put(e8.name, e8.toJson(tuple._8()))
+                .put(e9.name, e9.toJson(tuple._9()))
+                .put(e10.name, e10.toJson(tuple._10()))
+                .put(e11.name, e11.toJson(tuple._11()))
+                .put(e12.name, e12.toJson(tuple._12()))
+                .put(e13.name, e13.toJson(tuple._13()))
+                .put(e14.name, e14.toJson(tuple._14()))
+                .put(e15.name, e15.toJson(tuple._15()))
+                .put(e16.name, e16.toJson(tuple._16()))
+                .put(e17.name, e17.toJson(tuple._17()))
+                .put(e18.name, e18.toJson(tuple._18()))
+                .put(e19.name, e19.toJson(tuple._19()))
+                .put(e20.name, e20.toJson(tuple._20()))
+                .put(e21.name, e21.toJson(tuple._21()))
+                .put(e22.name, e22.toJson(tuple._22()))
+                .put(e23.name, e23.toJson(tuple._23()))
+                .put(e24.name, e24.toJson(tuple._24()))
+                .put(e25.name, e25.toJson(tuple._25()))
+                .put(e26.name, e26.toJson(tuple._26()))
+                .put(e27.name, e27.toJson(tuple._27()))
+                .freeze();
     }
 
     public static <A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, A23, A24, A25, A26, A27, TT> EncodeJson<TT> encode(FieldEncoder<A1> e1, FieldEncoder<A2> e2, FieldEncoder<A3> e3, FieldEncoder<A4> e4, FieldEncoder<A5> e5, FieldEncoder<A6> e6, FieldEncoder<A7> e7, FieldEncoder<A8> e8, FieldEncoder<A9> e9, FieldEncoder<A10> e10, FieldEncoder<A11> e11, FieldEncoder<A12> e12, FieldEncoder<A13> e13, FieldEncoder<A14> e14, FieldEncoder<A15> e15, FieldEncoder<A16> e16, FieldEncoder<A17> e17, FieldEncoder<A18> e18, FieldEncoder<A19> e19, FieldEncoder<A20> e20, FieldEncoder<A21> e21, FieldEncoder<A22> e22, FieldEncoder<A23> e23, FieldEncoder<A24> e24, FieldEncoder<A25> e25, FieldEncoder<A26> e26, FieldEncoder<A27> e27, Function<TT, Tuple27<A1, A2, A3, A4, A5, A6, A7, A8, A9, A10, A11, A12, A13, A14, A15, A16, A17, A18, A19, A20, A21, A22, A23, A24, A25, A26, A27>> f) {
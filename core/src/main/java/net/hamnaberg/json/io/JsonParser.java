@@ -1,6 +1,8 @@
 package net.hamnaberg.json.io;
 
 import net.hamnaberg.json.Json;
+import net.hamnaberg.json.JsonPool;
+import net.hamnaberg.json.JsonTreeBuilder;
 import net.hamnaberg.json.codec.DecodeJson;
 import net.hamnaberg.json.codec.DecodeResult;
 
@@ -12,6 +14,18 @@ import java.util.Optional;
 import java.util.concurrent.Callable;
 
 public abstract class JsonParser {
+    private final JsonPool pool;
+
+    protected JsonParser() {
+        this(null);
+    }
+
+    /**
+     * @param pool pool that parsed values are interned in while they are built, or null
+     */
+    protected JsonParser(JsonPool pool) {
+        this.pool = pool;
+    }
 
     public final Json.JValue parseUnsafe(ReadableByteChannel channel) {
         return parseUnsafe(Channels.newInputStream(channel));
@@ -22,7 +36,7 @@ public abstract class JsonParser {
     }
 
     public final Json.JValue parseUnsafe(byte[] bytes) {
-        return parseUnsafe(new ByteArrayInputStream(bytes));
+        return parseImpl(bytes);
     }
 
     public final Json.JValue parseUnsafe(String string) {
@@ -38,7 +52,7 @@ public abstract class JsonParser {
     }
 
     public final Optional<Json.JValue> parseOpt(byte[] bytes) {
-        return parseOpt(new ByteArrayInputStream(bytes));
+        return DecodeResult.fromCallable(() -> parseImpl(bytes)).toOption();
     }
 
     public final Optional<Json.JValue> parseOpt(InputStream is) {
@@ -77,5 +91,21 @@ public abstract class JsonParser {
         return DecodeResult.fromCallable(parsed).flatMap(decoder::fromJson);
     }
 
+    /**
+     * Tree builder for parsers that produce {@link net.hamnaberg.json.JsonVisitor} events,
+     * interning into the pool this parser was created with.
+     */
+    protected final JsonTreeBuilder treeBuilder() {
+        return new JsonTreeBuilder(pool);
+    }
+
     protected abstract Json.JValue parseImpl(Reader reader);
+
+    /**
+     * Parses UTF-8 encoded bytes. Parsers that work on bytes directly can override this
+     * to avoid decoding through {@link #parseImpl(Reader)}.
+     */
+    protected Json.JValue parseImpl(byte[] bytes) {
+        return parseImpl(new BufferedReader(new InputStreamReader(new ByteArrayInputStream(bytes), StandardCharsets.UTF_8)));
+    }
 }
@@ -0,0 +1,328 @@
+package net.hamnaberg.json.io;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Validating, allocation free scanner over UTF-8 encoded JSON.
+ * <p>
+ * {@link #scan(byte[], int, int, Handler)} walks the document once with an explicit stack, so nesting depth
+ * is only bounded by memory, and reports the position of every token to a {@link Handler}.
+ * Handlers decide what, if anything, to decode.
+ */
+final class JsonScanner {
+
+    interface Handler {
+        void startObject(int position);
+
+        void startArray(int position);
+
+        /**
+         * @param position the position of the closing bracket
+         */
+        void end(int position);
+
+        /**
+         * @param start position of the opening quote
+         * @param end   position after the closing quote
+         */
+        void name(int start, int end);
+
+        /**
+         * A string, number or literal. The byte at start tells which.
+         *
+         * @param start position of the first byte
+         * @param end   position after the last byte
+         */
+        void scalar(int start, int end);
+    }
+
+    private final byte[] bytes;
+    private final int limit;
+
+    private JsonScanner(byte[] bytes, int limit) {
+        this.bytes = bytes;
+        this.limit = limit;
+    }
+
+    /**
+     * @return the position of the root value
+     */
+    static int scan(byte[] bytes, int offset, int length, Handler handler) {
+        if (offset < 0 || length < 0 || offset + length > bytes.length) {
+            throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", size " + bytes.length);
+        }
+        return new JsonScanner(bytes, offset + length).scan(offset, handler);
+    }
+
+    /**
+     * Decodes the validated string starting with the quote at position.
+     */
+    static String decodeString(byte[] bytes, int position) {
+        int start = position + 1;
+        int i = start;
+        while (true) {
+            byte c = bytes[i];
+            if (c == '"') {
+                return new String(bytes, start, i - start, StandardCharsets.ISO_8859_1);
+            }
+            if (c == '\\' || c < 0) {
+                break;
+            }
+            i++;
+        }
+        StringBuilder builder = new StringBuilder(i - start + 16);
+        builder.append(new String(bytes, start, i - start, StandardCharsets.ISO_8859_1));
+        int run = i;
+        while (true) {
+            byte c = bytes[i];
+            if (c == '"') {
+                builder.append(new String(bytes, run, i - run, StandardCharsets.UTF_8));
+                return builder.toString();
+            }
+            if (c == '\\') {
+                builder.append(new String(bytes, run, i - run, StandardCharsets.UTF_8));
+                byte escaped = bytes[i + 1];
+                switch (escaped) {
+                    case 'b': builder.append('\b'); break;
+                    case 'f': builder.append('\f'); break;
+                    case 'n': builder.append('\n'); break;
+                    case 'r': builder.append('\r'); break;
+                    case 't': builder.append('\t'); break;
+                    case 'u':
+                        builder.append((char) (hex(bytes[i + 2]) << 12 | hex(bytes[i + 3]) << 8 | hex(bytes[i + 4]) << 4 | hex(bytes[i + 5])));
+                        i += 4;
+                        break;
+                    default: builder.append((char) escaped);
+                }
+                i += 2;
+                run = i;
+            } else {
+                i++;
+            }
+        }
+    }
+
+    /**
+     * @return true if the validated string starting with the quote at position contains escapes
+     */
+    static boolean hasEscapes(byte[] bytes, int start, int end) {
+        for (int i = start + 1; i < end - 1; i++) {
+            if (bytes[i] == '\\') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int scan(int position, Handler handler) {
+        // '{' or '[' for each open container
+        byte[] stack = new byte[16];
+        int depth = 0;
+        int root = position = skipWhitespace(position);
+        while (true) {
+            // a value is expected at position
+            if (position >= limit) {
+                throw error("Unexpected end of input", position);
+            }
+            byte c = bytes[position];
+            if (c == '{' || c == '[') {
+                if (c == '{') {
+                    handler.startObject(position);
+                } else {
+                    handler.startArray(position);
+                }
+                position = skipWhitespace(position + 1);
+                if (position < limit && bytes[position] == (c == '{' ? '}' : ']')) {
+                    handler.end(position++);
+                } else {
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                    }
+                    stack[depth++] = c;
+                    if (c == '{') {
+                        position = name(position, handler);
+                    }
+                    continue;
+                }
+            } else {
+                int end = scalar(position);
+                handler.scalar(position, end);
+                position = end;
+            }
+            // a value has been read, find the next one
+            while (true) {
+                position = skipWhitespace(position);
+                if (depth == 0) {
+                    if (position != limit) {
+                        throw error("Unexpected trailing content", position);
+                    }
+                    return root;
+                }
+                if (position >= limit) {
+                    throw error("Unexpected end of input", position);
+                }
+                boolean object = stack[depth - 1] == '{';
+                byte next = bytes[position];
+                if (next == ',') {
+                    position = skipWhitespace(position + 1);
+                    if (object) {
+                        position = name(position, handler);
+                    }
+                    break;
+                } else if (next == (object ? '}' : ']')) {
+                    handler.end(position++);
+                    depth--;
+                } else {
+                    throw error("Expected ',' or '" + (object ? '}' : ']') + "'", position);
+                }
+            }
+        }
+    }
+
+    private int name(int position, Handler handler) {
+        if (position >= limit || bytes[position] != '"') {
+            throw error("Expected field name", position);
+        }
+        int end = string(position);
+        handler.name(position, end);
+        position = skipWhitespace(end);
+        if (position >= limit || bytes[position] != ':') {
+            throw error("Expected ':'", position);
+        }
+        return skipWhitespace(position + 1);
+    }
+
+    private int scalar(int position) {
+        switch (bytes[position]) {
+            case '"':
+                return string(position);
+            case 't':
+                return literal(position, "true");
+            case 'f':
+                return literal(position, "false");
+            case 'n':
+                return literal(position, "null");
+            default:
+                return number(position);
+        }
+    }
+
+    private int literal(int position, String literal) {
+        if (position + literal.length() > limit) {
+            throw error("Unexpected end of input", limit);
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (bytes[position + i] != literal.charAt(i)) {
+                throw error("Expected '" + literal + "'", position);
+            }
+        }
+        return position + literal.length();
+    }
+
+    private int string(int position) {
+        int i = position + 1;
+        while (i < limit) {
+            byte c = bytes[i];
+            if (c == '"') {
+                return i + 1;
+            }
+            if (c == '\\') {
+                if (i + 1 >= limit) {
+                    break;
+                }
+                byte escaped = bytes[i + 1];
+                if (escaped == 'u') {
+                    if (i + 6 > limit) {
+                        break;
+                    }
+                    for (int h = i + 2; h < i + 6; h++) {
+                        if (hex(bytes[h]) < 0) {
+                            throw error("Invalid unicode escape", i);
+                        }
+                    }
+                    i += 6;
+                } else if (escaped == '"' || escaped == '\\' || escaped == '/' || escaped == 'b' || escaped == 'f' || escaped == 'n' || escaped == 'r' || escaped == 't') {
+                    i += 2;
+                } else {
+                    throw error("Invalid escape", i);
+                }
+            } else if (c >= 0 && c < 0x20) {
+                throw error("Unescaped control character in string", i);
+            } else {
+                i++;
+            }
+        }
+        throw error("Unterminated string", position);
+    }
+
+    private int number(int position) {
+        int i = position;
+        if (i < limit && bytes[i] == '-') {
+            i++;
+        }
+        if (i < limit && bytes[i] == '0') {
+            i++;
+        } else {
+            int digits = digits(i);
+            if (digits == i) {
+                throw error("Unexpected character '" + (char) (bytes[position] & 0xFF) + "'", position);
+            }
+            i = digits;
+        }
+        if (i < limit && bytes[i] == '.') {
+            int digits = digits(i + 1);
+            if (digits == i + 1) {
+                throw error("Expected digit", digits);
+            }
+            i = digits;
+        }
+        if (i < limit && (bytes[i] == 'e' || bytes[i] == 'E')) {
+            i++;
+            if (i < limit && (bytes[i] == '+' || bytes[i] == '-')) {
+                i++;
+            }
+            int digits = digits(i);
+            if (digits == i) {
+                throw error("Expected digit", digits);
+            }
+            i = digits;
+        }
+        return i;
+    }
+
+    private int digits(int position) {
+        while (position < limit && bytes[position] >= '0' && bytes[position] <= '9') {
+            position++;
+        }
+        return position;
+    }
+
+    private int skipWhitespace(int position) {
+        while (position < limit) {
+            byte c = bytes[position];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                break;
+            }
+            position++;
+        }
+        return position;
+    }
+
+    static int hex(byte c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        if (c >= 'A' && c <= 'F') {
+            return c - 'A' + 10;
+        }
+        return -1;
+    }
+
+    private static JsonParseException error(String message, int position) {
+        return new JsonParseException(message + " at offset " + position);
+    }
+}
@@ -4,13 +4,27 @@ import net.hamnaberg.json.Json;
 import net.hamnaberg.json.PrettyPrinter;
 
 import java.io.*;
-import java.nio.charset.StandardCharsets;
 
+/**
+ * Writes values as they are printed. Output is handed on in chunks of a few kilobytes, so memory use does not
+ * depend on the size of the document. The target is flushed once the value is complete, but not closed.
+ */
 public enum JsonSerializer {
     ;
 
     public static void write(Json.JValue value, OutputStream stream) {
-        write(value, new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+        write(value, stream, PrettyPrinter.nospaces());
+    }
+
+    public static void write(Json.JValue value, OutputStream stream, PrettyPrinter printer) {
+        try {
+            printer.writeTo(value, stream);
+            stream.flush();
+        } catch (PrettyPrinter.JsonWriteException e) {
+            throw new JsonWriteException(e.getCause());
+        } catch (IOException e) {
+            throw new JsonWriteException(e);
+        }
     }
 
     public static String writeToString(Json.JValue value, PrettyPrinter pretty) {
@@ -26,10 +40,11 @@ public enum JsonSerializer {
     }
 
     public static void write(Json.JValue value, Writer writer, PrettyPrinter printer) {
-        final BufferedWriter buffer = (writer instanceof BufferedWriter) ? ((BufferedWriter)writer) : new BufferedWriter(writer);
         try {
-            buffer.write(value.pretty(printer));
-            buffer.flush();
+            printer.writeTo(value, writer);
+            writer.flush();
+        } catch (PrettyPrinter.JsonWriteException e) {
+            throw new JsonWriteException(e.getCause());
         } catch (IOException e) {
             throw new JsonWriteException(e);
         }
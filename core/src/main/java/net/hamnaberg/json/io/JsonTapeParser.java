@@ -0,0 +1,126 @@
+package net.hamnaberg.json.io;
+
+import net.hamnaberg.json.JsonTape;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Parses UTF-8 encoded JSON straight into a {@link JsonTape}, without building any {@link net.hamnaberg.json.Json.JValue}s.
+ * Strings without escapes are copied into the tape as raw bytes.
+ */
+public final class JsonTapeParser {
+
+    public JsonTape parseUnsafe(byte[] bytes) {
+        return parseUnsafe(bytes, 0, bytes.length);
+    }
+
+    public JsonTape parseUnsafe(byte[] bytes, int offset, int length) {
+        TapeHandler handler = new TapeHandler(bytes);
+        JsonScanner.scan(bytes, offset, length, handler);
+        return handler.tape.build();
+    }
+
+    public JsonTape parseUnsafe(String string) {
+        return parseUnsafe(string.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public JsonTape parseUnsafe(InputStream is) {
+        try {
+            return parseUnsafe(is.readAllBytes());
+        } catch (IOException e) {
+            throw new JsonParseException(e);
+        }
+    }
+
+    public Optional<JsonTape> parseOpt(byte[] bytes) {
+        try {
+            return Optional.of(parseUnsafe(bytes));
+        } catch (JsonParseException e) {
+            return Optional.empty();
+        }
+    }
+
+    public Optional<JsonTape> parseOpt(String string) {
+        return parseOpt(string.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class TapeHandler implements JsonScanner.Handler {
+        private final byte[] bytes;
+        private final JsonTape.Builder tape = JsonTape.builder();
+
+        TapeHandler(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public void startObject(int position) {
+            tape.startObject();
+        }
+
+        @Override
+        public void startArray(int position) {
+            tape.startArray();
+        }
+
+        @Override
+        public void end(int position) {
+            tape.end();
+        }
+
+        @Override
+        public void name(int start, int end) {
+            string(start, end);
+        }
+
+        @Override
+        public void scalar(int start, int end) {
+            switch (bytes[start]) {
+                case '"':
+                    string(start, end);
+                    break;
+                case 't':
+                    tape.bool(true);
+                    break;
+                case 'f':
+                    tape.bool(false);
+                    break;
+                case 'n':
+                    tape.nullValue();
+                    break;
+                default:
+                    number(start, end);
+            }
+        }
+
+        private void string(int start, int end) {
+            if (JsonScanner.hasEscapes(bytes, start, end)) {
+                tape.string(JsonScanner.decodeString(bytes, start));
+            } else {
+                tape.utf8String(bytes, start + 1, end - start - 2);
+            }
+        }
+
+        private void number(int start, int end) {
+            if (end - start <= 18) {
+                long value = 0;
+                int i = bytes[start] == '-' ? start + 1 : start;
+                for (; i < end; i++) {
+                    byte c = bytes[i];
+                    if (c < '0' || c > '9') {
+                        break;
+                    }
+                    value = value * 10 + (c - '0');
+                }
+                if (i == end) {
+                    tape.number(bytes[start] == '-' ? -value : value);
+                    return;
+                }
+            }
+            tape.number(new BigDecimal(new String(bytes, start, end - start, StandardCharsets.ISO_8859_1)));
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package net.hamnaberg.json.io;
+
+import net.hamnaberg.json.Json;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Array values of a {@link LazyDocument}. The member offsets are located on first access,
+ * and each value is decoded the first time it is read.
+ */
+final class LazyArray extends AbstractList<Json.JValue> implements RandomAccess, Serializable {
+    private final LazyDocument document;
+    private final int container;
+    private final int size;
+    private volatile Slots slots;
+
+    LazyArray(LazyDocument document, int container) {
+        this.document = document;
+        this.container = container;
+        this.size = document.members(container);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Json.JValue get(int index) {
+        Objects.checkIndex(index, size);
+        Slots s = slots();
+        Json.JValue value = s.values[index];
+        if (value == null) {
+            value = document.valueAt(s.positions[index], s.containers[index]);
+            s.values[index] = value;
+        }
+        return value;
+    }
+
+    private Slots slots() {
+        Slots s = slots;
+        if (s == null) {
+            s = new Slots(size);
+            int position = document.firstMember(container);
+            int child = container + 1;
+            for (int i = 0; i < size; i++) {
+                s.positions[i] = position;
+                s.containers[i] = child;
+                int end = document.skipValue(position, child);
+                byte c = document.byteAt(position);
+                if (c == '{' || c == '[') {
+                    child = document.next(child);
+                }
+                position = document.afterMember(end);
+            }
+            slots = s;
+        }
+        return s;
+    }
+
+    private Object writeReplace() {
+        return new ArrayList<>(this);
+    }
+
+    private static final class Slots {
+        final int[] positions;
+        final int[] containers;
+        final Json.JValue[] values;
+
+        Slots(int size) {
+            this.positions = new int[size];
+            this.containers = new int[size];
+            this.values = new Json.JValue[size];
+        }
+    }
+}
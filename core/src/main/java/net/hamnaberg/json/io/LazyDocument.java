@@ -0,0 +1,231 @@
+package net.hamnaberg.json.io;
+
+import net.hamnaberg.json.Json;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Structural index over a UTF-8 encoded JSON document.
+ * <p>
+ * {@link #parse(byte[], int, int)} validates the whole document with {@link JsonScanner} without allocating
+ * any values, and records the offsets of every object and array in document order.
+ * Containers are numbered by that order, so the children of container {@code k} start at
+ * number {@code k + 1} and a container's subtree ends at {@link #next(int)}.
+ * Values are then decoded from the bytes on demand by {@link LazyObject} and {@link LazyArray}.
+ */
+final class LazyDocument implements JsonScanner.Handler {
+    private final byte[] bytes;
+    private final int limit;
+    private int[] starts;
+    private int[] ends;
+    private int[] nexts;
+    private int[] members;
+    private int count;
+    private int[] open = new int[16];
+    private int depth;
+
+    private LazyDocument(byte[] bytes, int limit) {
+        this.bytes = bytes;
+        this.limit = limit;
+        this.starts = new int[16];
+        this.ends = new int[16];
+        this.nexts = new int[16];
+        this.members = new int[16];
+    }
+
+    static Json.JValue parse(byte[] bytes, int offset, int length) {
+        LazyDocument document = new LazyDocument(bytes, offset + length);
+        int start = JsonScanner.scan(bytes, offset, length, document);
+        document.open = null;
+        return document.valueAt(start, 0);
+    }
+
+    int start(int container) {
+        return starts[container];
+    }
+
+    int next(int container) {
+        return nexts[container];
+    }
+
+    int members(int container) {
+        return members[container];
+    }
+
+    byte byteAt(int position) {
+        return bytes[position];
+    }
+
+    /**
+     * @return the position of the first value or key inside a container, or of its closing bracket
+     */
+    int firstMember(int container) {
+        return skipWhitespace(starts[container] + 1);
+    }
+
+    /**
+     * @return the position of the next value or key after a member of a container, or of its closing bracket
+     */
+    int afterMember(int position) {
+        position = skipWhitespace(position);
+        return bytes[position] == ',' ? skipWhitespace(position + 1) : position;
+    }
+
+    /**
+     * @return the position just after the value starting at position
+     */
+    int skipValue(int position, int container) {
+        byte c = bytes[position];
+        if (c == '{' || c == '[') {
+            return ends[container] + 1;
+        }
+        return skipScalar(position);
+    }
+
+    /**
+     * @return the position of the value following the key starting at position
+     */
+    int valueOfKey(int position) {
+        return skipWhitespace(skipWhitespace(skipString(position)) + 1);
+    }
+
+    Json.JValue valueAt(int position, int container) {
+        switch (bytes[position]) {
+            case '{':
+                return new Json.JObject(new LazyObject(this, container));
+            case '[':
+                return new Json.JArray(new LazyArray(this, container));
+            case '"':
+                return Json.jString(decodeString(position));
+            case 't':
+                return Json.jBoolean(true);
+            case 'f':
+                return Json.jBoolean(false);
+            case 'n':
+                return Json.jNull();
+            default:
+                return decodeNumber(position);
+        }
+    }
+
+    String decodeString(int position) {
+        return JsonScanner.decodeString(bytes, position);
+    }
+
+    private Json.JNumber decodeNumber(int position) {
+        int end = skipNumber(position);
+        int digits = end - position;
+        if (digits <= 18) {
+            long value = 0;
+            int i = bytes[position] == '-' ? position + 1 : position;
+            for (; i < end; i++) {
+                byte c = bytes[i];
+                if (c < '0' || c > '9') {
+                    return Json.jNumber(new BigDecimal(new String(bytes, position, digits, StandardCharsets.ISO_8859_1)));
+                }
+                value = value * 10 + (c - '0');
+            }
+            return Json.jNumber(bytes[position] == '-' ? -value : value);
+        }
+        return Json.jNumber(new BigDecimal(new String(bytes, position, digits, StandardCharsets.ISO_8859_1)));
+    }
+
+    @Override
+    public void startObject(int position) {
+        open(position);
+    }
+
+    @Override
+    public void startArray(int position) {
+        open(position);
+    }
+
+    @Override
+    public void end(int position) {
+        int container = open[--depth];
+        ends[container] = position;
+        nexts[container] = count;
+    }
+
+    @Override
+    public void name(int start, int end) {
+    }
+
+    @Override
+    public void scalar(int start, int end) {
+        if (depth > 0) {
+            members[open[depth - 1]]++;
+        }
+    }
+
+    private void open(int position) {
+        if (depth > 0) {
+            members[open[depth - 1]]++;
+        }
+        if (count == starts.length) {
+            int size = count * 2;
+            starts = Arrays.copyOf(starts, size);
+            ends = Arrays.copyOf(ends, size);
+            nexts = Arrays.copyOf(nexts, size);
+            members = Arrays.copyOf(members, size);
+        }
+        if (depth == open.length) {
+            open = Arrays.copyOf(open, depth * 2);
+        }
+        starts[count] = position;
+        open[depth++] = count++;
+    }
+
+    // the scanners below only run over a document that has been validated
+
+    private int skipScalar(int position) {
+        switch (bytes[position]) {
+            case '"':
+                return skipString(position);
+            case 't':
+            case 'n':
+                return position + 4;
+            case 'f':
+                return position + 5;
+            default:
+                return skipNumber(position);
+        }
+    }
+
+    private int skipString(int position) {
+        int i = position + 1;
+        while (true) {
+            byte c = bytes[i];
+            if (c == '"') {
+                return i + 1;
+            }
+            i += c == '\\' ? 2 : 1;
+        }
+    }
+
+    private int skipNumber(int position) {
+        int i = position + 1;
+        while (i < limit) {
+            byte c = bytes[i];
+            if ((c >= '0' && c <= '9') || c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                i++;
+            } else {
+                break;
+            }
+        }
+        return i;
+    }
+
+    private int skipWhitespace(int position) {
+        while (position < limit) {
+            byte c = bytes[position];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                break;
+            }
+            position++;
+        }
+        return position;
+    }
+}
@@ -0,0 +1,55 @@
+package net.hamnaberg.json.io;
+
+import net.hamnaberg.json.Json;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parser that builds its values on demand.
+ * <p>
+ * Parsing validates the input and records where each object and array starts and ends, nothing else.
+ * Object fields, array elements, strings and numbers are decoded from the source bytes the first time
+ * they are accessed, so a large document where only a few fields are read is cheap to parse.
+ * The returned values are ordinary {@link Json.JValue}s and work with every decoder, pointer and printer.
+ * <p>
+ * The values keep a reference to the source bytes, which must not be modified while they are in use.
+ * There is no limit on nesting depth, unlike {@code JacksonStreamingParser}; a document may nest
+ * as deep as memory allows.
+ * Input that arrives as a {@link Reader} or {@link java.io.InputStream} is read fully into memory first.
+ */
+public final class LazyJsonParser extends JsonParser {
+
+    public Json.JValue parseUnsafe(byte[] bytes, int offset, int length) {
+        return LazyDocument.parse(bytes, offset, length);
+    }
+
+    /**
+     * Parses the remaining bytes of the buffer without consuming them.
+     * Heap buffers are used in place, other buffers are copied.
+     */
+    public Json.JValue parseUnsafe(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            return LazyDocument.parse(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        }
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return LazyDocument.parse(bytes, 0, bytes.length);
+    }
+
+    @Override
+    protected Json.JValue parseImpl(byte[] bytes) {
+        return LazyDocument.parse(bytes, 0, bytes.length);
+    }
+
+    @Override
+    protected Json.JValue parseImpl(Reader reader) {
+        try {
+            return parseImpl(IOUtils.toString(reader).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new JsonParseException(e);
+        }
+    }
+}
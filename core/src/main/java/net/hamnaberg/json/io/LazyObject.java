@@ -0,0 +1,164 @@
+package net.hamnaberg.json.io;
+
+import net.hamnaberg.json.Json;
+
+import java.io.Serializable;
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Object fields of a {@link LazyDocument}. The field names and value offsets are decoded on first access,
+ * and each value is decoded the first time it is read. Duplicate names keep their first position and last value.
+ */
+final class LazyObject extends AbstractMap<String, Json.JValue> implements Serializable {
+    private static final int LINEAR_SCAN_LIMIT = 8;
+
+    private final LazyDocument document;
+    private final int container;
+    private volatile Fields fields;
+
+    LazyObject(LazyDocument document, int container) {
+        this.document = document;
+        this.container = container;
+    }
+
+    @Override
+    public int size() {
+        return fields().size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return document.members(container) == 0;
+    }
+
+    @Override
+    public Json.JValue get(Object key) {
+        Fields f = fields();
+        int index = f.indexOf(key);
+        return index < 0 ? null : f.value(document, index);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return fields().indexOf(key) >= 0;
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super String, ? super Json.JValue> action) {
+        Fields f = fields();
+        for (int i = 0; i < f.size; i++) {
+            action.accept(f.keys[i], f.value(document, i));
+        }
+    }
+
+    @Override
+    public Set<Entry<String, Json.JValue>> entrySet() {
+        Fields f = fields();
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Json.JValue>> iterator() {
+                return new Iterator<>() {
+                    private int index = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < f.size;
+                    }
+
+                    @Override
+                    public Entry<String, Json.JValue> next() {
+                        if (index >= f.size) {
+                            throw new NoSuchElementException();
+                        }
+                        int i = index++;
+                        return new SimpleImmutableEntry<>(f.keys[i], f.value(document, i));
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return f.size;
+            }
+        };
+    }
+
+    private Fields fields() {
+        Fields f = fields;
+        if (f == null) {
+            f = new Fields(document.members(container));
+            int position = document.firstMember(container);
+            int child = container + 1;
+            for (int i = 0; i < f.keys.length; i++) {
+                String key = document.decodeString(position);
+                int valuePosition = document.valueOfKey(position);
+                int end = document.skipValue(valuePosition, child);
+                f.put(key, valuePosition, child);
+                byte c = document.byteAt(valuePosition);
+                if (c == '{' || c == '[') {
+                    child = document.next(child);
+                }
+                position = document.afterMember(end);
+            }
+            fields = f;
+        }
+        return f;
+    }
+
+    private Object writeReplace() {
+        return new LinkedHashMap<>(this);
+    }
+
+    private static final class Fields {
+        final String[] keys;
+        final int[] positions;
+        final int[] containers;
+        final Json.JValue[] values;
+        HashMap<String, Integer> index;
+        int size;
+
+        Fields(int capacity) {
+            this.keys = new String[capacity];
+            this.positions = new int[capacity];
+            this.containers = new int[capacity];
+            this.values = new Json.JValue[capacity];
+            if (capacity > LINEAR_SCAN_LIMIT) {
+                index = new HashMap<>((int) Math.ceil(capacity / 0.75));
+            }
+        }
+
+        void put(String key, int position, int container) {
+            int existing = indexOf(key);
+            int slot = existing < 0 ? size++ : existing;
+            keys[slot] = key;
+            positions[slot] = position;
+            containers[slot] = container;
+            if (existing < 0 && index != null) {
+                index.put(key, slot);
+            }
+        }
+
+        int indexOf(Object key) {
+            if (index != null) {
+                Integer slot = index.get(key);
+                return slot == null ? -1 : slot;
+            }
+            for (int i = 0; i < size; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        Json.JValue value(LazyDocument document, int slot) {
+            Json.JValue value = values[slot];
+            if (value == null) {
+                value = document.valueAt(positions[slot], containers[slot]);
+                values[slot] = value;
+            }
+            return value;
+        }
+    }
+}
@@ -34,5 +34,24 @@ public abstract class JsonParserAbstractTest {
         assertEquals(Integer.valueOf(3), JsonPointer.compile("/collection/items/0/data").select(parsed).map(v -> v.asJsonArrayOrEmpty().size()).orElse(0));
     }
 
+    @Test
+    public void parseDeeplyNested() {
+        int depth = 20000;
+        String json = "{\"a\":[".repeat(depth) + "1" + "]}".repeat(depth);
+        Json.JValue parsed = getParser().parseUnsafe(json);
+        assertEquals(json, parsed.nospaces());
+    }
+
+    @Test
+    public void parseNumericArrays() {
+        String json = "{\"longs\":[1,-2,3],\"doubles\":[0.5,1,-2.25],\"decimals\":[1.10,2],\"mixed\":[1,\"a\"]}";
+        Json.JObject parsed = getParser().parseUnsafe(json).asJsonObjectOrEmpty();
+        assertEquals(json, parsed.nospaces());
+        assertArrayEquals(new long[]{1, -2, 3}, parsed.getAsArrayOrEmpty("longs").toLongArray());
+        assertArrayEquals(new double[]{0.5, 1, -2.25}, parsed.getAsArrayOrEmpty("doubles").toDoubleArray(), 0.0);
+        assertEquals(Json.JArray.ofDoubles(0.5, 1, -2.25), parsed.getAsArrayOrEmpty("doubles"));
+        assertArrayEquals(new double[]{1.1, 2}, parsed.getAsArrayOrEmpty("decimals").toDoubleArray(), 0.0);
+    }
+
     protected abstract JsonParser getParser();
 }
@@ -4,12 +4,15 @@ package net.hamnaberg.json.io;
 import net.hamnaberg.json.Json;
 import org.junit.Test;
 
-import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.StringWriter;
+import java.io.Writer;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
 
 public class JsonSerializerTest {
 
@@ -43,4 +46,62 @@ public class JsonSerializerTest {
 
         assertEquals(expected, JsonSerializer.writeToString(object));
     }
+
+    @Test
+    public void streamsInChunks() {
+        Json.JArray.Builder builder = Json.JArray.builder();
+        for (int i = 0; i < 100000; i++) {
+            builder.add(Json.jObject("name", "item " + i));
+        }
+        Json.JArray array = builder.freeze();
+        String expected = array.nospaces();
+
+        int[] largest = new int[1];
+        StringBuilder received = new StringBuilder();
+        JsonSerializer.write(array, new Writer() {
+            @Override
+            public void write(char[] buffer, int offset, int length) {
+                largest[0] = Math.max(largest[0], length);
+                received.append(buffer, offset, length);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        assertEquals(expected, received.toString());
+        assertTrue(largest[0] <= 8192);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JsonSerializer.write(array, new OutputStream() {
+            @Override
+            public void write(int b) {
+                bytes.write(b);
+            }
+
+            @Override
+            public void write(byte[] buffer, int offset, int length) {
+                largest[0] = Math.max(largest[0], length);
+                bytes.write(buffer, offset, length);
+            }
+        });
+        assertEquals(expected, bytes.toString(java.nio.charset.StandardCharsets.UTF_8));
+        assertTrue(largest[0] <= 8192);
+    }
+
+    @Test
+    public void failingTarget() {
+        OutputStream failing = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("closed");
+            }
+        };
+        JsonWriteException e = assertThrows(JsonWriteException.class, () -> JsonSerializer.write(Json.jObject("meh", "hello"), failing));
+        assertTrue(e.getCause() instanceof IOException);
+    }
 }
@@ -0,0 +1,48 @@
+package net.hamnaberg.json.io;
+
+import net.hamnaberg.json.Json;
+import net.hamnaberg.json.JsonTape;
+import net.hamnaberg.json.pointer.JsonPointer;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.Assert.*;
+
+public class JsonTapeParserTest {
+    private final JsonTapeParser parser = new JsonTapeParser();
+
+    @Test
+    public void parseItemsJson() {
+        JsonTape tape = parser.parseUnsafe(getClass().getResourceAsStream("/items.json"));
+        Json.JValue parsed = new LazyJsonParser().parseUnsafe(getClass().getResourceAsStream("/items.json"));
+        assertEquals(parsed, tape.toJValue());
+        assertEquals(Optional.of(Json.jString("feed")), JsonPointer.compile("/collection/links/0/rel").select(tape));
+    }
+
+    @Test
+    public void scalarsAndEscapes() {
+        String json = "{\"a\\nb\": [1, -12345678901234567890, 2.5e-3, \"x\\u00e6\\\"\", \"\u00f8\", true, false, null]}";
+        Json.JValue expected = Json.jObject("a\nb", Json.jArray(
+                Json.jNumber(1),
+                Json.jNumber(new BigDecimal("-12345678901234567890")),
+                Json.jNumber(new BigDecimal("2.5e-3")),
+                Json.jString("x\u00e6\""),
+                Json.jString("\u00f8"),
+                Json.jBoolean(true),
+                Json.jBoolean(false),
+                Json.jNull()
+        ));
+        assertEquals(expected, parser.parseUnsafe(json).toJValue());
+    }
+
+    @Test
+    public void invalidInput() {
+        for (String json : List.of("", "[1,]", "{\"a\":}", "[\"\\q\"]", "{} x")) {
+            assertThrows(json, JsonParseException.class, () -> parser.parseUnsafe(json));
+            assertEquals(Optional.empty(), parser.parseOpt(json));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package net.hamnaberg.json.io;
+
+import net.hamnaberg.json.Json;
+import net.hamnaberg.json.pointer.JsonPointer;
+import org.junit.Test;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+public class LazyJsonParserTest extends JsonParserAbstractTest {
+    private final LazyJsonParser parser = new LazyJsonParser();
+
+    @Override
+    protected JsonParser getParser() {
+        return parser;
+    }
+
+    @Test
+    public void scalars() {
+        assertEquals(Json.jNull(), parser.parseUnsafe(" null "));
+        assertEquals(Json.jBoolean(true), parser.parseUnsafe("true"));
+        assertEquals(Json.jNumber(-12), parser.parseUnsafe("-12"));
+        assertEquals(Json.jNumber(new BigDecimal("12345678901234567890")), parser.parseUnsafe("12345678901234567890"));
+        assertEquals(Json.jNumber(new BigDecimal("-1.5e10")), parser.parseUnsafe("-1.5e10"));
+        assertEquals(Json.jString("a\"b\\c/\n\u00e6\u2603\ud83d\ude00"), parser.parseUnsafe("\"a\\\"b\\\\c\\/\\n\u00e6\\u2603\ud83d\ude00\""));
+    }
+
+    @Test
+    public void nested() {
+        Json.JValue value = parser.parseUnsafe("{\"a\": [1, {\"b\": []}, [[]], {}], \"c\": {\"d\": \"e\"}, \"f\": 2.5}");
+        Json.JValue expected = Json.jObject(
+                Json.tuple("a", Json.jArray(Json.jNumber(1), Json.jObject("b", Json.jEmptyArray()), Json.JArray.builder().add(Json.jEmptyArray()).freeze(), Json.jEmptyObject())),
+                Json.tuple("c", Json.jObject("d", "e")),
+                Json.tuple("f", Json.jNumber(new BigDecimal("2.5")))
+        );
+        assertEquals(expected, value);
+        assertEquals(expected.hashCode(), value.hashCode());
+        assertEquals(Optional.of(Json.jString("e")), JsonPointer.compile("/c/d").select(value));
+        assertEquals(List.of("a", "c", "f"), new ArrayList<>(value.asJsonObjectOrEmpty().keySet()));
+    }
+
+    @Test
+    public void duplicateNamesKeepFirstPositionAndLastValue() {
+        Json.JObject object = parser.parseUnsafe("{\"a\":1,\"b\":2,\"a\":{\"x\":[3]}}").asJsonObjectOrEmpty();
+        assertEquals(2, object.size());
+        assertEquals(List.of("a", "b"), new ArrayList<>(object.keySet()));
+        assertEquals(Json.jObject("x", Json.jArray(Json.jNumber(3))), object.getValue().get("a"));
+    }
+
+    @Test
+    public void sameAsSerializedInput() {
+        Random random = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            Json.JValue value = randomValue(random, 0);
+            for (String json : List.of(value.nospaces(), value.spaces4())) {
+                Json.JValue parsed = parser.parseUnsafe(json.getBytes(StandardCharsets.UTF_8));
+                assertEquals(json, value, parsed);
+                assertEquals(json, parsed.nospaces(), value.nospaces());
+            }
+        }
+    }
+
+    @Test
+    public void byteRanges() {
+        byte[] bytes = "xx[1,2]12345".getBytes(StandardCharsets.UTF_8);
+        assertEquals(Json.jArray(Json.jNumber(1), Json.jNumber(2)), parser.parseUnsafe(bytes, 2, 5));
+        assertEquals(Json.jNumber(12), parser.parseUnsafe(bytes, 7, 2));
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 7, 3);
+        assertEquals(Json.jNumber(123), parser.parseUnsafe(buffer));
+        assertEquals(Json.jNumber(123), parser.parseUnsafe(buffer.asReadOnlyBuffer()));
+        ByteBuffer direct = ByteBuffer.allocateDirect(3).put("[0]".getBytes(StandardCharsets.UTF_8)).flip();
+        assertEquals(Json.jArray(Json.jNumber(0)), parser.parseUnsafe(direct));
+    }
+
+    @Test
+    public void invalidInput() {
+        for (String json : List.of("", " ", "{", "[1,]", "{\"a\" 1}", "{\"a\":1,}", "[1 2]", "01", "-", "1.", "1e", "tru", "nul",
+                "\"abc", "\"\\x\"", "\"\\u12g4\"", "\"a\u0001\"", "{} {}", "[}", "{]", "{1:2}")) {
+            assertThrows(json, JsonParseException.class, () -> parser.parseUnsafe(json));
+            assertEquals(json, Optional.empty(), parser.parseOpt(json.getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @Test
+    public void deeplyNested() {
+        int depth = 100000;
+        String json = "[".repeat(depth) + "]".repeat(depth);
+        Json.JValue value = parser.parseUnsafe(json);
+        assertEquals(1, value.asJsonArrayOrEmpty().size());
+        Json.JValue copy = parser.parseUnsafe(json);
+        assertEquals(value.hashCode(), copy.hashCode());
+        assertTrue(value.equals(copy));
+        assertEquals(value.toString(), copy.toString());
+    }
+
+    @Test
+    public void serializable() throws IOException, ClassNotFoundException {
+        Json.JValue value = parser.parseUnsafe("{\"a\":[1,{\"b\":null}],\"c\":\"d\"}");
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bos)) {
+            out.writeObject(value);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bos.toByteArray()))) {
+            assertEquals(value, in.readObject());
+        }
+    }
+
+    private static Json.JValue randomValue(Random random, int depth) {
+        switch (random.nextInt(depth > 3 ? 5 : 7)) {
+            case 0:
+                return Json.jNull();
+            case 1:
+                return Json.jBoolean(random.nextBoolean());
+            case 2:
+                return random.nextBoolean() ? Json.jNumber(random.nextLong()) : Json.jNumber(new BigDecimal(random.nextGaussian() * 1000).setScale(random.nextInt(5), java.math.RoundingMode.HALF_UP));
+            case 3:
+            case 4: {
+                StringBuilder builder = new StringBuilder();
+                for (int i = random.nextInt(10); i > 0; i--) {
+                    builder.append((char) (random.nextBoolean() ? 'a' + random.nextInt(26) : random.nextInt(0x3000)));
+                }
+                return Json.jString(builder.toString());
+            }
+            case 5: {
+                Json.JArray.Builder builder = Json.JArray.builder();
+                for (int i = random.nextInt(6); i > 0; i--) {
+                    builder.add(randomValue(random, depth + 1));
+                }
+                return builder.freeze();
+            }
+            default: {
+                Json.JObject.Builder builder = Json.JObject.builder();
+                for (int i = random.nextInt(12); i > 0; i--) {
+                    builder.put("k" + random.nextInt(20), randomValue(random, depth + 1));
+                }
+                return builder.freeze();
+            }
+        }
+    }
+}
@@ -1,36 +1,60 @@
 package net.hamnaberg.json.glassfish;
 
 import net.hamnaberg.json.Json;
+import net.hamnaberg.json.JsonPool;
+import net.hamnaberg.json.JsonTreeBuilder;
 import net.hamnaberg.json.io.JsonParseException;
 
 import java.io.Reader;
-import java.util.*;
+import java.math.BigDecimal;
 
 import jakarta.json.stream.JsonParser;
 
+/**
+ * Parser backed by the Jakarta JSON Processing streaming parser.
+ * <p>
+ * There is no limit on nesting depth, unlike {@code JacksonStreamingParser}; a document may nest
+ * as deep as memory allows.
+ */
 public final class GlassfishJsonParser extends net.hamnaberg.json.io.JsonParser {
-    private final EnumSet<JsonParser.Event> scalarSet =
-            EnumSet.of(
-                    JsonParser.Event.VALUE_STRING,
-                    JsonParser.Event.VALUE_NUMBER,
-                    JsonParser.Event.VALUE_TRUE,
-                    JsonParser.Event.VALUE_FALSE,
-                    JsonParser.Event.VALUE_NULL
-            );
+    public GlassfishJsonParser() {
+    }
+
+    /**
+     * @param pool pool that parsed values are interned in
+     */
+    public GlassfishJsonParser(JsonPool pool) {
+        super(pool);
+    }
 
     @Override
     protected Json.JValue parseImpl(Reader reader) {
         JsonParser parser = jakarta.json.Json.createParser(reader);
+        JsonTreeBuilder builder = treeBuilder();
         try {
-            JsonParser.Event event;
-
-            while ((event = parser.next()) != null) {
-                if (event == JsonParser.Event.START_OBJECT) {
-                    return handleObject(parser);
-                } else if (event == JsonParser.Event.START_ARRAY) {
-                    return handleArray(parser);
-                } else if (isScalar(event)) {
-                    return handleScalarValue(event, parser);
+            while (parser.hasNext()) {
+                JsonParser.Event event = parser.next();
+                switch (event) {
+                    case START_OBJECT:
+                        builder.startObject();
+                        break;
+                    case END_OBJECT:
+                        builder.endObject();
+                        break;
+                    case START_ARRAY:
+                        builder.startArray();
+                        break;
+                    case END_ARRAY:
+                        builder.endArray();
+                        break;
+                    case KEY_NAME:
+                        builder.name(parser.getString());
+                        break;
+                    default:
+                        builder.value(handleScalarValue(event, parser));
+                }
+                if (builder.isComplete()) {
+                    return builder.result();
                 }
             }
         } catch (Exception e) {
@@ -45,6 +69,10 @@ public final class GlassfishJsonParser extends net.hamnaberg.json.io.JsonParser
             case VALUE_STRING:
                 return Json.jString(parser.getString());
             case VALUE_NUMBER:
+                if (parser.isIntegralNumber()) {
+                    BigDecimal number = parser.getBigDecimal();
+                    return number.scale() == 0 && number.unscaledValue().bitLength() < 64 ? Json.jNumber(number.longValueExact()) : Json.jNumber(number);
+                }
                 return Json.jNumber(parser.getBigDecimal());
             case VALUE_TRUE:
                 return Json.jBoolean(true);
@@ -56,44 +84,4 @@ public final class GlassfishJsonParser extends net.hamnaberg.json.io.JsonParser
                 throw new IllegalArgumentException("Not a scalar value " + event);
         }
     }
-
-    private boolean isScalar(JsonParser.Event event) {
-        return scalarSet.contains(event);
-    }
-
-    private Json.JArray handleArray(JsonParser parser) {
-        JsonParser.Event event;
-        List<Json.JValue> list = new ArrayList<>();
-        while ((event = parser.next()) != JsonParser.Event.END_ARRAY) {
-            if (isScalar(event)) {
-                list.add(handleScalarValue(event, parser));
-            } else if (event == JsonParser.Event.START_OBJECT) {
-                list.add(handleObject(parser));
-            } else if (event == JsonParser.Event.START_ARRAY) {
-                list.add(handleArray(parser));
-            }
-        }
-        return Json.jArray(list);
-    }
-
-    private Json.JObject handleObject(JsonParser parser) {
-        Map<String, Json.JValue> map = new LinkedHashMap<>();
-        JsonParser.Event event;
-        String name = null;
-        while ((event = parser.next()) != JsonParser.Event.END_OBJECT) {
-            if (event == JsonParser.Event.KEY_NAME) {
-                name = parser.getString();
-            }
-            if (name != null) {
-                if (isScalar(event)) {
-                    map.put(name, handleScalarValue(event, parser));
-                } else if (event == JsonParser.Event.START_OBJECT) {
-                    map.put(name, handleObject(parser));
-                } else if (event == JsonParser.Event.START_ARRAY) {
-                    map.put(name, handleArray(parser));
-                }
-            }
-        }
-        return Json.jObject(map);
-    }
 }
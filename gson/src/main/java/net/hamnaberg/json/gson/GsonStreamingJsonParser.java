@@ -5,33 +5,67 @@ import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonToken;
 
 import net.hamnaberg.json.Json;
+import net.hamnaberg.json.JsonPool;
+import net.hamnaberg.json.JsonTreeBuilder;
 import net.hamnaberg.json.io.JsonParseException;
 import net.hamnaberg.json.io.JsonParser;
 
 import java.io.IOException;
 import java.io.Reader;
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.Map;
-
 
+/**
+ * Parser backed by the Gson streaming reader.
+ * <p>
+ * There is no limit on nesting depth, unlike {@code JacksonStreamingParser}; a document may nest
+ * as deep as memory allows.
+ */
 public class GsonStreamingJsonParser extends JsonParser {
     private Gson gson = new Gson();
 
+    public GsonStreamingJsonParser() {
+    }
+
+    /**
+     * @param pool pool that parsed values are interned in
+     */
+    public GsonStreamingJsonParser(JsonPool pool) {
+        super(pool);
+    }
+
     @Override
     protected Json.JValue parseImpl(Reader dataReader) {
         JsonReader jsonReader = gson.newJsonReader(dataReader);
+        JsonTreeBuilder builder = treeBuilder();
 
         try {
-            while (jsonReader.hasNext()) {
-                JsonToken token = jsonReader.peek();
-                if (isObject(token)) {
-                    return parseObject(jsonReader);
-                } else if (isArray(token)) {
-                    return parseArray(jsonReader);
-                } else if (isScalarValue(token)) {
-                    return parseScalarValue(token, jsonReader);
+            JsonToken token;
+            while ((token = jsonReader.peek()) != JsonToken.END_DOCUMENT) {
+                switch (token) {
+                    case BEGIN_OBJECT:
+                        jsonReader.beginObject();
+                        builder.startObject();
+                        break;
+                    case END_OBJECT:
+                        jsonReader.endObject();
+                        builder.endObject();
+                        break;
+                    case BEGIN_ARRAY:
+                        jsonReader.beginArray();
+                        builder.startArray();
+                        break;
+                    case END_ARRAY:
+                        jsonReader.endArray();
+                        builder.endArray();
+                        break;
+                    case NAME:
+                        builder.name(jsonReader.nextName());
+                        break;
+                    default:
+                        builder.value(parseScalarValue(token, jsonReader));
+                }
+                if (builder.isComplete()) {
+                    return builder.result();
                 }
             }
         } catch (IOException e) {
@@ -45,7 +79,7 @@ public class GsonStreamingJsonParser extends JsonParser {
             case STRING:
                 return Json.jString(reader.nextString());
             case NUMBER:
-                return Json.jNumber(new BigDecimal(reader.nextString()));
+                return parseNumber(reader.nextString());
             case BOOLEAN:
                 return Json.jBoolean(reader.nextBoolean());
             case NULL:
@@ -56,61 +90,19 @@ public class GsonStreamingJsonParser extends JsonParser {
         }
     }
 
-    private Json.JArray parseArray(JsonReader reader) throws IOException {
-        ArrayList<Json.JValue> list = new ArrayList<>();
-        reader.beginArray();
-        while (reader.hasNext()) {
-            JsonToken token = reader.peek();
-            if (isObject(token)) {
-                list.add(parseObject(reader));
-            } else if (isArray(token)) {
-                list.add(parseArray(reader));
-            } else if (isScalarValue(token)) {
-                list.add(parseScalarValue(token, reader));
+    private Json.JNumber parseNumber(String number) {
+        int length = number.length();
+        // at most 18 digits always fits in a long
+        if (length <= 18) {
+            boolean integral = true;
+            for (int i = 0; i < length && integral; i++) {
+                char c = number.charAt(i);
+                integral = (c >= '0' && c <= '9') || (i == 0 && c == '-' && length > 1);
             }
-        }
-        reader.endArray();
-
-        return Json.jArray(list);
-    }
-
-    private Json.JObject parseObject(JsonReader reader) throws IOException {
-        Map<String, Json.JValue> map = new LinkedHashMap<>();
-        reader.beginObject();
-        while (reader.hasNext()) {
-            String name = reader.nextName();
-
-            JsonToken token = reader.peek();
-            if (isObject(token)) {
-                map.put(name, parseObject(reader));
-            } else if (isArray(token)) {
-                map.put(name, parseArray(reader));
-            } else if (isScalarValue(token)) {
-                map.put(name, parseScalarValue(token, reader));
+            if (integral) {
+                return Json.jNumber(Long.parseLong(number));
             }
         }
-        reader.endObject();
-
-        return Json.jObject(map);
-    }
-
-    private boolean isObject(JsonToken token) {
-        return token == JsonToken.BEGIN_OBJECT;
-    }
-
-    private boolean isArray(JsonToken token) {
-        return token == JsonToken.BEGIN_ARRAY;
-    }
-
-    private boolean isScalarValue(JsonToken token) {
-        switch (token) {
-            case STRING:
-            case NUMBER:
-            case BOOLEAN:
-            case NULL:
-                return true;
-            default:
-                return false;
-        }
+        return Json.jNumber(new BigDecimal(number));
     }
 }
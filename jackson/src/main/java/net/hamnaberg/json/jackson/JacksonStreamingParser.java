@@ -2,32 +2,88 @@ package net.hamnaberg.json.jackson;
 
 import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.StreamReadConstraints;
 import net.hamnaberg.json.*;
 import net.hamnaberg.json.io.JsonParseException;
 import net.hamnaberg.json.io.JsonParser;
 
 import java.io.Reader;
-import java.util.ArrayList;
-import java.util.LinkedHashMap;
-import java.util.List;
 
 public final class JacksonStreamingParser extends JsonParser {
-    private final JsonFactory factory = new JsonFactory();
+    /**
+     * Deepest nesting of objects and arrays accepted by default. Values are built without recursion,
+     * so this is far above the default of Jackson, and only bounds the memory a single document can take.
+     * <p>
+     * Only this parser has a limit. The Gson, Glassfish and lazy parsers accept any depth that fits in memory,
+     * so use this one, or check the size of the input, when parsing untrusted documents.
+     */
+    public static final int DEFAULT_MAX_NESTING_DEPTH = 100_000;
+
+    private final JsonFactory factory;
+
+    public JacksonStreamingParser() {
+        this(DEFAULT_MAX_NESTING_DEPTH);
+    }
+
+    /**
+     * @param pool pool that parsed values are interned in
+     */
+    public JacksonStreamingParser(JsonPool pool) {
+        this(pool, DEFAULT_MAX_NESTING_DEPTH);
+    }
+
+    /**
+     * @param maxNestingDepth deepest nesting of objects and arrays accepted, deeper input fails to parse
+     */
+    public JacksonStreamingParser(int maxNestingDepth) {
+        this.factory = factory(maxNestingDepth);
+    }
+
+    /**
+     * @param pool            pool that parsed values are interned in
+     * @param maxNestingDepth deepest nesting of objects and arrays accepted, deeper input fails to parse
+     */
+    public JacksonStreamingParser(JsonPool pool, int maxNestingDepth) {
+        super(pool);
+        this.factory = factory(maxNestingDepth);
+    }
+
+    private static JsonFactory factory(int maxNestingDepth) {
+        return JsonFactory.builder()
+                .streamReadConstraints(StreamReadConstraints.builder().maxNestingDepth(maxNestingDepth).build())
+                .build();
+    }
 
     @Override
     protected Json.JValue parseImpl(Reader reader) {
         try {
             com.fasterxml.jackson.core.JsonParser parser = factory.createParser(reader);
+            JsonTreeBuilder builder = treeBuilder();
             JsonToken token;
-            while ((token = parser.nextToken()) != null ) {
-                if (token == JsonToken.START_OBJECT) {
-                    return handleObject(parser);
-                }
-                else if (token == JsonToken.START_ARRAY) {
-                    return handleArray(parser);
+            while ((token = parser.nextToken()) != null) {
+                switch (token) {
+                    case START_OBJECT:
+                        builder.startObject();
+                        break;
+                    case END_OBJECT:
+                        builder.endObject();
+                        break;
+                    case START_ARRAY:
+                        builder.startArray();
+                        break;
+                    case END_ARRAY:
+                        builder.endArray();
+                        break;
+                    case FIELD_NAME:
+                        builder.name(parser.currentName());
+                        break;
+                    default:
+                        if (token.isScalarValue()) {
+                            builder.value(handleScalarValue(parser));
+                        }
                 }
-                else if (token.isScalarValue()) {
-                    return handleScalarValue(parser);
+                if (builder.isComplete()) {
+                    return builder.result();
                 }
             }
         } catch (Exception e) {
@@ -36,46 +92,14 @@ public final class JacksonStreamingParser extends JsonParser {
         throw new JsonParseException("Nothing parsed");
     }
 
-    private Json.JObject handleObject(com.fasterxml.jackson.core.JsonParser parser) throws Exception {
-        LinkedHashMap<String, Json.JValue> map = new LinkedHashMap<>();
-        String fieldName;
-        while ((fieldName = parser.nextFieldName()) != null) {
-            JsonToken token = parser.nextValue();
-            if (token.isScalarValue()) {
-                map.put(fieldName, handleScalarValue(parser));
-            }
-            else if (token == JsonToken.START_ARRAY) {
-                map.put(fieldName, handleArray(parser));
-            }
-            else if (token == JsonToken.START_OBJECT) {
-                map.put(fieldName, handleObject(parser));
-            }
-        }
-        return Json.jObject(map);
-    }
-
-    private Json.JValue handleArray(com.fasterxml.jackson.core.JsonParser parser) throws Exception {
-        JsonToken token;
-        List<Json.JValue> values = new ArrayList<>();
-        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
-            if (token.isScalarValue()) {
-                values.add(handleScalarValue(parser));
-            }
-            else if (token == JsonToken.START_ARRAY) {
-                values.add(handleArray(parser));
-            }
-            else if (token == JsonToken.START_OBJECT) {
-                values.add(handleObject(parser));
-            }
-        }
-        return Json.jArray(values);
-    }
-
     private Json.JValue handleScalarValue(com.fasterxml.jackson.core.JsonParser parser) throws Exception {
         JsonToken token = parser.getCurrentToken();
         if (token == JsonToken.VALUE_STRING) {
             return Json.jString(parser.getValueAsString());
         }
+        else if (token == JsonToken.VALUE_NUMBER_INT && parser.getNumberType() != com.fasterxml.jackson.core.JsonParser.NumberType.BIG_INTEGER) {
+            return Json.jNumber(parser.getLongValue());
+        }
         else if (token.isNumeric()) {
             return Json.jNumber(parser.getDecimalValue());
         }
@@ -1,11 +1,37 @@
 package net.hamnaberg.json.jackson;
 
+import net.hamnaberg.json.Json;
+import net.hamnaberg.json.JsonPool;
+import net.hamnaberg.json.io.JsonParseException;
 import net.hamnaberg.json.io.JsonParser;
 import net.hamnaberg.json.io.JsonParserAbstractTest;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
 
 public class JacksonStreamingParserTest extends JsonParserAbstractTest {
     @Override
     protected JsonParser getParser() {
         return new JacksonStreamingParser();
     }
+
+    @Test
+    public void internsIntoPool() {
+        JsonPool pool = new JsonPool();
+        JsonParser parser = new JacksonStreamingParser(pool);
+        String json = "{\"id\":%d,\"currency\":{\"code\":\"NOK\",\"decimals\":2}}";
+        Json.JObject first = parser.parseUnsafe(String.format(json, 1)).asJsonObjectOrEmpty();
+        Json.JObject second = parser.parseUnsafe(String.format(json, 2)).asJsonObjectOrEmpty();
+        assertSame(first.getValue().get("currency"), second.getValue().get("currency"));
+        assertTrue(pool.stats().bytesSaved() > 0);
+    }
+
+    @Test
+    public void limitsNestingDepth() {
+        String json = "[".repeat(11) + "]".repeat(11);
+        assertThrows(JsonParseException.class, () -> new JacksonStreamingParser(10).parseUnsafe(json));
+        assertEquals(json, new JacksonStreamingParser(11).parseUnsafe(json).nospaces());
+        String deeper = "[".repeat(JacksonStreamingParser.DEFAULT_MAX_NESTING_DEPTH + 1) + "]".repeat(JacksonStreamingParser.DEFAULT_MAX_NESTING_DEPTH + 1);
+        assertThrows(JsonParseException.class, () -> getParser().parseUnsafe(deeper));
+    }
 }
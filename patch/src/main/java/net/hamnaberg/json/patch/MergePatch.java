@@ -3,10 +3,8 @@ package net.hamnaberg.json.patch;
 import net.hamnaberg.json.Json;
 import net.hamnaberg.json.Json.*;
 
-import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Optional;
 
 /**
  * Implementation of Json Merge Patch as defined by <a href="http://tools.ietf.org/html/rfc7396">RFC7396</a>
@@ -45,27 +43,24 @@ public abstract class MergePatch {
         return Json.jObject(map);
     }
 
+    /**
+     * Applies patchValue to target. Parts of target that the patch leaves unchanged are shared with the result,
+     * and target itself is returned when the patch changes nothing.
+     */
     public static JValue patch(JValue target, JValue patchValue) {
-        Optional<JObject> maybeTarget = target.asJsonObject();
-        if (patchValue.asJsonObject().isEmpty()) {
-            return patchValue;
+        if (!(patchValue instanceof JObject patch)) {
+            return patchValue.isScalar() && patchValue.equals(target) ? target : patchValue;
         }
-        else {
-            JObject object = maybeTarget.orElse(Json.jEmptyObject());
-            JObject patch = patchValue.asJsonObject().orElse(Json.jEmptyObject());
-
-            Map<String, JValue> map = new LinkedHashMap<>(object.getValue());
-
-            patch.forEach((k, v) -> {
-                if (v.asJsonNull().isPresent()) {
-                    map.remove(k);
-                } else if (map.containsKey(k)) {
-                    map.put(k, patch(map.get(k), v));
-                } else {
-                    map.put(k, patch(Json.jEmptyObject(), v));
-                }
-            });
-            return Json.jObject(map);
+        JObject object = target.asJsonObjectOrEmpty();
+        for (Map.Entry<String, JValue> entry : patch) {
+            String key = entry.getKey();
+            JValue value = entry.getValue();
+            if (value.isNull()) {
+                object = object.remove(key);
+            } else {
+                object = object.put(key, patch(object.getOrDefault(key, Json.jEmptyObject()), value));
+            }
         }
+        return object;
     }
 }
@@ -0,0 +1,29 @@
+package net.hamnaberg.json.patch;
+
+import net.hamnaberg.json.Json;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class MergePatchSharingTest {
+    private final Json.JObject untouched = Json.jObject("b", Json.jArray(Json.jNumber(1), Json.jNumber(2)));
+    private final Json.JObject document = Json.jObject(
+            Json.tuple("a", untouched),
+            Json.tuple("c", Json.jObject("d", Json.jString("e"))),
+            Json.tuple("f", Json.jString("g"))
+    );
+
+    @Test
+    public void patchSharesUntouchedValues() {
+        Json.JValue patched = MergePatch.patch(document, Json.jObject("c", Json.jObject("d", Json.jString("x"))));
+        assertEquals(Json.jString("x"), patched.asJsonObjectOrEmpty().getAsObjectOrEmpty("c").getValue().get("d"));
+        assertSame(untouched, patched.asJsonObjectOrEmpty().getValue().get("a"));
+    }
+
+    @Test
+    public void patchWithoutChangesReturnsTarget() {
+        assertSame(document, MergePatch.patch(document, Json.jEmptyObject()));
+        assertSame(document, MergePatch.patch(document, Json.jObject(Json.tuple("f", Json.jString("g")), Json.tuple("missing", Json.jNull()))));
+        assertSame(document, MergePatch.patch(document, Json.jObject("c", Json.jObject("d", Json.jString("e")))));
+    }
+}
@@ -2,11 +2,13 @@ package net.hamnaberg.json.pointer;
 
 import net.hamnaberg.json.Folder;
 import net.hamnaberg.json.Json;
+import net.hamnaberg.json.JsonTape;
 
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 public final class JsonPointer {
@@ -70,6 +72,36 @@ public final class JsonPointer {
         return Optional.empty();
     }
 
+    /**
+     * Selects from a tape, converting only the selected value.
+     */
+    public Optional<Json.JValue> select(JsonTape tape) {
+        int index = selectIndex(tape);
+        return index < 0 ? Optional.empty() : Optional.of(tape.get(index));
+    }
+
+    /**
+     * @return the tape index of the selected value, or -1 if there is none
+     */
+    public int selectIndex(JsonTape tape) {
+        int index = 0;
+        // without fold or an iterator, so that selecting allocates nothing
+        for (int i = 0; i < path.size(); i++) {
+            Ref ref = path.get(i);
+            if (ref instanceof ArrayRef arrayRef) {
+                index = tape.isArray(index) ? tape.element(index, arrayRef.index) : tape.field(index, arrayRef.name);
+            } else if (ref instanceof PropertyRef propertyRef) {
+                index = tape.field(index, propertyRef.name);
+            } else {
+                throw new IllegalStateException("List index is out-of-bounds");
+            }
+            if (index < 0) {
+                return -1;
+            }
+        }
+        return index;
+    }
+
     public Json.JValue add(Json.JValue json, Json.JValue value) {
         if (path.isEmpty()) {
             return value;
@@ -97,6 +129,19 @@ public final class JsonPointer {
         return updateImpl(iterator, iterator.next(), json, Optional.of(value));
     }
 
+    /**
+     * Replaces the selected value with the result of f, rebuilding only the objects and arrays on the path to it.
+     * Returns json itself when nothing is selected or f returns the value it was given.
+     */
+    public Json.JValue update(Json.JValue json, UnaryOperator<Json.JValue> f) {
+        Optional<Json.JValue> selected = select(json);
+        if (selected.isEmpty()) {
+            return json;
+        }
+        Json.JValue updated = f.apply(selected.get());
+        return updated == selected.get() ? json : replace(json, updated);
+    }
+
     public Json.JValue copy(Json.JValue json, JsonPointer from) {
         //TODO: Optimize? we have 3 traversals of the graph
         Optional<Json.JValue> selected = from.select(json);
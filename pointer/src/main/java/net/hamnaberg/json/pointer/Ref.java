@@ -13,9 +13,12 @@ class ArrayRef implements Ref {
     static Pattern pattern = Pattern.compile("0|[1-9][0-9]*");
 
     public final int index;
+    // the index as a field name, for objects
+    final String name;
 
     public ArrayRef(int index) {
         this.index = index;
+        this.name = String.valueOf(index);
     }
 
     @Override
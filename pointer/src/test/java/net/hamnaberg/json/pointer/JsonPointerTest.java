@@ -8,6 +8,7 @@ import java.util.Optional;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 
 public class JsonPointerTest {
     private final Json.JObject json =
@@ -88,4 +89,17 @@ public class JsonPointerTest {
         assertNotSame(json, value);
         assertEquals(modified, value);
     }
+
+    @Test
+    public void updateSharesUntouchedValues() {
+        Json.JObject document = json.put("meta", Json.jObject("version", 1));
+        JsonPointer p = JsonPointer.compile("/collection/links/0/rel");
+        Json.JValue value = p.update(document, v -> Json.jString(v.asString().orElse("") + "s"));
+
+        assertEquals(Json.jString("feeds"), p.select(value).get());
+        assertSame(document.getValue().get("meta"), value.asJsonObjectOrEmpty().getValue().get("meta"));
+        assertSame(document, p.update(document, v -> v));
+        assertSame(document, JsonPointer.compile("/missing").update(document, v -> Json.jNull()));
+        assertSame(document, p.replace(document, p.select(document).get()));
+    }
 }
@@ -54,4 +54,15 @@ public class RFCJsonPointerTest {
         assertTrue(select.isPresent());
         assertEquals(Json.jNumber(value), select.get());
     }
+
+    @Test
+    public void selectFromTape() {
+        JsonTape tape = JsonTape.of(json);
+        for (String pointer : new String[]{"", "/foo", "/foo/0", "/foo/1", "/", "/a~1b", "/c%d", "/e^f", "/g|h", "/i\\j", "/k\"l", "/ ", "/m~0n"}) {
+            assertEquals(pointer, JsonPointer.compile(pointer).select(json), JsonPointer.compile(pointer).select(tape));
+        }
+        assertEquals(Optional.empty(), JsonPointer.compile("/foo/2").select(tape));
+        assertEquals(Optional.empty(), JsonPointer.compile("/missing").select(tape));
+        assertEquals(-1, JsonPointer.compile("/foo/bar").selectIndex(tape));
+    }
 }